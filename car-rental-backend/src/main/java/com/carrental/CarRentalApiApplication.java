@@ -2,10 +2,16 @@ package com.carrental;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class CarRentalApiApplication {
     public static void main(String[] args) {
-        SpringApplication.run(CarRentalApiApplication.class, args);
+        SpringApplication application = new SpringApplication(CarRentalApiApplication.class);
+        // Records startup steps for StartupTimingReporter and /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(8192));
+        application.run(args);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+package com.carrental.config;
+
+import com.carrental.currency.CurrencyConversion;
+import com.carrental.currency.MoneySerializer;
+import com.carrental.service.CurrencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Resolves ?currency= to one conversion per request, taken from the rate table current when the request arrived,
+// and leaves it for MoneySerializer; unknown currencies are rejected before reaching a controller
+public class CurrencyFilter extends OncePerRequestFilter {
+
+    public static final String PARAMETER = "currency";
+    public static final String HEADER = "X-Currency";
+
+    private final CurrencyService currencyService;
+
+    public CurrencyFilter(CurrencyService currencyService) {
+        this.currencyService = currencyService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getParameter(PARAMETER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CurrencyConversion conversion;
+        try {
+            conversion = currencyService.conversionTo(request.getParameter(PARAMETER));
+        } catch (RuntimeException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+            return;
+        }
+        request.setAttribute(MoneySerializer.CONVERSION_ATTRIBUTE, conversion);
+        response.setHeader(HEADER, conversion.getTo());
+        filterChain.doFilter(request, response);
+    }
+}
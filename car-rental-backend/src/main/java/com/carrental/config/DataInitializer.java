@@ -7,11 +7,13 @@ import com.carrental.repository.CarRepository;
 import com.carrental.repository.CustomerRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 
 @Component
+@Profile("!test & !fast-startup")
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
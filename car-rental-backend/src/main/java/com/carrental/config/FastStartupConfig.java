@@ -0,0 +1,43 @@
+package com.carrental.config;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.type.MethodMetadata;
+
+@Configuration
+@Profile("fast-startup")
+public class FastStartupConfig {
+
+    private static final String OPENAPI_PACKAGE = "org.springdoc.";
+
+    // The OpenAPI model is built by the first /api-docs or Swagger UI request instead of during startup;
+    // the small springdoc beans MVC itself depends on (properties, configurers) are still created on demand.
+    // Runs before AOT code generation, so the lazy flag also ends up in the generated bean definitions.
+    @Bean
+    public static BeanFactoryPostProcessor lazyOpenApiBeans() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                String declaringClass = declaringClassName(definition);
+                if (declaringClass != null && declaringClass.startsWith(OPENAPI_PACKAGE)
+                        && definition.getRole() != BeanDefinition.ROLE_INFRASTRUCTURE) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    static String declaringClassName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                return factoryMethod.getDeclaringClassName();
+            }
+        }
+        return definition.getBeanClassName();
+    }
+}
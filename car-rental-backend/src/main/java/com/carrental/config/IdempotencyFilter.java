@@ -0,0 +1,228 @@
+package com.carrental.config;
+
+import com.carrental.service.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+// Makes POST /rentals and POST /customers safe to retry: a request carrying an Idempotency-Key that was
+// already seen gets the stored response back without running validation, conflict checks or the insert again
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of("/rentals", "/customers");
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+    private final long waitTimeoutMs;
+    // The body is held in memory for the fingerprint and the replay to the controller, so it is capped
+    private final int maxBodyBytes;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore, long waitTimeoutMs, int maxBodyBytes) {
+        this.idempotencyStore = idempotencyStore;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"POST".equals(request.getMethod())
+                || !IDEMPOTENT_PATHS.contains(path)
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid Idempotency-Key header");
+            return;
+        }
+
+        byte[] body = request.getContentLengthLong() > maxBodyBytes ? null : readBody(request.getInputStream());
+        if (body == null) {
+            response.sendError(HttpStatus.CONTENT_TOO_LARGE.value(),
+                    "Request body is larger than " + maxBodyBytes + " bytes");
+            return;
+        }
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String key = path + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request.getQueryString(), accept(request), body);
+
+        // Loops only when the request holding the key gave up without a stored response
+        while (true) {
+            IdempotencyStore.Claim claim = idempotencyStore.claim(key, fingerprint);
+            switch (claim.getResult()) {
+                case MISMATCH:
+                    response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(),
+                            "Idempotency-Key was already used with a different request");
+                    return;
+                case EXISTING:
+                    IdempotencyStore.StoredResponse stored;
+                    try {
+                        stored = idempotencyStore.await(claim.getEntry(), waitTimeoutMs);
+                    } catch (TimeoutException e) {
+                        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                        response.sendError(HttpStatus.CONFLICT.value(),
+                                "A request with this Idempotency-Key is still in progress");
+                        return;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ServletException(e);
+                    }
+                    if (stored != null) {
+                        replay(stored, response);
+                        return;
+                    }
+                    break;
+                case OWNER:
+                    execute(new CachedBodyRequest(request, body), response, filterChain, key, claim.getEntry());
+                    return;
+            }
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String key, IdempotencyStore.Entry entry) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            int status = responseWrapper.getStatus();
+            // Server errors are transient; leave the key free so the next retry runs the request again
+            if (status < HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                idempotencyStore.complete(entry, new IdempotencyStore.StoredResponse(status,
+                        responseWrapper.getContentType(), responseWrapper.getHeader(HttpHeaders.LOCATION),
+                        responseWrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyStore.abandon(key, entry);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        if (stored.getLocation() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.getLocation());
+        }
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    // Null when the body turns out to be longer than maxBodyBytes; reads at most one byte past the limit
+    private byte[] readBody(InputStream input) throws IOException {
+        byte[] body = input.readNBytes(maxBodyBytes + 1);
+        return body.length > maxBodyBytes ? null : body;
+    }
+
+    private static String accept(HttpServletRequest request) {
+        List<String> values = Collections.list(request.getHeaders(HttpHeaders.ACCEPT));
+        return values.isEmpty() ? null : String.join(",", values);
+    }
+
+    // The query string and Accept header are part of the request too (?currency= changes the response, Accept
+    // picks JSON, CBOR or Smile), so a retry that changes either is a different request under the same key
+    private static String fingerprint(String queryString, String accept, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (queryString != null) {
+                digest.update(queryString.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            if (accept != null) {
+                digest.update(accept.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The body is read up front for the fingerprint, so the controller gets it replayed from memory
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Everything is already in memory, so the listener is told at once that the data is there and complete
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.carrental.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Runs reads that must see the latest writes, such as cache reloads right after a write, on the primary.
+// They join the caller's transaction whenever it is on the primary already: the reloads run in after-commit
+// listeners, and a new transaction there would wait on the pool for a second connection while the request
+// still holds its first.
+@Component
+public class PrimaryReads {
+
+    // Null when read-replica.enabled is off and every connection is a primary one
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    private final TransactionTemplate joiningTransaction;
+
+    private final TransactionTemplate newTransaction;
+
+    @Autowired
+    public PrimaryReads(PlatformTransactionManager transactionManager,
+                        ObjectProvider<ReplicaRoutingDataSource> routingDataSource) {
+        this(transactionManager, routingDataSource.getIfAvailable());
+    }
+
+    public PrimaryReads(PlatformTransactionManager transactionManager) {
+        this(transactionManager, (ReplicaRoutingDataSource) null);
+    }
+
+    PrimaryReads(PlatformTransactionManager transactionManager, ReplicaRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+        this.joiningTransaction = new TransactionTemplate(transactionManager);
+        this.joiningTransaction.setReadOnly(true);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T execute(TransactionCallback<T> action) {
+        if (routingDataSource != null && routingDataSource.routesToReplica()) {
+            // The caller's read-only transaction is bound to a replica connection. A new read-write transaction
+            // takes its connection from the primary pool, so the two connections never wait on each other.
+            return newTransaction.execute(action);
+        }
+        return ReplicaRoutingDataSource.onPrimary(() -> joiningTransaction.execute(action));
+    }
+}
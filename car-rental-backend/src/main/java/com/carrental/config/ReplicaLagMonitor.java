@@ -0,0 +1,74 @@
+package com.carrental.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+
+    private volatile Long lastLagSeconds;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, String lagQuery, long maxLagSeconds) {
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${read-replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        boolean healthy;
+        try (Connection connection = routingDataSource.getReplica().getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                // No lag query configured: only make sure the replica is reachable
+                lastLagSeconds = null;
+                healthy = connection.isValid(2);
+            } else {
+                healthy = isLagWithinTolerance(connection);
+            }
+        } catch (SQLException e) {
+            lastLagSeconds = null;
+            healthy = false;
+        }
+
+        if (healthy != routingDataSource.isReplicaAvailable()) {
+            if (healthy) {
+                log.info("Read replica back within lag tolerance, routing read-only transactions to it");
+            } else {
+                log.warn("Read replica unavailable or lagging (lag={}s, max={}s), routing reads to primary",
+                        lastLagSeconds, maxLagSeconds);
+            }
+        }
+        routingDataSource.setReplicaAvailable(healthy);
+    }
+
+    private boolean isLagWithinTolerance(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                lastLagSeconds = null;
+                return false;
+            }
+            long lag = resultSet.getLong(1);
+            if (resultSet.wasNull()) {
+                // e.g. replication stopped
+                lastLagSeconds = null;
+                return false;
+            }
+            lastLagSeconds = lag;
+            return lag <= maxLagSeconds;
+        }
+    }
+
+    public Long getLastLagSeconds() { return lastLagSeconds; }
+}
@@ -0,0 +1,80 @@
+package com.carrental.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    // Set by PrimaryReads while it runs a read that must see the latest writes
+    private static final ThreadLocal<Boolean> primaryHint = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    // Flipped by ReplicaLagMonitor; while false every read falls back to the primary
+    private volatile boolean replicaAvailable = true;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Target.PRIMARY, primary);
+        targets.put(Target.REPLICA, replica);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaAvailable && primaryHint.get() == null && TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+
+    // Whether a connection fetched now, or already held by the current transaction, is a replica connection
+    boolean routesToReplica() {
+        return determineCurrentLookupKey() == Target.REPLICA;
+    }
+
+    static <T> T onPrimary(Supplier<T> action) {
+        if (primaryHint.get() != null) {
+            return action.get();
+        }
+        primaryHint.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            primaryHint.remove();
+        }
+    }
+
+    public DataSource getReplica() { return replica; }
+
+    public boolean isReplicaAvailable() { return replicaAvailable; }
+    public void setReplicaAvailable(boolean replicaAvailable) { this.replicaAvailable = replicaAvailable; }
+
+    @Override
+    public void close() throws IOException {
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+        if (replica instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.carrental.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Logs where startup time went once the application is ready to serve requests. Needs the
+// BufferingApplicationStartup installed in CarRentalApiApplication; the raw steps stay available at /actuator/startup.
+@Component
+@ConditionalOnProperty(name = "startup-timing.enabled", havingValue = "true", matchIfMissing = true)
+public class StartupTimingReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimingReporter.class);
+
+    private static final String BEAN_INSTANTIATE_STEP = "spring.beans.instantiate";
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Value("${startup-timing.top-steps:15}")
+    private int topSteps;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        StringBuilder report = new StringBuilder("Startup timing: ready after ")
+                .append(event.getTimeTaken().toMillis()).append(" ms (JVM uptime ")
+                .append(ManagementFactory.getRuntimeMXBean().getUptime()).append(" ms)");
+
+        if (applicationContext.getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+            report.append("\n  Phases:");
+            top(totalsByStep(events)).forEach((step, duration) -> appendLine(report, step, duration));
+            report.append("\n  Slowest beans:");
+            top(slowestBeans(events)).forEach((bean, duration) -> appendLine(report, bean, duration));
+        }
+        log.info(report.toString());
+    }
+
+    // Total time per step name. A step nested in a step of the same name (a bean created while creating
+    // another bean) is already inside its parent's duration and is not counted again.
+    static Map<String, Duration> totalsByStep(List<StartupTimeline.TimelineEvent> events) {
+        Map<Long, StartupStep> stepsById = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            stepsById.put(event.getStartupStep().getId(), event.getStartupStep());
+        }
+        Map<String, Duration> totals = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (!hasAncestorNamed(step, stepsById)) {
+                totals.merge(step.getName(), event.getDuration(), Duration::plus);
+            }
+        }
+        return totals;
+    }
+
+    // Bean creation time including the dependencies it pulled in, by bean name
+    static Map<String, Duration> slowestBeans(List<StartupTimeline.TimelineEvent> events) {
+        Map<String, Duration> beans = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            if (BEAN_INSTANTIATE_STEP.equals(event.getStartupStep().getName())) {
+                for (StartupStep.Tag tag : event.getStartupStep().getTags()) {
+                    if ("beanName".equals(tag.getKey())) {
+                        beans.merge(tag.getValue(), event.getDuration(), Duration::plus);
+                    }
+                }
+            }
+        }
+        return beans;
+    }
+
+    private static boolean hasAncestorNamed(StartupStep step, Map<Long, StartupStep> stepsById) {
+        StartupStep ancestor = stepsById.get(step.getParentId());
+        while (ancestor != null) {
+            if (ancestor.getName().equals(step.getName())) {
+                return true;
+            }
+            ancestor = stepsById.get(ancestor.getParentId());
+        }
+        return false;
+    }
+
+    private Map<String, Duration> top(Map<String, Duration> durations) {
+        Map<String, Duration> top = new LinkedHashMap<>();
+        durations.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue(Comparator.reverseOrder()))
+                .limit(topSteps)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    private static void appendLine(StringBuilder report, String name, Duration duration) {
+        report.append("\n    ").append(String.format("%6d ms  ", duration.toMillis())).append(name);
+    }
+}
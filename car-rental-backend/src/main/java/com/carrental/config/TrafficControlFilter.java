@@ -0,0 +1,77 @@
+package com.carrental.config;
+
+import com.carrental.service.Bulkheads;
+import com.carrental.service.EndpointGroup;
+import com.carrental.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Per-client rate limit first (429), then the group's bulkhead (503), so rejected traffic never reaches a controller
+public class TrafficControlFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final Bulkheads bulkheads;
+    private final boolean trustForwardedFor;
+
+    public TrafficControlFilter(RateLimiter rateLimiter, Bulkheads bulkheads, boolean trustForwardedFor) {
+        this.rateLimiter = rateLimiter;
+        this.bulkheads = bulkheads;
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointGroup group = EndpointGroup.classify(request.getMethod(), path);
+
+        long waitNanos = rateLimiter.tryAcquire(group, clientId(request));
+        if (waitNanos > 0) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos))));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Rate limit exceeded");
+            return;
+        }
+
+        boolean entered;
+        try {
+            entered = bulkheads.tryEnter(group);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+        }
+        if (!entered) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent " + group.getKey() + " requests");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkheads.release(group);
+        }
+    }
+
+    private String clientId(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
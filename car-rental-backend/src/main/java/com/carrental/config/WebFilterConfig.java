@@ -0,0 +1,48 @@
+package com.carrental.config;
+
+import com.carrental.service.Bulkheads;
+import com.carrental.service.CurrencyService;
+import com.carrental.service.IdempotencyStore;
+import com.carrental.service.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class WebFilterConfig {
+
+    // Runs first so rate-limited or shed requests cost as little as possible
+    @Bean
+    @ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<TrafficControlFilter> trafficControlFilter(
+            RateLimiter rateLimiter,
+            Bulkheads bulkheads,
+            @Value("${rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor) {
+        FilterRegistrationBean<TrafficControlFilter> registration =
+                new FilterRegistrationBean<>(new TrafficControlFilter(rateLimiter, bulkheads, trustForwardedFor));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(
+            IdempotencyStore idempotencyStore,
+            @Value("${idempotency.wait-timeout-ms:10000}") long waitTimeoutMs,
+            @Value("${idempotency.max-body-bytes:65536}") int maxBodyBytes) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyStore, waitTimeoutMs, maxBodyBytes));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 200);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean<CurrencyFilter> currencyFilter(CurrencyService currencyService) {
+        FilterRegistrationBean<CurrencyFilter> registration =
+                new FilterRegistrationBean<>(new CurrencyFilter(currencyService));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 300);
+        return registration;
+    }
+}
@@ -0,0 +1,124 @@
+package com.carrental.controller;
+
+import com.carrental.dto.BranchStats;
+import com.carrental.dto.NearestBranch;
+import com.carrental.model.Branch;
+import com.carrental.model.Car;
+import com.carrental.service.BranchLocator;
+import com.carrental.service.BranchService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/branches")
+@CrossOrigin(origins = "http://localhost:3000")
+public class BranchController {
+
+    @Autowired
+    private BranchService branchService;
+
+    @Autowired
+    private BranchLocator branchLocator;
+
+    @GetMapping
+    public ResponseEntity<List<Branch>> getAllBranches() {
+        List<Branch> branches = branchService.getAllBranches();
+        return ResponseEntity.ok(branches);
+    }
+
+    // from defaults to today and to to from; limit is how many branches with a free car to return
+    @GetMapping("/nearest")
+    public ResponseEntity<List<NearestBranch>> findNearestBranches(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer seats,
+            @RequestParam(defaultValue = "3") int limit) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180 || limit < 1 || limit > 20) {
+            return ResponseEntity.badRequest().build();
+        }
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start;
+        try {
+            return ResponseEntity.ok(branchLocator.findNearest(lat, lon, start, end, seats, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Branch> getBranchById(@PathVariable Long id) {
+        return branchService.getBranchById(id)
+                .map(branch -> ResponseEntity.ok(branch))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public ResponseEntity<Branch> createBranch(@Valid @RequestBody Branch branch) {
+        try {
+            Branch createdBranch = branchService.createBranch(branch);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdBranch);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Branch> updateBranch(@PathVariable Long id, @Valid @RequestBody Branch branchDetails) {
+        try {
+            Branch updatedBranch = branchService.updateBranch(id, branchDetails);
+            return ResponseEntity.ok(updatedBranch);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteBranch(@PathVariable Long id) {
+        if (!branchService.branchExists(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            branchService.deleteBranch(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/{id}/cars")
+    public ResponseEntity<List<Car>> getBranchCars(@PathVariable Long id) {
+        return branchService.getCars(id)
+                .map(cars -> ResponseEntity.ok(cars))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/cars/available")
+    public ResponseEntity<List<Car>> getAvailableBranchCars(@PathVariable Long id) {
+        return branchService.getAvailableCars(id)
+                .map(cars -> ResponseEntity.ok(cars))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/cars/search")
+    public ResponseEntity<List<Car>> searchBranchCars(@PathVariable Long id, @RequestParam String keyword) {
+        return branchService.searchCars(id, keyword)
+                .map(cars -> ResponseEntity.ok(cars))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<BranchStats> getBranchStats(@PathVariable Long id) {
+        return branchService.getStats(id)
+                .map(stats -> ResponseEntity.ok(stats))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
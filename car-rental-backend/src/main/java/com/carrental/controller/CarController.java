@@ -1,16 +1,33 @@
 package com.carrental.controller;
 
+import com.carrental.dto.AvailabilityCalendar;
+import com.carrental.dto.BulkStatusRequest;
+import com.carrental.dto.BulkStatusResult;
+import com.carrental.dto.CarPage;
+import com.carrental.dto.ChangeSet;
+import com.carrental.dto.FleetFacets;
+import com.carrental.dto.FleetFilter;
 import com.carrental.model.Car;
 import com.carrental.model.CarStatus;
+import com.carrental.service.CalendarService;
 import com.carrental.service.CarService;
+import com.carrental.service.CarStatusStreamService;
+import com.carrental.service.ChangeSyncService;
+import com.carrental.service.FieldSelectionService;
+import com.carrental.service.FleetSnapshot;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/cars")
@@ -20,12 +37,33 @@ public class CarController {
     @Autowired
     private CarService carService;
 
+    @Autowired
+    private CarStatusStreamService carStatusStreamService;
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private FleetSnapshot fleetSnapshot;
+
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
+    @Autowired
+    private ChangeSyncService changeSyncService;
+
     @GetMapping
     public ResponseEntity<List<Car>> getAllCars() {
         List<Car> cars = carService.getAllCars();
         return ResponseEntity.ok(cars);
     }
 
+    // Only the named columns are read: ?fields=id,make,model,status,dailyRate
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllCarFields(@RequestParam String fields) {
+        return selectFields(fields, Map.of());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Car> getCarById(@PathVariable Long id) {
         return carService.getCarById(id)
@@ -33,6 +71,11 @@ public class CarController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(path = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getCarFieldsById(@PathVariable Long id, @RequestParam String fields) {
+        return selectFields(fields, id);
+    }
+
     @PostMapping
     public ResponseEntity<Car> createCar(@Valid @RequestBody Car car) {
         try {
@@ -63,12 +106,32 @@ public class CarController {
         }
     }
 
+    // Delta sync: rows changed after since (a nextSince from the previous call, an ISO date-time, or nothing for
+    // everything) plus ids deleted since then; 410 when since is older than the tombstone retention
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeSet<Car>> getCarChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return changeSyncService.getCarChanges(since, limit)
+                    .map(changes -> ResponseEntity.ok(changes))
+                    .orElse(ResponseEntity.status(HttpStatus.GONE).build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/available")
     public ResponseEntity<List<Car>> getAvailableCars() {
         List<Car> availableCars = carService.getAvailableCars();
         return ResponseEntity.ok(availableCars);
     }
 
+    @GetMapping(path = "/available", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAvailableCarFields(@RequestParam String fields) {
+        return selectFields(fields, Map.of("status", CarStatus.AVAILABLE));
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<Car>> searchCars(@RequestParam String keyword) {
         List<Car> cars = carService.searchCars(keyword);
@@ -83,6 +146,57 @@ public class CarController {
         return ResponseEntity.ok(cars);
     }
 
+    // Any combination of criteria; list parameters accept several values (status=AVAILABLE&status=RENTED)
+    @GetMapping("/facets")
+    public ResponseEntity<FleetFacets> getFleetFacets(
+            @RequestParam(required = false) List<CarStatus> status,
+            @RequestParam(required = false) List<String> make,
+            @RequestParam(required = false) List<String> model,
+            @RequestParam(required = false) List<String> fuelType,
+            @RequestParam(required = false) List<String> transmissionType,
+            @RequestParam(required = false) Integer minYear,
+            @RequestParam(required = false) Integer maxYear,
+            @RequestParam(required = false) Integer minSeats,
+            @RequestParam(required = false) Integer maxSeats,
+            @RequestParam(required = false) BigDecimal minRate,
+            @RequestParam(required = false) BigDecimal maxRate) {
+        FleetFilter filter = toFilter(status, make, model, fuelType, transmissionType,
+                minYear, maxYear, minSeats, maxSeats, minRate, maxRate);
+        return ResponseEntity.ok(fleetSnapshot.query(filter));
+    }
+
+    // Same criteria as /facets, returned as rows; pass nextCursor back as cursor to read the following page
+    @GetMapping("/query")
+    public ResponseEntity<CarPage> queryCars(
+            @RequestParam(required = false) List<CarStatus> status,
+            @RequestParam(required = false) List<String> make,
+            @RequestParam(required = false) List<String> model,
+            @RequestParam(required = false) List<String> fuelType,
+            @RequestParam(required = false) List<String> transmissionType,
+            @RequestParam(required = false) Integer minYear,
+            @RequestParam(required = false) Integer maxYear,
+            @RequestParam(required = false) Integer minSeats,
+            @RequestParam(required = false) Integer maxSeats,
+            @RequestParam(required = false) BigDecimal minRate,
+            @RequestParam(required = false) BigDecimal maxRate,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        FleetFilter filter = toFilter(status, make, model, fuelType, transmissionType,
+                minYear, maxYear, minSeats, maxSeats, minRate, maxRate);
+        try {
+            return ResponseEntity.ok(carService.queryCars(filter, sort, direction, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping(path = "/status-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCarStatus(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return carStatusStreamService.subscribe(lastEventId);
+    }
+
     @PatchMapping("/{id}/status")
     public ResponseEntity<Car> updateCarStatus(@PathVariable Long id, @RequestParam CarStatus status) {
         try {
@@ -93,6 +207,24 @@ public class CarController {
         }
     }
 
+    // {"carIds": [1, 2, 3], "status": "MAINTENANCE"}; 404 or 409 name the cars that kept the batch from applying
+    @PatchMapping("/status")
+    public ResponseEntity<BulkStatusResult> updateCarStatuses(@Valid @RequestBody BulkStatusRequest request) {
+        BulkStatusResult result;
+        try {
+            result = carService.updateCarStatuses(request.getCarIds(), request.getStatus());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!result.getNotFound().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+        }
+        if (!result.getOnRental().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/make/{make}/model/{model}")
     public ResponseEntity<List<Car>> getCarsByMakeAndModel(
             @PathVariable String make,
@@ -100,4 +232,70 @@ public class CarController {
         List<Car> cars = carService.getCarsByMakeAndModel(make, model);
         return ResponseEntity.ok(cars);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{id}/calendar")
+    public ResponseEntity<AvailabilityCalendar> getCarCalendar(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return calendarService.getCarCalendar(id, from, to)
+                    .map(calendar -> ResponseEntity.ok(calendar))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/calendar")
+    public ResponseEntity<AvailabilityCalendar> getModelCalendar(
+            @RequestParam String make,
+            @RequestParam String model,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return calendarService.getModelCalendar(make, model, from, to)
+                    .map(calendar -> ResponseEntity.ok(calendar))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static FleetFilter toFilter(List<CarStatus> status, List<String> make, List<String> model,
+                                        List<String> fuelType, List<String> transmissionType,
+                                        Integer minYear, Integer maxYear, Integer minSeats, Integer maxSeats,
+                                        BigDecimal minRate, BigDecimal maxRate) {
+        FleetFilter filter = new FleetFilter();
+        filter.setStatuses(status);
+        filter.setMakes(make);
+        filter.setModels(model);
+        filter.setFuelTypes(fuelType);
+        filter.setTransmissionTypes(transmissionType);
+        filter.setMinYear(minYear);
+        filter.setMaxYear(maxYear);
+        filter.setMinSeats(minSeats);
+        filter.setMaxSeats(maxSeats);
+        filter.setMinRate(minRate);
+        filter.setMaxRate(maxRate);
+        return filter;
+    }
+
+    private ResponseEntity<List<Map<String, Object>>> selectFields(String fields, Map<String, Object> where) {
+        try {
+            return ResponseEntity.ok(fieldSelectionService.findAll(Car.class, fields, where));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> selectFields(String fields, Long id) {
+        try {
+            return fieldSelectionService.findById(Car.class, fields, id)
+                    .map(row -> ResponseEntity.ok(row))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
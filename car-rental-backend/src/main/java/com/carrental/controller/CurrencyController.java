@@ -0,0 +1,27 @@
+package com.carrental.controller;
+
+import com.carrental.currency.ExchangeRates;
+import com.carrental.service.CurrencyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/currencies")
+@CrossOrigin(origins = "http://localhost:3000")
+public class CurrencyController {
+
+    @Autowired
+    private CurrencyService currencyService;
+
+    // The rate table ?currency= is served from: base currency, units per base unit, and when it was published
+    @GetMapping
+    public ResponseEntity<ExchangeRates> getRates() {
+        ExchangeRates rates = currencyService.getRates();
+        if (rates == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(rates);
+    }
+}
@@ -1,7 +1,10 @@
 package com.carrental.controller;
 
+import com.carrental.dto.ChangeSet;
 import com.carrental.model.Customer;
+import com.carrental.service.ChangeSyncService;
 import com.carrental.service.CustomerService;
+import com.carrental.service.FieldSelectionService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -9,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/customers")
@@ -18,6 +22,12 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
+    @Autowired
+    private ChangeSyncService changeSyncService;
+
     @GetMapping
     public ResponseEntity<List<Customer>> getAllCustomers() {
         List<Customer> customers = customerService.getAllCustomers();
@@ -31,6 +41,31 @@ public class CustomerController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Only the named columns are read: ?fields=id,firstName,lastName
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllCustomerFields(@RequestParam String fields) {
+        return selectFields(fields, Map.of());
+    }
+
+    @GetMapping(path = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getCustomerFieldsById(@PathVariable Long id, @RequestParam String fields) {
+        return selectFields(fields, id);
+    }
+
+    // Same contract as /cars/changes
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeSet<Customer>> getCustomerChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return changeSyncService.getCustomerChanges(since, limit)
+                    .map(changes -> ResponseEntity.ok(changes))
+                    .orElse(ResponseEntity.status(HttpStatus.GONE).build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<Customer> createCustomer(@Valid @RequestBody Customer customer) {
         try {
@@ -80,4 +115,22 @@ public class CustomerController {
         List<Customer> customers = customerService.searchCustomers(keyword);
         return ResponseEntity.ok(customers);
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<List<Map<String, Object>>> selectFields(String fields, Map<String, Object> where) {
+        try {
+            return ResponseEntity.ok(fieldSelectionService.findAll(Customer.class, fields, where));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> selectFields(String fields, Long id) {
+        try {
+            return fieldSelectionService.findById(Customer.class, fields, id)
+                    .map(row -> ResponseEntity.ok(row))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
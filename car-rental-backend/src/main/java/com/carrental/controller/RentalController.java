@@ -1,7 +1,12 @@
 package com.carrental.controller;
 
+import com.carrental.currency.CurrencyConversion;
+import com.carrental.currency.MoneySerializer;
+import com.carrental.dto.ChangeSet;
 import com.carrental.model.Rental;
 import com.carrental.model.RentalStatus;
+import com.carrental.service.ChangeSyncService;
+import com.carrental.service.FieldSelectionService;
 import com.carrental.service.RentalService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/rentals")
@@ -22,6 +28,12 @@ public class RentalController {
     @Autowired
     private RentalService rentalService;
 
+    @Autowired
+    private FieldSelectionService fieldSelectionService;
+
+    @Autowired
+    private ChangeSyncService changeSyncService;
+
     @GetMapping
     public ResponseEntity<List<Rental>> getAllRentals() {
         List<Rental> rentals = rentalService.getAllRentals();
@@ -35,6 +47,32 @@ public class RentalController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Only the named columns are read; car.* and customer.* fields join just the association they name:
+    // ?fields=id,startDate,endDate,totalCost,car.make,car.model
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllRentalFields(@RequestParam String fields) {
+        return selectFields(fields, Map.of());
+    }
+
+    @GetMapping(path = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getRentalFieldsById(@PathVariable Long id, @RequestParam String fields) {
+        return selectFields(fields, id);
+    }
+
+    // Same contract as /cars/changes; archived rentals are reported as deleted
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeSet<Rental>> getRentalChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return changeSyncService.getRentalChanges(since, limit)
+                    .map(changes -> ResponseEntity.ok(changes))
+                    .orElse(ResponseEntity.status(HttpStatus.GONE).build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<Rental> createRental(@Valid @RequestBody Rental rental) {
         try {
@@ -83,18 +121,36 @@ public class RentalController {
         return ResponseEntity.ok(rentals);
     }
 
+    @GetMapping(path = "/customer/{customerId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getRentalFieldsByCustomer(@PathVariable Long customerId,
+                                                                             @RequestParam String fields) {
+        return selectFields(fields, Map.of("customer.id", customerId));
+    }
+
     @GetMapping("/car/{carId}")
     public ResponseEntity<List<Rental>> getRentalsByCar(@PathVariable Long carId) {
         List<Rental> rentals = rentalService.getRentalsByCar(carId);
         return ResponseEntity.ok(rentals);
     }
 
+    @GetMapping(path = "/car/{carId}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getRentalFieldsByCar(@PathVariable Long carId,
+                                                                        @RequestParam String fields) {
+        return selectFields(fields, Map.of("car.id", carId));
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<Rental>> getRentalsByStatus(@PathVariable RentalStatus status) {
         List<Rental> rentals = rentalService.getRentalsByStatus(status);
         return ResponseEntity.ok(rentals);
     }
 
+    @GetMapping(path = "/status/{status}", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getRentalFieldsByStatus(@PathVariable RentalStatus status,
+                                                                           @RequestParam String fields) {
+        return selectFields(fields, Map.of("status", status));
+    }
+
     @GetMapping("/overdue")
     public ResponseEntity<List<Rental>> getOverdueRentals() {
         List<Rental> overdueRentals = rentalService.getOverdueRentals();
@@ -113,12 +169,32 @@ public class RentalController {
     public ResponseEntity<BigDecimal> calculateRentalCost(
             @RequestParam Long carId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestAttribute(name = MoneySerializer.CONVERSION_ATTRIBUTE, required = false) CurrencyConversion conversion) {
         try {
             BigDecimal cost = rentalService.calculateRentalCost(carId, startDate, endDate);
-            return ResponseEntity.ok(cost);
+            // A bare number has no property for MoneySerializer to apply to
+            return ResponseEntity.ok(conversion != null ? conversion.apply(cost) : cost);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private ResponseEntity<List<Map<String, Object>>> selectFields(String fields, Map<String, Object> where) {
+        try {
+            return ResponseEntity.ok(fieldSelectionService.findAll(Rental.class, fields, where));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> selectFields(String fields, Long id) {
+        try {
+            return fieldSelectionService.findById(Rental.class, fields, id)
+                    .map(row -> ResponseEntity.ok(row))
+                    .orElse(ResponseEntity.notFound().build());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.carrental.controller;
+
+import com.carrental.dto.ReportJob;
+import com.carrental.dto.ReportJobRequest;
+import com.carrental.dto.RevenueReport;
+import com.carrental.dto.UtilizationReport;
+import com.carrental.service.ReportJobService;
+import com.carrental.service.ReportService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/reports")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @GetMapping("/utilization")
+    public ResponseEntity<UtilizationReport> getUtilization(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "make") String groupBy) {
+        try {
+            return ResponseEntity.ok(reportService.getUtilization(from, to, groupBy));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/revenue")
+    public ResponseEntity<RevenueReport> getRevenue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "fleet") String groupBy,
+            @RequestParam(defaultValue = "day") String interval) {
+        try {
+            return ResponseEntity.ok(reportService.getRevenue(from, to, groupBy, interval));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 202 while the report is queued or running, 200 when an earlier identical report already holds the result
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJob> submitJob(@Valid @RequestBody ReportJobRequest request) {
+        Optional<ReportJob> job;
+        try {
+            job = reportJobService.submit(request.getType(), request.getParameters());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (job.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        HttpStatus status = job.get().getStatus() == ReportJob.Status.SUCCEEDED ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(job.get());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ReportJob> getJob(@PathVariable String id) {
+        return reportJobService.getJob(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,37 @@
+package com.carrental.currency;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Currency;
+
+// A rate fixed for the whole of one response; converting an amount is one multiplication
+public final class CurrencyConversion {
+
+    private final String from;
+    private final String to;
+    private final BigDecimal rate;
+    private final Instant asOf;
+    private final int scale;
+
+    CurrencyConversion(String from, String to, BigDecimal rate, Instant asOf) {
+        this.from = from;
+        this.to = to;
+        this.rate = rate;
+        this.asOf = asOf;
+        int fractionDigits = Currency.getInstance(to).getDefaultFractionDigits();
+        this.scale = fractionDigits < 0 ? 2 : fractionDigits;
+    }
+
+    public BigDecimal apply(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        return amount.multiply(rate).setScale(scale, RoundingMode.HALF_EVEN);
+    }
+
+    public String getFrom() { return from; }
+    public String getTo() { return to; }
+    public BigDecimal getRate() { return rate; }
+    public Instant getAsOf() { return asOf; }
+}
@@ -0,0 +1,8 @@
+package com.carrental.currency;
+
+// Source of the rate table (a rates API, a treasury feed, ...). Called on the refresh schedule;
+// throwing keeps the previous table in service.
+public interface ExchangeRateProvider {
+
+    ExchangeRates fetch();
+}
@@ -0,0 +1,37 @@
+package com.carrental.currency;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// One immutable rate table: units of each currency per one unit of the base currency. Readers hold on to the
+// snapshot they started with, so a response is converted with one consistent set of rates.
+public final class ExchangeRates {
+
+    private final String base;
+    private final Map<String, BigDecimal> rates;
+    private final Instant asOf;
+    private final String source;
+
+    public ExchangeRates(String base, Map<String, BigDecimal> rates, Instant asOf, String source) {
+        this.base = base;
+        TreeMap<String, BigDecimal> copy = new TreeMap<>(rates);
+        copy.put(base, BigDecimal.ONE);
+        this.rates = Collections.unmodifiableMap(copy);
+        this.asOf = asOf;
+        this.source = source;
+    }
+
+    public Optional<CurrencyConversion> conversionTo(String currency) {
+        BigDecimal rate = rates.get(currency);
+        return rate == null ? Optional.empty() : Optional.of(new CurrencyConversion(base, currency, rate, asOf));
+    }
+
+    public String getBase() { return base; }
+    public Map<String, BigDecimal> getRates() { return rates; }
+    public Instant getAsOf() { return asOf; }
+    public String getSource() { return source; }
+}
@@ -0,0 +1,52 @@
+package com.carrental.currency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+// Local stand-in for a rates feed: reads {"base": "USD", "asOf": "...", "rates": {"EUR": 0.92, ...}} from a file
+@Component
+@ConditionalOnProperty(name = "currency.provider", havingValue = "file", matchIfMissing = true)
+public class FileExchangeRateProvider implements ExchangeRateProvider {
+
+    private final Resource ratesFile;
+    private final ObjectMapper objectMapper;
+
+    public FileExchangeRateProvider(@Value("${currency.rates-file:classpath:fx-rates.json}") Resource ratesFile,
+                                    ObjectMapper objectMapper) {
+        this.ratesFile = ratesFile;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ExchangeRates fetch() {
+        try (InputStream in = ratesFile.getInputStream()) {
+            JsonNode root = objectMapper.readTree(in);
+            Map<String, BigDecimal> rates = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = root.path("rates").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                BigDecimal rate = field.getValue().decimalValue();
+                if (rate.signum() <= 0) {
+                    throw new RuntimeException("Rate for " + field.getKey() + " must be positive");
+                }
+                rates.put(field.getKey(), rate);
+            }
+            Instant asOf = root.hasNonNull("asOf") ? Instant.parse(root.get("asOf").asText()) : Instant.now();
+            return new ExchangeRates(root.path("base").asText("USD"), rates, asOf, ratesFile.getDescription());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read exchange rates from " + ratesFile.getDescription(), e);
+        }
+    }
+}
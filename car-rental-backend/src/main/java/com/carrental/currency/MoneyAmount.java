@@ -0,0 +1,21 @@
+package com.carrental.currency;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+
+// A base-currency amount held outside an annotated property (e.g. in a sparse field row); written as a bare
+// number through MoneySerializer, so ?currency= applies to it like to any entity amount
+public final class MoneyAmount {
+
+    private final BigDecimal value;
+
+    public MoneyAmount(BigDecimal value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    @JsonSerialize(using = MoneySerializer.class)
+    public BigDecimal getValue() { return value; }
+}
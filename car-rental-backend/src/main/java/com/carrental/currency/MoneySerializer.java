@@ -0,0 +1,35 @@
+package com.carrental.currency;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+// For amounts stored in the base currency. When the request asked for ?currency=, CurrencyFilter has pinned one
+// conversion for the whole response and every amount is written through it; otherwise amounts pass through.
+// Entities and cached results are never changed, only their JSON.
+public class MoneySerializer extends JsonSerializer<BigDecimal> {
+
+    public static final String CONVERSION_ATTRIBUTE = "com.carrental.currency.conversion";
+
+    // Per-response marker for "no conversion requested", so the request is only consulted for the first amount
+    private static final Object NONE = new Object();
+
+    @Override
+    public void serialize(BigDecimal value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        Object conversion = serializers.getAttribute(CONVERSION_ATTRIBUTE);
+        if (conversion == null) {
+            RequestAttributes request = RequestContextHolder.getRequestAttributes();
+            conversion = request != null ? request.getAttribute(CONVERSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) : null;
+            if (conversion == null) {
+                conversion = NONE;
+            }
+            serializers.setAttribute(CONVERSION_ATTRIBUTE, conversion);
+        }
+        gen.writeNumber(conversion != NONE ? ((CurrencyConversion) conversion).apply(value) : value);
+    }
+}
@@ -0,0 +1,78 @@
+package com.carrental.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Free/busy day ranges for one car (carId set) or for every car of a make and model
+public class AvailabilityCalendar {
+
+    private Long carId;
+    private String make;
+    private String model;
+    private int cars;
+    private LocalDate from;
+    private LocalDate to;
+    private List<Range> ranges;
+
+    public AvailabilityCalendar() {}
+
+    public AvailabilityCalendar(Long carId, String make, String model, int cars,
+                                LocalDate from, LocalDate to, List<Range> ranges) {
+        this.carId = carId;
+        this.make = make;
+        this.model = model;
+        this.cars = cars;
+        this.from = from;
+        this.to = to;
+        this.ranges = ranges;
+    }
+
+    public Long getCarId() { return carId; }
+    public void setCarId(Long carId) { this.carId = carId; }
+
+    public String getMake() { return make; }
+    public void setMake(String make) { this.make = make; }
+
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public int getCars() { return cars; }
+    public void setCars(int cars) { this.cars = cars; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public List<Range> getRanges() { return ranges; }
+    public void setRanges(List<Range> ranges) { this.ranges = ranges; }
+
+    public static class Range {
+        private LocalDate from;
+        private LocalDate to;
+        private boolean free;
+        private int freeCars;
+
+        public Range() {}
+
+        public Range(LocalDate from, LocalDate to, int freeCars) {
+            this.from = from;
+            this.to = to;
+            this.free = freeCars > 0;
+            this.freeCars = freeCars;
+        }
+
+        public LocalDate getFrom() { return from; }
+        public void setFrom(LocalDate from) { this.from = from; }
+
+        public LocalDate getTo() { return to; }
+        public void setTo(LocalDate to) { this.to = to; }
+
+        public boolean isFree() { return free; }
+        public void setFree(boolean free) { this.free = free; }
+
+        public int getFreeCars() { return freeCars; }
+        public void setFreeCars(int freeCars) { this.freeCars = freeCars; }
+    }
+}
@@ -0,0 +1,57 @@
+package com.carrental.dto;
+
+import com.carrental.currency.MoneySerializer;
+import com.carrental.model.CarStatus;
+import com.carrental.model.RentalStatus;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public class BranchStats {
+
+    private Long branchId;
+    private long totalCars;
+    private long availableCars;
+    private Map<CarStatus, Long> carsByStatus;
+    private Map<RentalStatus, Long> rentalsByStatus;
+    @JsonSerialize(using = MoneySerializer.class)
+    private BigDecimal bookedRevenue;
+    // Share of the branch's cars currently rented out
+    private double utilization;
+
+    public BranchStats() {}
+
+    public BranchStats(Long branchId, Map<CarStatus, Long> carsByStatus, Map<RentalStatus, Long> rentalsByStatus,
+                       BigDecimal bookedRevenue) {
+        this.branchId = branchId;
+        this.carsByStatus = carsByStatus;
+        this.rentalsByStatus = rentalsByStatus;
+        this.bookedRevenue = bookedRevenue;
+        this.totalCars = carsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        this.availableCars = carsByStatus.getOrDefault(CarStatus.AVAILABLE, 0L);
+        long rented = carsByStatus.getOrDefault(CarStatus.RENTED, 0L);
+        this.utilization = totalCars == 0 ? 0 : Math.round(rented * 10000.0 / totalCars) / 10000.0;
+    }
+
+    public Long getBranchId() { return branchId; }
+    public void setBranchId(Long branchId) { this.branchId = branchId; }
+
+    public long getTotalCars() { return totalCars; }
+    public void setTotalCars(long totalCars) { this.totalCars = totalCars; }
+
+    public long getAvailableCars() { return availableCars; }
+    public void setAvailableCars(long availableCars) { this.availableCars = availableCars; }
+
+    public Map<CarStatus, Long> getCarsByStatus() { return carsByStatus; }
+    public void setCarsByStatus(Map<CarStatus, Long> carsByStatus) { this.carsByStatus = carsByStatus; }
+
+    public Map<RentalStatus, Long> getRentalsByStatus() { return rentalsByStatus; }
+    public void setRentalsByStatus(Map<RentalStatus, Long> rentalsByStatus) { this.rentalsByStatus = rentalsByStatus; }
+
+    public BigDecimal getBookedRevenue() { return bookedRevenue; }
+    public void setBookedRevenue(BigDecimal bookedRevenue) { this.bookedRevenue = bookedRevenue; }
+
+    public double getUtilization() { return utilization; }
+    public void setUtilization(double utilization) { this.utilization = utilization; }
+}
@@ -0,0 +1,29 @@
+package com.carrental.dto;
+
+import com.carrental.model.CarStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public class BulkStatusRequest {
+
+    @NotEmpty(message = "At least one car id is required")
+    private List<@NotNull Long> carIds;
+
+    @NotNull(message = "Status is required")
+    private CarStatus status;
+
+    public BulkStatusRequest() {}
+
+    public BulkStatusRequest(List<Long> carIds, CarStatus status) {
+        this.carIds = carIds;
+        this.status = status;
+    }
+
+    public List<Long> getCarIds() { return carIds; }
+    public void setCarIds(List<Long> carIds) { this.carIds = carIds; }
+
+    public CarStatus getStatus() { return status; }
+    public void setStatus(CarStatus status) { this.status = status; }
+}
@@ -0,0 +1,47 @@
+package com.carrental.dto;
+
+import com.carrental.model.CarStatus;
+
+import java.util.List;
+
+// Outcome of a bulk status change. Nothing is written unless every car exists and none is out on a rental;
+// in that case notFound and onRental say which cars held the batch back and updated is empty.
+public class BulkStatusResult {
+
+    private CarStatus status;
+    private boolean applied;
+    private List<Long> updated;
+    private List<Long> unchanged;
+    private List<Long> notFound;
+    private List<Long> onRental;
+
+    public BulkStatusResult() {}
+
+    public BulkStatusResult(CarStatus status, boolean applied, List<Long> updated, List<Long> unchanged,
+                            List<Long> notFound, List<Long> onRental) {
+        this.status = status;
+        this.applied = applied;
+        this.updated = updated;
+        this.unchanged = unchanged;
+        this.notFound = notFound;
+        this.onRental = onRental;
+    }
+
+    public CarStatus getStatus() { return status; }
+    public void setStatus(CarStatus status) { this.status = status; }
+
+    public boolean isApplied() { return applied; }
+    public void setApplied(boolean applied) { this.applied = applied; }
+
+    public List<Long> getUpdated() { return updated; }
+    public void setUpdated(List<Long> updated) { this.updated = updated; }
+
+    public List<Long> getUnchanged() { return unchanged; }
+    public void setUnchanged(List<Long> unchanged) { this.unchanged = unchanged; }
+
+    public List<Long> getNotFound() { return notFound; }
+    public void setNotFound(List<Long> notFound) { this.notFound = notFound; }
+
+    public List<Long> getOnRental() { return onRental; }
+    public void setOnRental(List<Long> onRental) { this.onRental = onRental; }
+}
@@ -0,0 +1,25 @@
+package com.carrental.dto;
+
+import com.carrental.model.Car;
+
+import java.util.List;
+
+// One page of GET /cars/query; pass nextCursor back as ?cursor= to continue, null when there is nothing more
+public class CarPage {
+
+    private List<Car> items;
+    private String nextCursor;
+
+    public CarPage() {}
+
+    public CarPage(List<Car> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Car> getItems() { return items; }
+    public void setItems(List<Car> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,40 @@
+package com.carrental.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One page of a delta sync: rows created or updated after the client's watermark, ids removed since then,
+// and the watermark to send next. hasMore means another call with nextSince returns more right away.
+public class ChangeSet<T> {
+
+    private List<T> changed;
+    private List<Long> deleted;
+    private LocalDateTime upTo;
+    private String nextSince;
+    private boolean hasMore;
+
+    public ChangeSet() {}
+
+    public ChangeSet(List<T> changed, List<Long> deleted, LocalDateTime upTo, String nextSince, boolean hasMore) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.upTo = upTo;
+        this.nextSince = nextSince;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getChanged() { return changed; }
+    public void setChanged(List<T> changed) { this.changed = changed; }
+
+    public List<Long> getDeleted() { return deleted; }
+    public void setDeleted(List<Long> deleted) { this.deleted = deleted; }
+
+    public LocalDateTime getUpTo() { return upTo; }
+    public void setUpTo(LocalDateTime upTo) { this.upTo = upTo; }
+
+    public String getNextSince() { return nextSince; }
+    public void setNextSince(String nextSince) { this.nextSince = nextSince; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+}
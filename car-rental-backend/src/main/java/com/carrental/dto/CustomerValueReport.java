@@ -0,0 +1,75 @@
+package com.carrental.dto;
+
+import com.carrental.currency.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class CustomerValueReport {
+
+    private long customers;
+    @JsonSerialize(using = MoneySerializer.class)
+    private BigDecimal revenue;
+    private List<Entry> top;
+
+    public CustomerValueReport() {}
+
+    public CustomerValueReport(long customers, BigDecimal revenue, List<Entry> top) {
+        this.customers = customers;
+        this.revenue = revenue;
+        this.top = top;
+    }
+
+    public long getCustomers() { return customers; }
+    public void setCustomers(long customers) { this.customers = customers; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+
+    public List<Entry> getTop() { return top; }
+    public void setTop(List<Entry> top) { this.top = top; }
+
+    public static class Entry {
+        private Long customerId;
+        private String name;
+        private String email;
+        private long rentals;
+        @JsonSerialize(using = MoneySerializer.class)
+        private BigDecimal revenue;
+        private LocalDate firstRental;
+        private LocalDate lastRental;
+
+        public Entry() {}
+
+        public Entry(Long customerId, long rentals, BigDecimal revenue, LocalDate firstRental, LocalDate lastRental) {
+            this.customerId = customerId;
+            this.rentals = rentals;
+            this.revenue = revenue;
+            this.firstRental = firstRental;
+            this.lastRental = lastRental;
+        }
+
+        public Long getCustomerId() { return customerId; }
+        public void setCustomerId(Long customerId) { this.customerId = customerId; }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getEmail() { return email; }
+        public void setEmail(String email) { this.email = email; }
+
+        public long getRentals() { return rentals; }
+        public void setRentals(long rentals) { this.rentals = rentals; }
+
+        public BigDecimal getRevenue() { return revenue; }
+        public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+
+        public LocalDate getFirstRental() { return firstRental; }
+        public void setFirstRental(LocalDate firstRental) { this.firstRental = firstRental; }
+
+        public LocalDate getLastRental() { return lastRental; }
+        public void setLastRental(LocalDate lastRental) { this.lastRental = lastRental; }
+    }
+}
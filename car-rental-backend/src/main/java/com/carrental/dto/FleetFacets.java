@@ -0,0 +1,34 @@
+package com.carrental.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// Matching car ids plus, per attribute, counts computed with every other filter applied but that attribute's own
+public class FleetFacets {
+
+    private int fleetSize;
+    private int matches;
+    private List<Long> carIds;
+    private Map<String, Map<String, Integer>> facets;
+
+    public FleetFacets() {}
+
+    public FleetFacets(int fleetSize, int matches, List<Long> carIds, Map<String, Map<String, Integer>> facets) {
+        this.fleetSize = fleetSize;
+        this.matches = matches;
+        this.carIds = carIds;
+        this.facets = facets;
+    }
+
+    public int getFleetSize() { return fleetSize; }
+    public void setFleetSize(int fleetSize) { this.fleetSize = fleetSize; }
+
+    public int getMatches() { return matches; }
+    public void setMatches(int matches) { this.matches = matches; }
+
+    public List<Long> getCarIds() { return carIds; }
+    public void setCarIds(List<Long> carIds) { this.carIds = carIds; }
+
+    public Map<String, Map<String, Integer>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Integer>> facets) { this.facets = facets; }
+}
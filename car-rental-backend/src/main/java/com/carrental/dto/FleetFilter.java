@@ -0,0 +1,57 @@
+package com.carrental.dto;
+
+import com.carrental.model.CarStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Criteria for GET /cars/facets; null or empty means the attribute is not filtered
+public class FleetFilter {
+
+    private List<CarStatus> statuses;
+    private List<String> makes;
+    private List<String> models;
+    private List<String> fuelTypes;
+    private List<String> transmissionTypes;
+    private Integer minYear;
+    private Integer maxYear;
+    private Integer minSeats;
+    private Integer maxSeats;
+    private BigDecimal minRate;
+    private BigDecimal maxRate;
+
+    public FleetFilter() {}
+
+    public List<CarStatus> getStatuses() { return statuses; }
+    public void setStatuses(List<CarStatus> statuses) { this.statuses = statuses; }
+
+    public List<String> getMakes() { return makes; }
+    public void setMakes(List<String> makes) { this.makes = makes; }
+
+    public List<String> getModels() { return models; }
+    public void setModels(List<String> models) { this.models = models; }
+
+    public List<String> getFuelTypes() { return fuelTypes; }
+    public void setFuelTypes(List<String> fuelTypes) { this.fuelTypes = fuelTypes; }
+
+    public List<String> getTransmissionTypes() { return transmissionTypes; }
+    public void setTransmissionTypes(List<String> transmissionTypes) { this.transmissionTypes = transmissionTypes; }
+
+    public Integer getMinYear() { return minYear; }
+    public void setMinYear(Integer minYear) { this.minYear = minYear; }
+
+    public Integer getMaxYear() { return maxYear; }
+    public void setMaxYear(Integer maxYear) { this.maxYear = maxYear; }
+
+    public Integer getMinSeats() { return minSeats; }
+    public void setMinSeats(Integer minSeats) { this.minSeats = minSeats; }
+
+    public Integer getMaxSeats() { return maxSeats; }
+    public void setMaxSeats(Integer maxSeats) { this.maxSeats = maxSeats; }
+
+    public BigDecimal getMinRate() { return minRate; }
+    public void setMinRate(BigDecimal minRate) { this.minRate = minRate; }
+
+    public BigDecimal getMaxRate() { return maxRate; }
+    public void setMaxRate(BigDecimal maxRate) { this.maxRate = maxRate; }
+}
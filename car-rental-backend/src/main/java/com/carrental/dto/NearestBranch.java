@@ -0,0 +1,31 @@
+package com.carrental.dto;
+
+import com.carrental.model.Branch;
+import com.carrental.model.Car;
+
+import java.util.List;
+
+// One hit of GET /branches/nearest: the branch, how far it is and its cars free for the whole requested range
+public class NearestBranch {
+
+    private Branch branch;
+    private double distanceKm;
+    private List<Car> availableCars;
+
+    public NearestBranch() {}
+
+    public NearestBranch(Branch branch, double distanceKm, List<Car> availableCars) {
+        this.branch = branch;
+        this.distanceKm = distanceKm;
+        this.availableCars = availableCars;
+    }
+
+    public Branch getBranch() { return branch; }
+    public void setBranch(Branch branch) { this.branch = branch; }
+
+    public double getDistanceKm() { return distanceKm; }
+    public void setDistanceKm(double distanceKm) { this.distanceKm = distanceKm; }
+
+    public List<Car> getAvailableCars() { return availableCars; }
+    public void setAvailableCars(List<Car> availableCars) { this.availableCars = availableCars; }
+}
@@ -0,0 +1,77 @@
+package com.carrental.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class ReportJob {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private String id;
+    private String type;
+    private Map<String, String> parameters;
+    private String resultKey;
+    private Status status;
+    private boolean cached;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private String error;
+    private Object result;
+
+    public ReportJob() {}
+
+    public ReportJob(String id, String type, Map<String, String> parameters, String resultKey, Status status,
+                     boolean cached, LocalDateTime submittedAt, LocalDateTime startedAt, LocalDateTime completedAt,
+                     String error, Object result) {
+        this.id = id;
+        this.type = type;
+        this.parameters = parameters;
+        this.resultKey = resultKey;
+        this.status = status;
+        this.cached = cached;
+        this.submittedAt = submittedAt;
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+        this.error = error;
+        this.result = result;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Map<String, String> getParameters() { return parameters; }
+    public void setParameters(Map<String, String> parameters) { this.parameters = parameters; }
+
+    public String getResultKey() { return resultKey; }
+    public void setResultKey(String resultKey) { this.resultKey = resultKey; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public boolean isCached() { return cached; }
+    public void setCached(boolean cached) { this.cached = cached; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public Object getResult() { return result; }
+    public void setResult(Object result) { this.result = result; }
+}
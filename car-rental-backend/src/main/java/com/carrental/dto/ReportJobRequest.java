@@ -0,0 +1,27 @@
+package com.carrental.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class ReportJobRequest {
+
+    @NotBlank(message = "Report type is required")
+    private String type;
+
+    private Map<String, String> parameters = new HashMap<>();
+
+    public ReportJobRequest() {}
+
+    public ReportJobRequest(String type, Map<String, String> parameters) {
+        this.type = type;
+        this.parameters = parameters;
+    }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Map<String, String> getParameters() { return parameters; }
+    public void setParameters(Map<String, String> parameters) { this.parameters = parameters; }
+}
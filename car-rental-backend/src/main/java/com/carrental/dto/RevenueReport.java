@@ -0,0 +1,88 @@
+package com.carrental.dto;
+
+import com.carrental.currency.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class RevenueReport {
+
+    private LocalDate from;
+    private LocalDate to;
+    private String groupBy;
+    private String interval;
+    private LocalDateTime asOf;
+    private Bucket totals;
+    private List<Bucket> buckets;
+
+    public RevenueReport() {}
+
+    public RevenueReport(LocalDate from, LocalDate to, String groupBy, String interval, LocalDateTime asOf,
+                         Bucket totals, List<Bucket> buckets) {
+        this.from = from;
+        this.to = to;
+        this.groupBy = groupBy;
+        this.interval = interval;
+        this.asOf = asOf;
+        this.totals = totals;
+        this.buckets = buckets;
+    }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public String getGroupBy() { return groupBy; }
+    public void setGroupBy(String groupBy) { this.groupBy = groupBy; }
+
+    public String getInterval() { return interval; }
+    public void setInterval(String interval) { this.interval = interval; }
+
+    public LocalDateTime getAsOf() { return asOf; }
+    public void setAsOf(LocalDateTime asOf) { this.asOf = asOf; }
+
+    public Bucket getTotals() { return totals; }
+    public void setTotals(Bucket totals) { this.totals = totals; }
+
+    public List<Bucket> getBuckets() { return buckets; }
+    public void setBuckets(List<Bucket> buckets) { this.buckets = buckets; }
+
+    public static class Bucket {
+        private LocalDate period;
+        private String key;
+        private long bookings;
+        private long cancellations;
+        @JsonSerialize(using = MoneySerializer.class)
+        private BigDecimal revenue;
+
+        public Bucket() {}
+
+        public Bucket(LocalDate period, String key, long bookings, long cancellations, BigDecimal revenue) {
+            this.period = period;
+            this.key = key;
+            this.bookings = bookings;
+            this.cancellations = cancellations;
+            this.revenue = revenue;
+        }
+
+        public LocalDate getPeriod() { return period; }
+        public void setPeriod(LocalDate period) { this.period = period; }
+
+        public String getKey() { return key; }
+        public void setKey(String key) { this.key = key; }
+
+        public long getBookings() { return bookings; }
+        public void setBookings(long bookings) { this.bookings = bookings; }
+
+        public long getCancellations() { return cancellations; }
+        public void setCancellations(long cancellations) { this.cancellations = cancellations; }
+
+        public BigDecimal getRevenue() { return revenue; }
+        public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+    }
+}
@@ -0,0 +1,71 @@
+package com.carrental.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class UtilizationReport {
+
+    private LocalDate from;
+    private LocalDate to;
+    private String groupBy;
+    private Group fleet;
+    private List<Group> groups;
+
+    public UtilizationReport() {}
+
+    public UtilizationReport(LocalDate from, LocalDate to, String groupBy, Group fleet, List<Group> groups) {
+        this.from = from;
+        this.to = to;
+        this.groupBy = groupBy;
+        this.fleet = fleet;
+        this.groups = groups;
+    }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public String getGroupBy() { return groupBy; }
+    public void setGroupBy(String groupBy) { this.groupBy = groupBy; }
+
+    public Group getFleet() { return fleet; }
+    public void setFleet(Group fleet) { this.fleet = fleet; }
+
+    public List<Group> getGroups() { return groups; }
+    public void setGroups(List<Group> groups) { this.groups = groups; }
+
+    public static class Group {
+        private String key;
+        private long cars;
+        private long occupiedDays;
+        private long availableDays;
+        private double utilization;
+
+        public Group() {}
+
+        public Group(String key, long cars, long occupiedDays, long availableDays) {
+            this.key = key;
+            this.cars = cars;
+            this.occupiedDays = occupiedDays;
+            this.availableDays = availableDays;
+            this.utilization = availableDays == 0 ? 0 : Math.round(occupiedDays * 10000.0 / availableDays) / 10000.0;
+        }
+
+        public String getKey() { return key; }
+        public void setKey(String key) { this.key = key; }
+
+        public long getCars() { return cars; }
+        public void setCars(long cars) { this.cars = cars; }
+
+        public long getOccupiedDays() { return occupiedDays; }
+        public void setOccupiedDays(long occupiedDays) { this.occupiedDays = occupiedDays; }
+
+        public long getAvailableDays() { return availableDays; }
+        public void setAvailableDays(long availableDays) { this.availableDays = availableDays; }
+
+        public double getUtilization() { return utilization; }
+        public void setUtilization(double utilization) { this.utilization = utilization; }
+    }
+}
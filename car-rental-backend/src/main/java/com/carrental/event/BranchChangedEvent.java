@@ -0,0 +1,13 @@
+package com.carrental.event;
+
+// Published when a branch is created, edited or deleted
+public class BranchChangedEvent {
+
+    private final Long branchId;
+
+    public BranchChangedEvent(Long branchId) {
+        this.branchId = branchId;
+    }
+
+    public Long getBranchId() { return branchId; }
+}
@@ -0,0 +1,26 @@
+package com.carrental.event;
+
+// Published when a car is created, edited or deleted, for in-memory views of the fleet
+public class CarChangedEvent {
+
+    private final Long carId;
+    // Branch the car belongs to after the change (before it, for a delete); null when unassigned
+    private final Long branchId;
+    private final boolean deleted;
+
+    public CarChangedEvent(Long carId, boolean deleted) {
+        this(carId, null, deleted);
+    }
+
+    public CarChangedEvent(Long carId, Long branchId, boolean deleted) {
+        this.carId = carId;
+        this.branchId = branchId;
+        this.deleted = deleted;
+    }
+
+    public Long getCarId() { return carId; }
+
+    public Long getBranchId() { return branchId; }
+
+    public boolean isDeleted() { return deleted; }
+}
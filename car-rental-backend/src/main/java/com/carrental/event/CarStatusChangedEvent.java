@@ -0,0 +1,32 @@
+package com.carrental.event;
+
+import com.carrental.model.CarStatus;
+
+import java.time.LocalDateTime;
+
+public class CarStatusChangedEvent {
+
+    private final Long carId;
+    private final CarStatus previousStatus;
+    private final CarStatus status;
+    private final LocalDateTime changedAt;
+
+    public CarStatusChangedEvent(Long carId, CarStatus previousStatus, CarStatus status) {
+        this(carId, previousStatus, status, LocalDateTime.now());
+    }
+
+    public CarStatusChangedEvent(Long carId, CarStatus previousStatus, CarStatus status, LocalDateTime changedAt) {
+        this.carId = carId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.changedAt = changedAt;
+    }
+
+    public Long getCarId() { return carId; }
+
+    public CarStatus getPreviousStatus() { return previousStatus; }
+
+    public CarStatus getStatus() { return status; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
@@ -0,0 +1,68 @@
+package com.carrental.event;
+
+import com.carrental.model.Rental;
+import com.carrental.model.RentalStatus;
+
+import java.time.LocalDateTime;
+
+public class RentalEvent {
+
+    private final RentalEventType type;
+    private final Long rentalId;
+    private final Long carId;
+    private final Long customerId;
+    private final Long branchId;
+    private final String previousStatus;
+    private final String newStatus;
+    private final LocalDateTime occurredAt;
+
+    public RentalEvent(RentalEventType type, Long rentalId, Long carId, Long customerId,
+                       String previousStatus, String newStatus, LocalDateTime occurredAt) {
+        this(type, rentalId, carId, customerId, null, previousStatus, newStatus, occurredAt);
+    }
+
+    public RentalEvent(RentalEventType type, Long rentalId, Long carId, Long customerId, Long branchId,
+                       String previousStatus, String newStatus, LocalDateTime occurredAt) {
+        this.type = type;
+        this.rentalId = rentalId;
+        this.carId = carId;
+        this.customerId = customerId;
+        this.branchId = branchId;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+        this.occurredAt = occurredAt;
+    }
+
+    public static RentalEvent of(RentalEventType type, Rental rental, RentalStatus previousStatus) {
+        return new RentalEvent(type, rental.getId(),
+                rental.getCar() != null ? rental.getCar().getId() : null,
+                rental.getCustomer() != null ? rental.getCustomer().getId() : null,
+                rental.getBranchId(),
+                previousStatus != null ? previousStatus.name() : null,
+                rental.getStatus() != null ? rental.getStatus().name() : null,
+                LocalDateTime.now());
+    }
+
+    public static RentalEvent of(CarStatusChangedEvent event) {
+        return new RentalEvent(RentalEventType.CAR_STATUS_CHANGED, null, event.getCarId(), null,
+                event.getPreviousStatus() != null ? event.getPreviousStatus().name() : null,
+                event.getStatus() != null ? event.getStatus().name() : null,
+                event.getChangedAt());
+    }
+
+    public RentalEventType getType() { return type; }
+
+    public Long getRentalId() { return rentalId; }
+
+    public Long getCarId() { return carId; }
+
+    public Long getCustomerId() { return customerId; }
+
+    public Long getBranchId() { return branchId; }
+
+    public String getPreviousStatus() { return previousStatus; }
+
+    public String getNewStatus() { return newStatus; }
+
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+}
@@ -0,0 +1,9 @@
+package com.carrental.event;
+
+public enum RentalEventType {
+    RENTAL_CREATED,
+    RENTAL_UPDATED,
+    RENTAL_COMPLETED,
+    RENTAL_DELETED,
+    CAR_STATUS_CHANGED
+}
@@ -0,0 +1,98 @@
+package com.carrental.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Immutable
+@Table(name = "rentals_archive")
+public class ArchivedRental {
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private Customer customer;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "car_id", nullable = false)
+    private Car car;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "actual_return_date")
+    private LocalDate actualReturnDate;
+
+    @Column(name = "total_cost", nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalCost;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RentalStatus status;
+
+    @Column(name = "notes")
+    private String notes;
+
+    @Column(name = "branch_id")
+    private Long branchId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public ArchivedRental() {}
+
+    // Archived rows are served through the same API shape as live rentals
+    public Rental toRental() {
+        Rental rental = new Rental(customer, car, startDate, endDate, totalCost);
+        rental.setId(id);
+        rental.setActualReturnDate(actualReturnDate);
+        rental.setStatus(status);
+        rental.setNotes(notes);
+        rental.setBranchId(branchId);
+        rental.setCreatedAt(createdAt);
+        rental.setUpdatedAt(updatedAt);
+        return rental;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+
+    public Customer getCustomer() { return customer; }
+
+    public Car getCar() { return car; }
+
+    public LocalDate getStartDate() { return startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+
+    public LocalDate getActualReturnDate() { return actualReturnDate; }
+
+    public BigDecimal getTotalCost() { return totalCost; }
+
+    public RentalStatus getStatus() { return status; }
+
+    public String getNotes() { return notes; }
+
+    public Long getBranchId() { return branchId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+}
@@ -1,14 +1,21 @@
 package com.carrental.model;
 
+import com.carrental.currency.MoneySerializer;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import org.hibernate.annotations.BatchSize;
 
+// Lazy Rental.car proxies of one session are initialized together, up to 32 per IN-list query
 @Entity
 @Table(name = "cars")
+@BatchSize(size = 32)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Car {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -33,6 +40,7 @@ public class Car {
     @NotNull(message = "Daily rate is required")
     @Positive(message = "Daily rate must be positive")
     @Column(name = "daily_rate", nullable = false, precision = 10, scale = 2)
+    @JsonSerialize(using = MoneySerializer.class)
     private BigDecimal dailyRate;
 
     @Enumerated(EnumType.STRING)
@@ -48,6 +56,9 @@ public class Car {
     @Column(name = "seating_capacity")
     private Integer seatingCapacity;
 
+    @Column(name = "branch_id")
+    private Long branchId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -107,6 +118,9 @@ public class Car {
     public Integer getSeatingCapacity() { return seatingCapacity; }
     public void setSeatingCapacity(Integer seatingCapacity) { this.seatingCapacity = seatingCapacity; }
 
+    public Long getBranchId() { return branchId; }
+    public void setBranchId(Long branchId) { this.branchId = branchId; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -1,13 +1,19 @@
 package com.carrental.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import java.time.LocalDateTime;
 import java.util.List;
+import org.hibernate.annotations.BatchSize;
 
+// Lazy Rental.customer proxies and rentals collections of one session are initialized together,
+// up to 32 per IN-list query
 @Entity
 @Table(name = "customers")
+@BatchSize(size = 32)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Customer {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -43,7 +49,10 @@ public class Customer {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Rendered without the back reference, which would otherwise recurse through customer and rentals
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 32)
+    @JsonIgnoreProperties("customer")
     private List<Rental> rentals;
 
     @PrePersist
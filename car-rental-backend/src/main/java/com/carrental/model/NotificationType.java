@@ -0,0 +1,7 @@
+package com.carrental.model;
+
+public enum NotificationType {
+    RENTAL_CONFIRMATION,
+    RETURN_REMINDER,
+    RETURN_CONFIRMATION
+}
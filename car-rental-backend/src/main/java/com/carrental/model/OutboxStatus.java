@@ -0,0 +1,8 @@
+package com.carrental.model;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED,
+    CANCELLED
+}
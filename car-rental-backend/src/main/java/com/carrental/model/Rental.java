@@ -1,5 +1,7 @@
 package com.carrental.model;
 
+import com.carrental.currency.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
@@ -36,6 +38,7 @@ public class Rental {
 
     @NotNull(message = "Total cost is required")
     @Column(name = "total_cost", nullable = false, precision = 10, scale = 2)
+    @JsonSerialize(using = MoneySerializer.class)
     private BigDecimal totalCost;
 
     @Enumerated(EnumType.STRING)
@@ -45,6 +48,9 @@ public class Rental {
     @Column(name = "notes")
     private String notes;
 
+    @Column(name = "branch_id")
+    private Long branchId;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -101,6 +107,9 @@ public class Rental {
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
 
+    public Long getBranchId() { return branchId; }
+    public void setBranchId(Long branchId) { this.branchId = branchId; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
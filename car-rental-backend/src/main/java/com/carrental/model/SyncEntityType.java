@@ -0,0 +1,7 @@
+package com.carrental.model;
+
+public enum SyncEntityType {
+    CAR,
+    CUSTOMER,
+    RENTAL
+}
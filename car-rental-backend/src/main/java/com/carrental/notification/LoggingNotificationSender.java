@@ -0,0 +1,47 @@
+package com.carrental.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+// Local stand-in for a real gateway: logs each notification and keeps the most recent ones in memory
+@Component
+@ConditionalOnProperty(name = "notifications.sender", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationSender implements NotificationSender {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingNotificationSender.class);
+
+    private static final int MAX_RECORDED = 1000;
+
+    private final ConcurrentLinkedDeque<Notification> delivered = new ConcurrentLinkedDeque<>();
+
+    @Override
+    public Set<Long> send(List<Notification> batch) {
+        Set<Long> deliveredIds = new HashSet<>();
+        for (Notification notification : batch) {
+            log.info("Notification {} for rental {} to {}: {}", notification.getType(), notification.getRentalId(),
+                    notification.getEmail(), notification.getPayload());
+            delivered.addLast(notification);
+            deliveredIds.add(notification.getId());
+        }
+        while (delivered.size() > MAX_RECORDED) {
+            delivered.pollFirst();
+        }
+        return deliveredIds;
+    }
+
+    public List<Notification> getDelivered() {
+        return new ArrayList<>(delivered);
+    }
+
+    public void clear() {
+        delivered.clear();
+    }
+}
@@ -0,0 +1,34 @@
+package com.carrental.notification;
+
+import com.carrental.model.NotificationType;
+
+public class Notification {
+
+    private final Long id;
+    private final NotificationType type;
+    private final Long rentalId;
+    private final String email;
+    private final String phoneNumber;
+    private final String payload;
+
+    public Notification(Long id, NotificationType type, Long rentalId, String email, String phoneNumber, String payload) {
+        this.id = id;
+        this.type = type;
+        this.rentalId = rentalId;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.payload = payload;
+    }
+
+    public Long getId() { return id; }
+
+    public NotificationType getType() { return type; }
+
+    public Long getRentalId() { return rentalId; }
+
+    public String getEmail() { return email; }
+
+    public String getPhoneNumber() { return phoneNumber; }
+
+    public String getPayload() { return payload; }
+}
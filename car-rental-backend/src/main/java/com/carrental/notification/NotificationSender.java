@@ -0,0 +1,11 @@
+package com.carrental.notification;
+
+import java.util.List;
+import java.util.Set;
+
+// Delivery channel for outbox notifications (mail, SMS gateway, ...). Implementations receive a whole
+// claimed batch so they can use the gateway's bulk API, and return the ids that were delivered.
+public interface NotificationSender {
+
+    Set<Long> send(List<Notification> batch);
+}
@@ -0,0 +1,46 @@
+package com.carrental.repository;
+
+import com.carrental.model.ArchivedRental;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedRentalRepository extends JpaRepository<ArchivedRental, Long> {
+
+    List<ArchivedRental> findByCustomerId(Long customerId);
+
+    @Modifying
+    @Query(value = "INSERT INTO rentals_archive (id, customer_id, car_id, start_date, end_date, actual_return_date, " +
+                   "total_cost, status, notes, branch_id, created_at, updated_at, archived_at) " +
+                   "SELECT id, customer_id, car_id, start_date, end_date, actual_return_date, " +
+                   "total_cost, status, notes, branch_id, created_at, updated_at, :archivedAt " +
+                   "FROM rentals WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromRentals(@Param("ids") List<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedRental a WHERE a.customer.id = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("SELECT a.car.id AS carId, a.startDate AS startDate, a.endDate AS endDate, " +
+           "a.actualReturnDate AS actualReturnDate, a.status AS status FROM ArchivedRental a " +
+           "WHERE a.status <> 'CANCELLED' AND a.startDate <= :to " +
+           "AND (a.endDate >= :from OR a.actualReturnDate >= :from)")
+    List<RentalSpan> findOccupancySpans(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT a.car.id AS carId, a.startDate AS startDate, a.endDate AS endDate, " +
+           "a.actualReturnDate AS actualReturnDate, a.status AS status FROM ArchivedRental a " +
+           "WHERE a.car.id = :carId AND a.status <> 'CANCELLED'")
+    List<RentalSpan> findOccupancySpansByCarId(@Param("carId") Long carId);
+
+    @Query("SELECT a.customer.id AS customerId, COUNT(a) AS rentals, " +
+           "SUM(CASE WHEN a.status <> 'CANCELLED' THEN a.totalCost ELSE 0 END) AS revenue, " +
+           "MIN(a.startDate) AS firstRental, MAX(a.startDate) AS lastRental FROM ArchivedRental a GROUP BY a.customer.id")
+    List<CustomerRentalTotals> summarizeByCustomer();
+}
@@ -0,0 +1,12 @@
+package com.carrental.repository;
+
+import com.carrental.model.RentalStatus;
+
+import java.math.BigDecimal;
+
+// Rental count and booked revenue of one branch for one rental status
+public interface BranchRentalTotals {
+    RentalStatus getStatus();
+    Long getRentals();
+    BigDecimal getRevenue();
+}
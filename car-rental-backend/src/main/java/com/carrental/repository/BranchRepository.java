@@ -0,0 +1,20 @@
+package com.carrental.repository;
+
+import com.carrental.model.Branch;
+import com.carrental.model.BranchStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BranchRepository extends JpaRepository<Branch, Long> {
+
+    Optional<Branch> findByCode(String code);
+
+    @Query("SELECT b FROM Branch b WHERE b.status = :status AND b.latitude IS NOT NULL AND b.longitude IS NOT NULL")
+    List<Branch> findLocatedBranches(@Param("status") BranchStatus status);
+}
@@ -2,25 +2,41 @@ package com.carrental.repository;
 
 import com.carrental.model.Car;
 import com.carrental.model.CarStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CarRepository extends JpaRepository<Car, Long> {
+public interface CarRepository extends JpaRepository<Car, Long>, JpaSpecificationExecutor<Car> {
     
     List<Car> findByStatus(CarStatus status);
     
     Optional<Car> findByLicensePlate(String licensePlate);
+
+    // SELECT ... FOR UPDATE: holds the car row until the transaction ends
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Car c WHERE c.id = :id")
+    Optional<Car> findByIdForUpdate(@Param("id") Long id);
     
     List<Car> findByMakeAndModel(String make, String model);
     
     List<Car> findByYear(Integer year);
+
+    List<Car> findByBranchId(Long branchId);
+
+    boolean existsByBranchId(Long branchId);
     
     @Query("SELECT c FROM Car c WHERE c.dailyRate BETWEEN :minRate AND :maxRate")
     List<Car> findByDailyRateBetween(@Param("minRate") BigDecimal minRate, @Param("maxRate") BigDecimal maxRate);
@@ -31,4 +47,26 @@ public interface CarRepository extends JpaRepository<Car, Long> {
     @Query("SELECT c FROM Car c WHERE LOWER(c.make) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
            "OR LOWER(c.model) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Car> searchByKeyword(@Param("keyword") String keyword);
-}
\ No newline at end of file
+
+    // Keyset page after (after, afterId), up to upTo inclusive, for delta sync
+    @Query("SELECT c FROM Car c WHERE c.updatedAt >= :after AND (c.updatedAt > :after OR c.id > :afterId) " +
+           "AND c.updatedAt <= :upTo ORDER BY c.updatedAt, c.id")
+    List<Car> findChangedSince(@Param("after") LocalDateTime after,
+                               @Param("afterId") Long afterId,
+                               @Param("upTo") LocalDateTime upTo,
+                               Pageable pageable);
+
+    // Locks the cars like findByIdForUpdate, so no booking can start on one of them before the bulk UPDATE
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c.id AS id, c.status AS status, " +
+           "(SELECT COUNT(r) FROM Rental r WHERE r.car = c AND r.status IN ('ACTIVE', 'OVERDUE')) AS openRentals " +
+           "FROM Car c WHERE c.id IN :ids")
+    List<CarStatusCheck> findStatusChecksForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Bulk UPDATE skips @PreUpdate, so updated_at is set here for delta sync
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Car c SET c.status = :status, c.updatedAt = :updatedAt WHERE c.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") CarStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,73 @@
+package com.carrental.repository;
+
+import com.carrental.dto.FleetFilter;
+import com.carrental.model.Car;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Builds the WHERE clause for GET /cars/query; only the criteria that are set become predicates
+public final class CarSpecifications {
+
+    private CarSpecifications() {}
+
+    public static Specification<Car> matching(FleetFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+                predicates.add(root.get("status").in(filter.getStatuses()));
+            }
+            addIn(predicates, cb, root.get("make"), filter.getMakes());
+            addIn(predicates, cb, root.get("model"), filter.getModels());
+            addIn(predicates, cb, root.get("fuelType"), filter.getFuelTypes());
+            addIn(predicates, cb, root.get("transmissionType"), filter.getTransmissionTypes());
+            if (filter.getMinYear() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("year"), filter.getMinYear()));
+            }
+            if (filter.getMaxYear() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("year"), filter.getMaxYear()));
+            }
+            if (filter.getMinSeats() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("seatingCapacity"), filter.getMinSeats()));
+            }
+            if (filter.getMaxSeats() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("seatingCapacity"), filter.getMaxSeats()));
+            }
+            if (filter.getMinRate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dailyRate"), filter.getMinRate()));
+            }
+            if (filter.getMaxRate() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("dailyRate"), filter.getMaxRate()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Keyset condition: rows strictly after (sortValue, id) in the given order, with id breaking ties
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public static Specification<Car> after(String sortField, boolean ascending, Comparable sortValue, Long id) {
+        return (root, query, cb) -> {
+            Path<Comparable> sortPath = root.get(sortField);
+            Path<Long> idPath = root.get("id");
+            if ("id".equals(sortField)) {
+                return ascending ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id);
+            }
+            Predicate beyond = ascending ? cb.greaterThan(sortPath, sortValue) : cb.lessThan(sortPath, sortValue);
+            Predicate tieBroken = cb.and(cb.equal(sortPath, sortValue),
+                    ascending ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id));
+            return cb.or(beyond, tieBroken);
+        };
+    }
+
+    // Case-insensitive and trimmed, like the /facets filter in FleetSnapshot
+    private static void addIn(List<Predicate> predicates, CriteriaBuilder cb, Path<String> path, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            predicates.add(cb.lower(path).in(values.stream().map(v -> v.trim().toLowerCase(Locale.ROOT)).toList()));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.carrental.repository;
+
+import com.carrental.model.CarStatus;
+
+// A car's current status and how many of its rentals are still open, read in one pass for bulk status changes
+public interface CarStatusCheck {
+    Long getId();
+    CarStatus getStatus();
+    Long getOpenRentals();
+}
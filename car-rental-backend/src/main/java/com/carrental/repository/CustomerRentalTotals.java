@@ -0,0 +1,13 @@
+package com.carrental.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Rentals, booked revenue (cancellations excluded) and first/last pickup of one customer
+public interface CustomerRentalTotals {
+    Long getCustomerId();
+    Long getRentals();
+    BigDecimal getRevenue();
+    LocalDate getFirstRental();
+    LocalDate getLastRental();
+}
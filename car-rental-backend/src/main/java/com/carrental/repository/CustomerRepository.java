@@ -1,11 +1,13 @@
 package com.carrental.repository;
 
 import com.carrental.model.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,4 +27,12 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     
     @Query("SELECT c FROM Customer c WHERE c.phoneNumber = :phoneNumber")
     Optional<Customer> findByPhoneNumber(@Param("phoneNumber") String phoneNumber);
-}
\ No newline at end of file
+
+    // Keyset page after (after, afterId), up to upTo inclusive, for delta sync
+    @Query("SELECT c FROM Customer c WHERE c.updatedAt >= :after AND (c.updatedAt > :after OR c.id > :afterId) " +
+           "AND c.updatedAt <= :upTo ORDER BY c.updatedAt, c.id")
+    List<Customer> findChangedSince(@Param("after") LocalDateTime after,
+                                    @Param("afterId") Long afterId,
+                                    @Param("upTo") LocalDateTime upTo,
+                                    Pageable pageable);
+}
@@ -0,0 +1,65 @@
+package com.carrental.repository;
+
+import com.carrental.model.NotificationType;
+import com.carrental.model.OutboxMessage;
+import com.carrental.model.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    List<OutboxMessage> findByRentalId(Long rentalId);
+
+    // lock.timeout -2 is Hibernate's SKIP LOCKED: concurrent dispatchers claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM OutboxMessage m WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt")
+    List<OutboxMessage> findDueForDispatch(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = 'SENT', m.sentAt = :sentAt, m.lastError = NULL WHERE m.id IN :ids")
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :newStatus WHERE m.rentalId = :rentalId AND m.type = :type AND m.status = 'PENDING'")
+    int updatePendingStatus(@Param("rentalId") Long rentalId,
+                            @Param("type") NotificationType type,
+                            @Param("newStatus") OutboxStatus newStatus);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :newStatus " +
+           "WHERE m.rentalId IN :rentalIds AND m.type = :type AND m.status = 'PENDING'")
+    int updatePendingStatus(@Param("rentalIds") Collection<Long> rentalIds,
+                            @Param("type") NotificationType type,
+                            @Param("newStatus") OutboxStatus newStatus);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.nextAttemptAt = :nextAttemptAt, m.payload = :payload " +
+           "WHERE m.rentalId = :rentalId AND m.type = :type AND m.status = 'PENDING'")
+    int reschedulePending(@Param("rentalId") Long rentalId,
+                          @Param("type") NotificationType type,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("payload") String payload);
+
+    // Guarded by status, so a row cancelled while its batch was out at the gateway stays cancelled
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.status = :newStatus, m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError " +
+           "WHERE m.id = :id AND m.status = 'PENDING'")
+    int recordFailedAttempt(@Param("id") Long id,
+                            @Param("newStatus") OutboxStatus newStatus,
+                            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                            @Param("lastError") String lastError);
+}
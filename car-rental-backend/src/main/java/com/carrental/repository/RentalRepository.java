@@ -2,12 +2,14 @@ package com.carrental.repository;
 
 import com.carrental.model.Rental;
 import com.carrental.model.RentalStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -22,7 +24,9 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
     @Query("SELECT r FROM Rental r WHERE r.startDate BETWEEN :startDate AND :endDate")
     List<Rental> findByStartDateBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
     
-    @Query("SELECT r FROM Rental r WHERE r.endDate < :currentDate AND r.status = 'ACTIVE'")
+    // Car and customer are fetched with the rentals to avoid one query per overdue rental
+    @Query("SELECT r FROM Rental r JOIN FETCH r.car JOIN FETCH r.customer " +
+           "WHERE r.endDate < :currentDate AND r.status = 'ACTIVE'")
     List<Rental> findOverdueRentals(@Param("currentDate") LocalDate currentDate);
     
     @Query("SELECT r FROM Rental r WHERE r.car.id = :carId AND r.status = 'ACTIVE' " +
@@ -31,7 +35,48 @@ public interface RentalRepository extends JpaRepository<Rental, Long> {
                                        @Param("startDate") LocalDate startDate, 
                                        @Param("endDate") LocalDate endDate);
     
+    @Query("SELECT COUNT(r) > 0 FROM Rental r WHERE r.car.id = :carId AND r.status = 'ACTIVE' " +
+           "AND r.startDate <= :endDate AND r.endDate >= :startDate")
+    boolean existsConflictingRental(@Param("carId") Long carId,
+                                    @Param("startDate") LocalDate startDate,
+                                    @Param("endDate") LocalDate endDate);
+    
     @Query("SELECT r FROM Rental r WHERE r.customer.id = :customerId AND r.status IN :statuses")
     List<Rental> findByCustomerIdAndStatusIn(@Param("customerId") Long customerId, 
                                             @Param("statuses") List<RentalStatus> statuses);
-}
\ No newline at end of file
+    
+    @Query("SELECT r.id FROM Rental r WHERE r.status IN :statuses AND r.updatedAt < :closedBefore ORDER BY r.id")
+    List<Long> findArchivableRentalIds(@Param("statuses") List<RentalStatus> statuses,
+                                       @Param("closedBefore") LocalDateTime closedBefore,
+                                       Pageable pageable);
+
+    @Query("SELECT r.car.id AS carId, r.startDate AS startDate, r.endDate AS endDate, " +
+           "r.actualReturnDate AS actualReturnDate, r.status AS status FROM Rental r " +
+           "WHERE r.status <> 'CANCELLED' AND r.startDate <= :to " +
+           "AND (r.endDate >= :from OR r.actualReturnDate >= :from OR r.status <> 'COMPLETED')")
+    List<RentalSpan> findOccupancySpans(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.car.id AS carId, r.startDate AS startDate, r.endDate AS endDate, " +
+           "r.actualReturnDate AS actualReturnDate, r.status AS status FROM Rental r " +
+           "WHERE r.car.id = :carId AND r.status <> 'CANCELLED'")
+    List<RentalSpan> findOccupancySpansByCarId(@Param("carId") Long carId);
+
+    // Served by idx_rentals_branch_status (V6__branches.sql, where it is listed under its earlier name
+    // countByBranchIdGroupByStatus)
+    @Query("SELECT r.status AS status, COUNT(r) AS rentals, SUM(r.totalCost) AS revenue FROM Rental r " +
+           "WHERE r.branchId = :branchId GROUP BY r.status")
+    List<BranchRentalTotals> summarizeByBranchId(@Param("branchId") Long branchId);
+
+    @Query("SELECT r.customer.id AS customerId, COUNT(r) AS rentals, " +
+           "SUM(CASE WHEN r.status <> 'CANCELLED' THEN r.totalCost ELSE 0 END) AS revenue, " +
+           "MIN(r.startDate) AS firstRental, MAX(r.startDate) AS lastRental FROM Rental r GROUP BY r.customer.id")
+    List<CustomerRentalTotals> summarizeByCustomer();
+
+    // Keyset page after (after, afterId), up to upTo inclusive, for delta sync
+    @Query("SELECT r FROM Rental r WHERE r.updatedAt >= :after AND (r.updatedAt > :after OR r.id > :afterId) " +
+           "AND r.updatedAt <= :upTo ORDER BY r.updatedAt, r.id")
+    List<Rental> findChangedSince(@Param("after") LocalDateTime after,
+                                  @Param("afterId") Long afterId,
+                                  @Param("upTo") LocalDateTime upTo,
+                                  Pageable pageable);
+}
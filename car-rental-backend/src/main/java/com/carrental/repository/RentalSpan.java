@@ -0,0 +1,14 @@
+package com.carrental.repository;
+
+import com.carrental.model.RentalStatus;
+
+import java.time.LocalDate;
+
+// Just the columns needed to place a rental on a car's calendar, without loading the entity
+public interface RentalSpan {
+    Long getCarId();
+    LocalDate getStartDate();
+    LocalDate getEndDate();
+    LocalDate getActualReturnDate();
+    RentalStatus getStatus();
+}
@@ -0,0 +1,30 @@
+package com.carrental.repository;
+
+import com.carrental.model.SyncEntityType;
+import com.carrental.model.SyncTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+
+    // Keyset page after (after, afterId), up to upTo inclusive
+    @Query("SELECT t FROM SyncTombstone t WHERE t.entityType = :type AND t.deletedAt >= :after " +
+           "AND (t.deletedAt > :after OR t.id > :afterId) AND t.deletedAt <= :upTo ORDER BY t.deletedAt, t.id")
+    List<SyncTombstone> findChangedSince(@Param("type") SyncEntityType type,
+                                         @Param("after") LocalDateTime after,
+                                         @Param("afterId") Long afterId,
+                                         @Param("upTo") LocalDateTime upTo,
+                                         Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SyncTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,191 @@
+package com.carrental.service;
+
+import com.carrental.config.PrimaryReads;
+import com.carrental.event.BranchChangedEvent;
+import com.carrental.event.CarChangedEvent;
+import com.carrental.event.CarStatusChangedEvent;
+import com.carrental.event.RentalEvent;
+import com.carrental.model.Branch;
+import com.carrental.model.Car;
+import com.carrental.model.CarStatus;
+import com.carrental.model.RentalStatus;
+import com.carrental.repository.BranchRentalTotals;
+import com.carrental.repository.BranchRepository;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.RentalRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One partition per branch: its cars and rental totals, loaded on first use with index-backed branch queries.
+// A car or rental change only drops the partition of the branch it belongs to, so a busy branch never
+// reloads or contends with the data of the others.
+@Component
+public class BranchFleetCache {
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    private final PrimaryReads primaryReads;
+
+    private final ConcurrentHashMap<Long, Partition> partitions = new ConcurrentHashMap<>();
+    // Bumped on every invalidation, so a load that raced with a write is not installed
+    private final ConcurrentHashMap<Long, Long> generations = new ConcurrentHashMap<>();
+    // Branch of each car seen by a load, to find the partition a car-only event belongs to
+    private final ConcurrentHashMap<Long, Long> carBranches = new ConcurrentHashMap<>();
+    // Bumped on every event for a car missing from carBranches: that car may belong to a load still running,
+    // which has read it but not recorded it yet, so no load that overlapped the event is installed
+    private final AtomicLong unknownCarEvents = new AtomicLong();
+
+    private final Counter loadCounter;
+    private final Counter invalidationCounter;
+
+    // Loads usually follow the write that dropped the partition, which a lagging replica may not have yet
+    public BranchFleetCache(PrimaryReads primaryReads, MeterRegistry meterRegistry) {
+        this.primaryReads = primaryReads;
+        this.loadCounter = meterRegistry.counter("branch.fleet.loads");
+        this.invalidationCounter = meterRegistry.counter("branch.fleet.invalidations");
+        Gauge.builder("branch.fleet.partitions", partitions, Map::size).register(meterRegistry);
+    }
+
+    // Empty when the branch does not exist
+    public Optional<Partition> get(Long branchId) {
+        Partition partition = partitions.get(branchId);
+        if (partition != null) {
+            return Optional.of(partition);
+        }
+
+        long generation = generations.getOrDefault(branchId, 0L);
+        long unknownCarGeneration = unknownCarEvents.get();
+        Partition loaded = primaryReads.execute(status -> load(branchId));
+        if (loaded == null) {
+            return Optional.empty();
+        }
+        for (Car car : loaded.cars) {
+            carBranches.put(car.getId(), branchId);
+        }
+        partitions.compute(branchId, (id, current) -> {
+            if (current != null) {
+                return current;
+            }
+            return generations.getOrDefault(id, 0L) == generation
+                    && unknownCarEvents.get() == unknownCarGeneration ? loaded : null;
+        });
+        return Optional.of(loaded);
+    }
+
+    public void invalidate(Long branchId) {
+        if (branchId == null) {
+            return;
+        }
+        partitions.compute(branchId, (id, current) -> {
+            generations.merge(id, 1L, Long::sum);
+            return null;
+        });
+        invalidationCounter.increment();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBranchChanged(BranchChangedEvent event) {
+        invalidate(event.getBranchId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        Long previousBranch = event.isDeleted() ? carBranches.remove(event.getCarId()) : carBranches.get(event.getCarId());
+        if (previousBranch == null) {
+            unknownCarEvents.incrementAndGet();
+        }
+        invalidate(previousBranch);
+        if (event.getBranchId() != null && !event.getBranchId().equals(previousBranch)) {
+            invalidate(event.getBranchId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarStatusChanged(CarStatusChangedEvent event) {
+        Long carBranch = carBranches.get(event.getCarId());
+        if (carBranch == null) {
+            unknownCarEvents.incrementAndGet();
+        }
+        invalidate(carBranch);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalEvent(RentalEvent event) {
+        Long carBranch = event.getCarId() != null ? carBranches.get(event.getCarId()) : null;
+        if (event.getCarId() != null && carBranch == null) {
+            unknownCarEvents.incrementAndGet();
+        }
+        invalidate(event.getBranchId());
+        if (carBranch != null && !carBranch.equals(event.getBranchId())) {
+            invalidate(carBranch);
+        }
+    }
+
+    int partitionCount() {
+        return partitions.size();
+    }
+
+    private Partition load(Long branchId) {
+        Optional<Branch> branch = branchRepository.findById(branchId);
+        if (branch.isEmpty()) {
+            return null;
+        }
+        loadCounter.increment();
+        return new Partition(branch.get(), carRepository.findByBranchId(branchId),
+                rentalRepository.summarizeByBranchId(branchId));
+    }
+
+    // Immutable once built; entities in it are detached and shared between requests
+    public static class Partition {
+        private final Branch branch;
+        private final List<Car> cars;
+        private final List<Car> availableCars;
+        private final Map<CarStatus, Long> carsByStatus = new EnumMap<>(CarStatus.class);
+        private final Map<RentalStatus, Long> rentalsByStatus = new EnumMap<>(RentalStatus.class);
+        private final BigDecimal bookedRevenue;
+
+        Partition(Branch branch, List<Car> cars, List<BranchRentalTotals> rentalTotals) {
+            this.branch = branch;
+            this.cars = List.copyOf(cars);
+            this.availableCars = cars.stream().filter(car -> car.getStatus() == CarStatus.AVAILABLE).toList();
+            for (Car car : cars) {
+                carsByStatus.merge(car.getStatus(), 1L, Long::sum);
+            }
+            BigDecimal revenue = BigDecimal.ZERO;
+            for (BranchRentalTotals totals : rentalTotals) {
+                rentalsByStatus.put(totals.getStatus(), totals.getRentals());
+                if (totals.getStatus() != RentalStatus.CANCELLED && totals.getRevenue() != null) {
+                    revenue = revenue.add(totals.getRevenue());
+                }
+            }
+            this.bookedRevenue = revenue;
+        }
+
+        public Branch getBranch() { return branch; }
+        public List<Car> getCars() { return cars; }
+        public List<Car> getAvailableCars() { return availableCars; }
+        public Map<CarStatus, Long> getCarsByStatus() { return Collections.unmodifiableMap(carsByStatus); }
+        public Map<RentalStatus, Long> getRentalsByStatus() { return Collections.unmodifiableMap(rentalsByStatus); }
+        public BigDecimal getBookedRevenue() { return bookedRevenue; }
+    }
+}
@@ -0,0 +1,288 @@
+package com.carrental.service;
+
+import com.carrental.config.PrimaryReads;
+import com.carrental.dto.NearestBranch;
+import com.carrental.event.BranchChangedEvent;
+import com.carrental.model.Branch;
+import com.carrental.model.BranchStatus;
+import com.carrental.model.Car;
+import com.carrental.repository.BranchRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+// Active branches with coordinates in a k-d tree over points on the unit sphere. Nearest-branch lookups walk the
+// tree outward one branch at a time and check availability only until enough branches with a matching car are found.
+@Service
+public class BranchLocator {
+
+    private static final Logger log = LoggerFactory.getLogger(BranchLocator.class);
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private BranchFleetCache branchFleetCache;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    private final DistributionSummary visitedSummary;
+
+    private final PrimaryReads primaryReads;
+
+    private volatile KdTree tree;
+
+    // Rebuilds follow a branch change, so they read the primary rather than a replica that may lag it
+    public BranchLocator(PrimaryReads primaryReads, MeterRegistry meterRegistry) {
+        this.primaryReads = primaryReads;
+        this.visitedSummary = DistributionSummary.builder("branch.nearest.visited")
+                .description("Branches checked for availability per nearest-branch lookup")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<Branch> branches = primaryReads.execute(status -> branchRepository.findLocatedBranches(BranchStatus.ACTIVE));
+        long[] ids = new long[branches.size()];
+        double[][] points = new double[branches.size()][];
+        for (int i = 0; i < branches.size(); i++) {
+            Branch branch = branches.get(i);
+            ids[i] = branch.getId();
+            points[i] = toUnitVector(branch.getLatitude(), branch.getLongitude());
+        }
+        tree = new KdTree(ids, points);
+        log.info("Built branch locator over {} located branches", ids.length);
+    }
+
+    // Coordinates, status or the branch itself may have changed; the tree is small, so it is rebuilt whole
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBranchChanged(BranchChangedEvent event) {
+        rebuild();
+    }
+
+    // Up to limit branches in order of distance that have at least one car with minSeats seats (when given)
+    // free on every day of [from, to]
+    public List<NearestBranch> findNearest(double latitude, double longitude, LocalDate from, LocalDate to,
+                                           Integer minSeats, int limit) {
+        LocalDate today = LocalDate.now();
+        if (from.isBefore(today) || to.isBefore(from)) {
+            throw new RuntimeException("Invalid date range: " + from + " to " + to);
+        }
+        if (to.isAfter(occupancyIndex.getHorizonEnd())) {
+            throw new RuntimeException("Availability is only known up to " + occupancyIndex.getHorizonEnd());
+        }
+
+        List<NearestBranch> nearest = new ArrayList<>();
+        int visited = 0;
+        Iterator<KdTree.Hit> hits = current().nearest(toUnitVector(latitude, longitude));
+        while (nearest.size() < limit && hits.hasNext()) {
+            KdTree.Hit hit = hits.next();
+            Optional<BranchFleetCache.Partition> partition = branchFleetCache.get(hit.id);
+            if (partition.isEmpty()) {
+                continue;
+            }
+            visited++;
+            List<Car> free = partition.get().getCars().stream()
+                    .filter(car -> minSeats == null
+                            || (car.getSeatingCapacity() != null && car.getSeatingCapacity() >= minSeats))
+                    .filter(car -> isBookable(car, from, to))
+                    .toList();
+            if (!free.isEmpty()) {
+                nearest.add(new NearestBranch(partition.get().getBranch(), chordToKm(hit.chord), free));
+            }
+        }
+        visitedSummary.record(visited);
+        return nearest;
+    }
+
+    // Same rule as POST /rentals, so a branch offered here can take the booking: the car must be AVAILABLE now,
+    // even for later days, and free of rentals over the range
+    private boolean isBookable(Car car, LocalDate from, LocalDate to) {
+        return CarService.isBookable(car) && occupancyIndex.occupiedDays(car.getId(), from, to) == 0;
+    }
+
+    private KdTree current() {
+        KdTree current = tree;
+        if (current == null) {
+            rebuild();
+            current = tree;
+        }
+        return current;
+    }
+
+    static double[] toUnitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        return new double[] {Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+    }
+
+    // Straight-line distance through the sphere grows with the great-circle distance, so the tree can
+    // order by it and only the reported value needs converting
+    static double chordToKm(double chord) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, chord / 2));
+    }
+
+    // Balanced 3-d tree stored implicitly: the median of each index range is the node, the halves its children
+    static final class KdTree {
+        private final long[] ids;
+        private final double[][] points;
+
+        KdTree(long[] ids, double[][] points) {
+            this.ids = ids.clone();
+            this.points = points.clone();
+            build(0, this.ids.length, 0);
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        // Points in increasing distance from the target, computed lazily: best-first search over tree nodes,
+        // where a node's key is the distance to its bounding box, so nothing beyond the last returned hit is expanded
+        Iterator<Hit> nearest(double[] target) {
+            PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry.distance2));
+            if (ids.length > 0) {
+                double[] min = {-1, -1, -1};
+                double[] max = {1, 1, 1};
+                queue.add(Entry.range(0, ids.length, 0, min, max, boxDistance2(target, min, max)));
+            }
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return !queue.isEmpty();
+                }
+
+                @Override
+                public Hit next() {
+                    while (!queue.isEmpty()) {
+                        Entry entry = queue.poll();
+                        if (entry.point >= 0) {
+                            return new Hit(ids[entry.point], Math.sqrt(entry.distance2));
+                        }
+                        expand(entry, target, queue);
+                    }
+                    throw new NoSuchElementException();
+                }
+            };
+        }
+
+        private void expand(Entry range, double[] target, PriorityQueue<Entry> queue) {
+            int mid = (range.lo + range.hi) >>> 1;
+            int axis = range.depth % 3;
+            double split = points[mid][axis];
+            queue.add(Entry.point(mid, distance2(target, points[mid])));
+            if (range.lo < mid) {
+                double[] max = range.max.clone();
+                max[axis] = split;
+                queue.add(Entry.range(range.lo, mid, range.depth + 1, range.min, max,
+                        boxDistance2(target, range.min, max)));
+            }
+            if (mid + 1 < range.hi) {
+                double[] min = range.min.clone();
+                min[axis] = split;
+                queue.add(Entry.range(mid + 1, range.hi, range.depth + 1, min, range.max,
+                        boxDistance2(target, min, range.max)));
+            }
+        }
+
+        private void build(int lo, int hi, int depth) {
+            if (hi - lo <= 1) {
+                return;
+            }
+            int axis = depth % 3;
+            sortRange(lo, hi, axis);
+            int mid = (lo + hi) >>> 1;
+            build(lo, mid, depth + 1);
+            build(mid + 1, hi, depth + 1);
+        }
+
+        private void sortRange(int lo, int hi, int axis) {
+            Integer[] order = new Integer[hi - lo];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = lo + i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> points[i][axis]));
+            long[] sortedIds = new long[order.length];
+            double[][] sortedPoints = new double[order.length][];
+            for (int i = 0; i < order.length; i++) {
+                sortedIds[i] = ids[order[i]];
+                sortedPoints[i] = points[order[i]];
+            }
+            System.arraycopy(sortedIds, 0, ids, lo, order.length);
+            System.arraycopy(sortedPoints, 0, points, lo, order.length);
+        }
+
+        private static double distance2(double[] a, double[] b) {
+            double dx = a[0] - b[0];
+            double dy = a[1] - b[1];
+            double dz = a[2] - b[2];
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        private static double boxDistance2(double[] target, double[] min, double[] max) {
+            double sum = 0;
+            for (int axis = 0; axis < 3; axis++) {
+                double d = Math.max(0, Math.max(min[axis] - target[axis], target[axis] - max[axis]));
+                sum += d * d;
+            }
+            return sum;
+        }
+
+        static final class Hit {
+            final long id;
+            final double chord;
+
+            Hit(long id, double chord) {
+                this.id = id;
+                this.chord = chord;
+            }
+        }
+
+        private static final class Entry {
+            final double distance2;
+            final int point;
+            final int lo;
+            final int hi;
+            final int depth;
+            final double[] min;
+            final double[] max;
+
+            private Entry(double distance2, int point, int lo, int hi, int depth, double[] min, double[] max) {
+                this.distance2 = distance2;
+                this.point = point;
+                this.lo = lo;
+                this.hi = hi;
+                this.depth = depth;
+                this.min = min;
+                this.max = max;
+            }
+
+            static Entry point(int index, double distance2) {
+                return new Entry(distance2, index, -1, -1, -1, null, null);
+            }
+
+            static Entry range(int lo, int hi, int depth, double[] min, double[] max, double distance2) {
+                return new Entry(distance2, -1, lo, hi, depth, min, max);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.carrental.service;
+
+import com.carrental.dto.BranchStats;
+import com.carrental.event.BranchChangedEvent;
+import com.carrental.model.Branch;
+import com.carrental.model.Car;
+import com.carrental.repository.BranchRepository;
+import com.carrental.repository.CarRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+@Service
+public class BranchService {
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private BranchFleetCache branchFleetCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public List<Branch> getAllBranches() {
+        return branchRepository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Branch> getBranchById(Long id) {
+        return branchRepository.findById(id);
+    }
+
+    @Transactional
+    public Branch createBranch(Branch branch) {
+        if (branchRepository.findByCode(branch.getCode()).isPresent()) {
+            throw new RuntimeException("Branch with code " + branch.getCode() + " already exists");
+        }
+        Branch savedBranch = branchRepository.save(branch);
+        eventPublisher.publishEvent(new BranchChangedEvent(savedBranch.getId()));
+        return savedBranch;
+    }
+
+    @Transactional
+    public Branch updateBranch(Long id, Branch branchDetails) {
+        return branchRepository.findById(id)
+                .map(branch -> {
+                    if (!branch.getCode().equals(branchDetails.getCode()) &&
+                        branchRepository.findByCode(branchDetails.getCode()).isPresent()) {
+                        throw new RuntimeException("Branch with code " + branchDetails.getCode() + " already exists");
+                    }
+                    branch.setName(branchDetails.getName());
+                    branch.setCode(branchDetails.getCode());
+                    branch.setAddress(branchDetails.getAddress());
+                    branch.setCity(branchDetails.getCity());
+                    branch.setState(branchDetails.getState());
+                    branch.setZipCode(branchDetails.getZipCode());
+                    branch.setPhone(branchDetails.getPhone());
+                    branch.setEmail(branchDetails.getEmail());
+                    branch.setManagerName(branchDetails.getManagerName());
+                    branch.setOpeningHours(branchDetails.getOpeningHours());
+                    branch.setLatitude(branchDetails.getLatitude());
+                    branch.setLongitude(branchDetails.getLongitude());
+                    branch.setStatus(branchDetails.getStatus());
+                    Branch savedBranch = branchRepository.save(branch);
+                    eventPublisher.publishEvent(new BranchChangedEvent(savedBranch.getId()));
+                    return savedBranch;
+                })
+                .orElseThrow(() -> new RuntimeException("Branch not found with id: " + id));
+    }
+
+    @Transactional
+    public void deleteBranch(Long id) {
+        if (!branchRepository.existsById(id)) {
+            throw new RuntimeException("Branch not found with id: " + id);
+        }
+        if (carRepository.existsByBranchId(id)) {
+            throw new RuntimeException("Branch " + id + " still has cars assigned");
+        }
+        branchRepository.deleteById(id);
+        eventPublisher.publishEvent(new BranchChangedEvent(id));
+    }
+
+    @Transactional(readOnly = true)
+    public boolean branchExists(Long id) {
+        return branchRepository.existsById(id);
+    }
+
+    // The branch-scoped reads below are answered from the branch's partition in BranchFleetCache;
+    // empty when the branch does not exist
+
+    public Optional<List<Car>> getCars(Long branchId) {
+        return branchFleetCache.get(branchId).map(BranchFleetCache.Partition::getCars);
+    }
+
+    public Optional<List<Car>> getAvailableCars(Long branchId) {
+        return branchFleetCache.get(branchId).map(BranchFleetCache.Partition::getAvailableCars);
+    }
+
+    // Same matching as /cars/search, over the branch's cars only
+    public Optional<List<Car>> searchCars(Long branchId, String keyword) {
+        String needle = keyword.toLowerCase(Locale.ROOT);
+        return branchFleetCache.get(branchId).map(partition -> partition.getCars().stream()
+                .filter(car -> car.getMake().toLowerCase(Locale.ROOT).contains(needle)
+                        || car.getModel().toLowerCase(Locale.ROOT).contains(needle))
+                .toList());
+    }
+
+    public Optional<BranchStats> getStats(Long branchId) {
+        return branchFleetCache.get(branchId).map(partition -> new BranchStats(branchId,
+                partition.getCarsByStatus(), partition.getRentalsByStatus(), partition.getBookedRevenue()));
+    }
+}
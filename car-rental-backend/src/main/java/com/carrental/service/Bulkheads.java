@@ -0,0 +1,76 @@
+package com.carrental.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Caps how many request threads each heavy endpoint group may hold at once. Groups without a
+// configured max-concurrent (booking, point lookups) are not limited.
+@Service
+public class Bulkheads {
+
+    private final Map<EndpointGroup, Compartment> compartments = new EnumMap<>(EndpointGroup.class);
+
+    public Bulkheads(Environment environment, MeterRegistry meterRegistry) {
+        for (EndpointGroup group : EndpointGroup.values()) {
+            String prefix = "bulkhead." + group.getKey() + ".";
+            Integer maxConcurrent = environment.getProperty(prefix + "max-concurrent", Integer.class);
+            if (maxConcurrent == null) {
+                continue;
+            }
+            long maxWaitMs = environment.getProperty(prefix + "max-wait-ms", Long.class, 0L);
+            Compartment compartment = new Compartment(maxConcurrent, maxWaitMs,
+                    meterRegistry.counter("bulkhead.rejected", "group", group.getKey()));
+            Gauge.builder("bulkhead.active", compartment, c -> c.maxConcurrent - c.permits.availablePermits())
+                    .tag("group", group.getKey())
+                    .register(meterRegistry);
+            compartments.put(group, compartment);
+        }
+    }
+
+    // Returns false when the group is saturated; a true result must be paired with release
+    public boolean tryEnter(EndpointGroup group) throws InterruptedException {
+        Compartment compartment = compartments.get(group);
+        if (compartment == null) {
+            return true;
+        }
+        if (compartment.permits.tryAcquire(compartment.maxWaitMs, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        compartment.rejectedCounter.increment();
+        return false;
+    }
+
+    public void release(EndpointGroup group) {
+        Compartment compartment = compartments.get(group);
+        if (compartment != null) {
+            compartment.permits.release();
+        }
+    }
+
+    public int available(EndpointGroup group) {
+        Compartment compartment = compartments.get(group);
+        return compartment == null ? Integer.MAX_VALUE : compartment.permits.availablePermits();
+    }
+
+    private static class Compartment {
+        final int maxConcurrent;
+        final long maxWaitMs;
+        final Semaphore permits;
+        final Counter rejectedCounter;
+
+        Compartment(int maxConcurrent, long maxWaitMs, Counter rejectedCounter) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxWaitMs = maxWaitMs;
+            this.permits = new Semaphore(maxConcurrent);
+            this.rejectedCounter = rejectedCounter;
+        }
+    }
+}
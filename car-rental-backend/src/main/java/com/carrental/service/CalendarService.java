@@ -0,0 +1,74 @@
+package com.carrental.service;
+
+import com.carrental.dto.AvailabilityCalendar;
+import com.carrental.model.Car;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+// Availability calendars read from OccupancyIndex instead of running findConflictingRentals per day or per car
+@Service
+public class CalendarService {
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Value("${occupancy.calendar-days:90}")
+    private int calendarDays;
+
+    @Transactional(readOnly = true)
+    public Optional<AvailabilityCalendar> getCarCalendar(Long carId, LocalDate from, LocalDate to) {
+        return carService.getCarById(carId)
+                .map(car -> build(car.getId(), car.getMake(), car.getModel(), List.of(car), from, to));
+    }
+
+    // Not @Transactional, so a caller waiting on a coalesced make and model lookup holds no connection
+    public Optional<AvailabilityCalendar> getModelCalendar(String make, String model, LocalDate from, LocalDate to) {
+        List<Car> cars = carService.getCarsByMakeAndModel(make, model);
+        if (cars.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(build(null, make, model, cars, from, to));
+    }
+
+    private AvailabilityCalendar build(Long carId, String make, String model, List<Car> cars,
+                                       LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(calendarDays - 1);
+        if (start.isBefore(occupancyIndex.getHorizonStart())) {
+            start = occupancyIndex.getHorizonStart();
+        }
+        if (end.isAfter(occupancyIndex.getHorizonEnd())) {
+            end = occupancyIndex.getHorizonEnd();
+        }
+        if (start.isAfter(end)) {
+            throw new RuntimeException("Invalid calendar range");
+        }
+
+        // A car in maintenance, out of service or out on rent cannot be booked for any day, so it is never free
+        List<Long> carIds = cars.stream().filter(CarService::isBookable).map(Car::getId).collect(Collectors.toList());
+        int[] busy = occupancyIndex.busyCounts(carIds, start, end);
+
+        // Consecutive days with the same number of free cars collapse into one range
+        List<AvailabilityCalendar.Range> ranges = new ArrayList<>();
+        int runStart = 0;
+        for (int day = 1; day <= busy.length; day++) {
+            if (day == busy.length || busy[day] != busy[runStart]) {
+                ranges.add(new AvailabilityCalendar.Range(start.plusDays(runStart), start.plusDays(day - 1),
+                        carIds.size() - busy[runStart]));
+                runStart = day;
+            }
+        }
+        return new AvailabilityCalendar(carId, make, model, cars.size(), start, end, ranges);
+    }
+}
@@ -1,36 +1,86 @@
 package com.carrental.service;
 
+import com.carrental.dto.BulkStatusResult;
+import com.carrental.dto.CarPage;
+import com.carrental.dto.FleetFilter;
+import com.carrental.event.CarChangedEvent;
+import com.carrental.event.CarStatusChangedEvent;
 import com.carrental.model.Car;
 import com.carrental.model.CarStatus;
+import com.carrental.model.SyncEntityType;
+import com.carrental.repository.BranchRepository;
 import com.carrental.repository.CarRepository;
+import com.carrental.repository.CarSpecifications;
+import com.carrental.repository.CarStatusCheck;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class CarService {
 
+    private static final Set<String> QUERY_SORT_FIELDS = Set.of("id", "dailyRate", "year", "make", "model");
+    private static final int DEFAULT_QUERY_LIMIT = 20;
+    private static final int MAX_QUERY_LIMIT = 100;
+    static final int MAX_BULK_STATUS_CARS = 500;
+
     @Autowired
     private CarRepository carRepository;
 
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private ChangeSyncService changeSyncService;
+
+    @Transactional(readOnly = true)
     public List<Car> getAllCars() {
         return carRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Car> getCarById(Long id) {
         return carRepository.findById(id);
     }
 
+    @Transactional
     public Car createCar(Car car) {
-        return carRepository.save(car);
+        requireBranch(car.getBranchId());
+        Car savedCar = carRepository.save(car);
+        eventPublisher.publishEvent(new CarChangedEvent(savedCar.getId(), savedCar.getBranchId(), false));
+        return savedCar;
     }
 
+    @Transactional
     public Car updateCar(Long id, Car carDetails) {
         return carRepository.findById(id)
                 .map(car -> {
+                    CarStatus previousStatus = car.getStatus();
+                    requireBranch(carDetails.getBranchId());
                     car.setMake(carDetails.getMake());
                     car.setModel(carDetails.getModel());
                     car.setYear(carDetails.getYear());
@@ -40,43 +90,217 @@ public class CarService {
                     car.setFuelType(carDetails.getFuelType());
                     car.setTransmissionType(carDetails.getTransmissionType());
                     car.setSeatingCapacity(carDetails.getSeatingCapacity());
-                    return carRepository.save(car);
+                    car.setBranchId(carDetails.getBranchId());
+                    Car savedCar = carRepository.save(car);
+                    publishStatusChange(savedCar.getId(), previousStatus, savedCar.getStatus());
+                    eventPublisher.publishEvent(new CarChangedEvent(savedCar.getId(), savedCar.getBranchId(), false));
+                    return savedCar;
                 })
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + id));
     }
 
+    @Transactional
     public void deleteCar(Long id) {
+        Long branchId = carRepository.findById(id).map(Car::getBranchId).orElse(null);
         carRepository.deleteById(id);
+        changeSyncService.recordDeletions(SyncEntityType.CAR, List.of(id));
+        eventPublisher.publishEvent(new CarChangedEvent(id, branchId, true));
     }
 
+    // Coalesced reads are not @Transactional: the coalescer opens a transaction for the caller that runs the query
     public List<Car> getAvailableCars() {
-        return carRepository.findByStatus(CarStatus.AVAILABLE);
+        return requestCoalescer.execute(List.of("cars:available"), () -> carRepository.findByStatus(CarStatus.AVAILABLE));
     }
 
     public List<Car> getCarsByMakeAndModel(String make, String model) {
-        return carRepository.findByMakeAndModel(make, model);
+        return requestCoalescer.execute(List.of("cars:make-model", make, model),
+                () -> carRepository.findByMakeAndModel(make, model));
     }
 
     public List<Car> searchCars(String keyword) {
-        return carRepository.searchByKeyword(keyword);
+        return requestCoalescer.execute(List.of("cars:search", keyword), () -> carRepository.searchByKeyword(keyword));
     }
 
     public List<Car> getCarsByPriceRange(BigDecimal minRate, BigDecimal maxRate) {
-        return carRepository.findByDailyRateBetween(minRate, maxRate);
+        return requestCoalescer.execute(List.of("cars:price-range", minRate, maxRate),
+                () -> carRepository.findByDailyRateBetween(minRate, maxRate));
+    }
+
+    // One SELECT per page: the filter and the keyset condition go into the WHERE clause, one extra row is
+    // fetched to tell whether a next page exists, and no count query runs
+    @Transactional(readOnly = true)
+    public CarPage queryCars(FleetFilter filter, String sort, String direction, String cursor, Integer limit) {
+        String sortField = sort == null ? "id" : sort;
+        if (!QUERY_SORT_FIELDS.contains(sortField)) {
+            throw new RuntimeException("Unsupported sort field: " + sortField);
+        }
+        boolean ascending = direction == null || "asc".equalsIgnoreCase(direction);
+        if (!ascending && !"desc".equalsIgnoreCase(direction)) {
+            throw new RuntimeException("Unsupported sort direction: " + direction);
+        }
+        int pageSize = limit == null ? DEFAULT_QUERY_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_QUERY_LIMIT) {
+            throw new RuntimeException("Limit must be between 1 and " + MAX_QUERY_LIMIT);
+        }
+
+        Specification<Car> spec = CarSpecifications.matching(filter);
+        if (cursor != null) {
+            spec = spec.and(decodeCursor(cursor, sortField, ascending));
+        }
+        Sort.Direction sortDirection = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort order = "id".equals(sortField)
+                ? Sort.by(sortDirection, "id")
+                : Sort.by(sortDirection, sortField).and(Sort.by(sortDirection, "id"));
+
+        List<Car> rows = carRepository.findBy(spec, query -> query.sortBy(order).limit(pageSize + 1).all());
+        if (rows.size() <= pageSize) {
+            return new CarPage(rows, null);
+        }
+        List<Car> items = rows.subList(0, pageSize);
+        Car last = items.get(pageSize - 1);
+        return new CarPage(items, encodeCursor(sortField, ascending, last));
     }
 
+    @Transactional
     public Car updateCarStatus(Long id, CarStatus status) {
         return carRepository.findById(id)
                 .map(car -> {
-                    car.setStatus(status);
+                    changeStatus(car, status);
                     return carRepository.save(car);
                 })
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + id));
     }
 
+    // All or nothing, in two statements whatever the batch size: one locking SELECT reads every car's status and
+    // open rentals, then one UPDATE moves the cars not already there. The locks keep bookings from slipping in
+    // between the two. RENTED is left to bookings, and a car with an active or overdue rental stays as it is.
+    @Transactional
+    public BulkStatusResult updateCarStatuses(Collection<Long> carIds, CarStatus status) {
+        if (status == null || status == CarStatus.RENTED) {
+            throw new RuntimeException("Status must be AVAILABLE, MAINTENANCE or OUT_OF_SERVICE");
+        }
+        Set<Long> ids = new TreeSet<>(carIds);
+        if (ids.isEmpty() || ids.size() > MAX_BULK_STATUS_CARS) {
+            throw new RuntimeException("Between 1 and " + MAX_BULK_STATUS_CARS + " car ids are required");
+        }
+
+        Map<Long, CarStatusCheck> checks = carRepository.findStatusChecksForUpdate(ids).stream()
+                .collect(Collectors.toMap(CarStatusCheck::getId, Function.identity()));
+        List<CarStatusCheck> toUpdate = new ArrayList<>();
+        List<Long> unchanged = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        List<Long> onRental = new ArrayList<>();
+        for (Long id : ids) {
+            CarStatusCheck check = checks.get(id);
+            if (check == null) {
+                notFound.add(id);
+            } else if (check.getStatus() == status) {
+                unchanged.add(id);
+            } else if (check.getOpenRentals() > 0) {
+                onRental.add(id);
+            } else {
+                toUpdate.add(check);
+            }
+        }
+        if (!notFound.isEmpty() || !onRental.isEmpty()) {
+            return new BulkStatusResult(status, false, List.of(), unchanged, notFound, onRental);
+        }
+
+        List<Long> updated = toUpdate.stream().map(CarStatusCheck::getId).toList();
+        if (!updated.isEmpty()) {
+            carRepository.updateStatus(updated, status, LocalDateTime.now());
+            // Same events as one PATCH per car, so the fleet views and the status stream catch up after commit
+            for (CarStatusCheck check : toUpdate) {
+                publishStatusChange(check.getId(), check.getStatus(), status);
+            }
+        }
+        return new BulkStatusResult(status, true, updated, unchanged, notFound, onRental);
+    }
+
+    // Locks the car row for the rest of the caller's transaction, so writes that depend on the car's
+    // current state (bookings) are serialized per car
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Car> getCarForUpdate(Long id) {
+        return carRepository.findByIdForUpdate(id);
+    }
+
+    // For a car already managed by the current transaction: the UPDATE goes out with the next flush
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void changeStatus(Car car, CarStatus status) {
+        CarStatus previousStatus = car.getStatus();
+        car.setStatus(status);
+        publishStatusChange(car.getId(), previousStatus, status);
+    }
+
+    @Transactional(readOnly = true)
     public boolean isCarAvailable(Long carId) {
         return carRepository.findById(carId)
-                .map(car -> car.getStatus() == CarStatus.AVAILABLE)
+                .map(CarService::isBookable)
                 .orElse(false);
     }
-}
\ No newline at end of file
+
+    // The booking rule: only an AVAILABLE car can be rented, on any dates, whatever its rentals leave free
+    public static boolean isBookable(Car car) {
+        return car.getStatus() == CarStatus.AVAILABLE;
+    }
+
+    private void requireBranch(Long branchId) {
+        if (branchId != null && !branchRepository.existsById(branchId)) {
+            throw new RuntimeException("Branch not found with id: " + branchId);
+        }
+    }
+
+    private void publishStatusChange(Long carId, CarStatus previousStatus, CarStatus status) {
+        if (previousStatus != status) {
+            eventPublisher.publishEvent(new CarStatusChangedEvent(carId, previousStatus, status));
+        }
+    }
+
+    // Opaque to clients; ties the position to the sort it was issued for so it cannot be replayed under another
+    private static String encodeCursor(String sortField, boolean ascending, Car last) {
+        Object value = switch (sortField) {
+            case "dailyRate" -> last.getDailyRate().toPlainString();
+            case "year" -> last.getYear();
+            case "make" -> last.getMake();
+            case "model" -> last.getModel();
+            default -> last.getId();
+        };
+        String position = sortField + ":" + (ascending ? "asc" : "desc") + ":" + last.getId() + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The keyset condition for the rows after the cursor; every part of a hand-edited cursor is checked here
+    private static Specification<Car> decodeCursor(String cursor, String sortField, boolean ascending) {
+        String[] position;
+        try {
+            position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 4);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        if (position.length != 4 || !position[0].equals(sortField)
+                || !position[1].equals(ascending ? "asc" : "desc")) {
+            throw new RuntimeException("Cursor does not match the requested sort");
+        }
+        Long id;
+        try {
+            id = Long.valueOf(position[2]);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        return CarSpecifications.after(sortField, ascending, sortValue(sortField, position[3]), id);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable sortValue(String sortField, String value) {
+        try {
+            return switch (sortField) {
+                case "dailyRate" -> new BigDecimal(value);
+                case "year" -> Integer.valueOf(value);
+                case "id" -> Long.valueOf(value);
+                default -> value;
+            };
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+}
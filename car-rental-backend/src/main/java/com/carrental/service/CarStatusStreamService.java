@@ -0,0 +1,361 @@
+package com.carrental.service;
+
+import com.carrental.event.CarStatusChangedEvent;
+import com.carrental.model.CarStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class CarStatusStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(CarStatusStreamService.class);
+
+    static final String STATUS_EVENT = "car-status";
+    static final String RESET_EVENT = "reset";
+
+    private final int bufferSize;
+    private final int replaySize;
+    private final long emitterTimeoutMs;
+    private final long heartbeatIntervalMs;
+    private final long flushIntervalMs;
+    private final long sendTimeoutMs;
+
+    // Writes to the emitters happen here, one task per subscriber at a time, so a client that stops reading
+    // holds up only its own stream and never the flusher
+    private final ThreadPoolExecutor sender;
+
+    // Runs flush on its own thread rather than the shared @Scheduled one, which the outbox dispatcher,
+    // rollup refresh and purges also need
+    private final ScheduledExecutorService flusher;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Event ids are "<epoch>-<sequence>". The sequence restarts with the process, so the epoch (its start time)
+    // tells a Last-Event-ID from before a restart apart from one of ours.
+    private final long epoch;
+
+    // Recent events kept for Last-Event-ID replay, oldest first
+    private final Deque<StreamedEvent> replayBuffer = new ArrayDeque<>();
+    private long lastSequence = 0;
+
+    @Autowired
+    public CarStatusStreamService(
+            @Value("${car-status-stream.buffer-size:256}") int bufferSize,
+            @Value("${car-status-stream.replay-size:1024}") int replaySize,
+            @Value("${car-status-stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${car-status-stream.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+            @Value("${car-status-stream.flush-interval-ms:250}") long flushIntervalMs,
+            @Value("${car-status-stream.sender-threads:4}") int senderThreads,
+            @Value("${car-status-stream.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this(bufferSize, replaySize, emitterTimeoutMs, heartbeatIntervalMs, flushIntervalMs, senderThreads,
+                sendTimeoutMs, System.currentTimeMillis());
+    }
+
+    CarStatusStreamService(int bufferSize, int replaySize, long emitterTimeoutMs, long heartbeatIntervalMs,
+                           long flushIntervalMs, int senderThreads, long sendTimeoutMs, long epoch) {
+        this.epoch = epoch;
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.heartbeatIntervalMs = heartbeatIntervalMs;
+        this.flushIntervalMs = flushIntervalMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1024), runnable -> {
+                    Thread thread = new Thread(runnable, "car-status-sender-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "car-status-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+        sender.shutdownNow();
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        subscribe(emitter, lastEventId);
+        return emitter;
+    }
+
+    Subscriber subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Replay and registration happen under the same lock as publishing, so no event is missed in between
+        synchronized (this) {
+            if (lastEventId != null) {
+                List<StreamedEvent> missed = eventsSince(lastEventId);
+                if (missed == null) {
+                    // Client is too far behind the replay window, or was connected before a restart;
+                    // tell it to reload the full list
+                    subscriber.requestReset();
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        return subscriber;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCarStatusChanged(CarStatusChangedEvent event) {
+        StreamedEvent streamedEvent = record(event);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(streamedEvent);
+        }
+    }
+
+    // Hands each subscriber with nothing in flight to the sender pool. One whose previous send has been stuck for
+    // longer than send-timeout-ms is dropped; it reconnects with Last-Event-ID once it reads again.
+    public void flush() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long startedAt = subscriber.sendStartedAt();
+            if (startedAt > 0) {
+                if (now - startedAt >= sendTimeoutMs && subscribers.remove(subscriber)) {
+                    // The stuck send holds the emitter's lock, so completing it here would block this thread
+                    // too. The sender thread completes it once the write returns or hits the socket timeout.
+                    log.debug("Dropping car status subscriber after a send stalled for {} ms", now - startedAt);
+                    subscriber.drop(new IOException("Send timed out"));
+                }
+                continue;
+            }
+            if (!subscriber.tryStartSend(now)) {
+                continue;
+            }
+            try {
+                sender.execute(() -> send(subscriber, now));
+            } catch (RejectedExecutionException e) {
+                // Pool saturated; this subscriber is picked up again on the next tick
+                subscriber.finishSend();
+            }
+        }
+    }
+
+    private void send(Subscriber subscriber, long now) {
+        try {
+            subscriber.flush(now, heartbeatIntervalMs);
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.drop(e);
+        } finally {
+            subscriber.finishSend();
+        }
+        Exception dropCause = subscriber.dropCause();
+        if (dropCause != null) {
+            subscriber.emitter.completeWithError(dropCause);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    synchronized StreamedEvent record(CarStatusChangedEvent event) {
+        lastSequence++;
+        StreamedEvent streamedEvent = new StreamedEvent(lastSequence, epoch + "-" + lastSequence, event);
+        replayBuffer.addLast(streamedEvent);
+        while (replayBuffer.size() > replaySize) {
+            replayBuffer.removeFirst();
+        }
+        return streamedEvent;
+    }
+
+    // Returns the events after the given Last-Event-ID, or null if it can no longer be replayed: issued by an
+    // earlier process (whose sequence may overlap ours), not an id of this stream at all, or evicted
+    synchronized List<StreamedEvent> eventsSince(String lastEventId) {
+        String id = lastEventId.trim();
+        int separator = id.indexOf('-');
+        if (separator < 0 || !id.substring(0, separator).equals(Long.toString(epoch))) {
+            return null;
+        }
+        try {
+            return eventsSince(Long.parseLong(id.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Same, by sequence within this process
+    synchronized List<StreamedEvent> eventsSince(long lastEventId) {
+        if (lastEventId == lastSequence) {
+            return new ArrayList<>();
+        }
+        if (lastEventId > lastSequence) {
+            return null;
+        }
+        StreamedEvent oldest = replayBuffer.peekFirst();
+        if (oldest == null || lastEventId < oldest.id - 1) {
+            return null;
+        }
+        List<StreamedEvent> missed = new ArrayList<>();
+        for (StreamedEvent streamedEvent : replayBuffer) {
+            if (streamedEvent.id > lastEventId) {
+                missed.add(streamedEvent);
+            }
+        }
+        return missed;
+    }
+
+    static class StreamedEvent {
+        final long id;
+        final String eventId;
+        final CarStatusChangedEvent event;
+
+        StreamedEvent(long id, String eventId, CarStatusChangedEvent event) {
+            this.id = id;
+            this.eventId = eventId;
+            this.event = event;
+        }
+    }
+
+    static class Subscriber {
+        final SseEmitter emitter;
+        private final int bufferSize;
+
+        // Pending events keyed by car id, so a burst of transitions for one car is sent once
+        private final Map<Long, StreamedEvent> pending = new LinkedHashMap<>();
+        private final Map<Long, CarStatus> firstPreviousStatus = new LinkedHashMap<>();
+        private boolean resetRequested = false;
+        private long lastSentAt = System.currentTimeMillis();
+        // When the send now on the pool started, 0 when none is
+        private final AtomicLong sendStartedAt = new AtomicLong();
+        // Set once the subscriber is removed; its emitter is then completed by the thread that sends to it
+        private volatile Exception dropCause;
+
+        Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.bufferSize = bufferSize;
+        }
+
+        synchronized void offer(StreamedEvent streamedEvent) {
+            if (resetRequested) {
+                return;
+            }
+            Long carId = streamedEvent.event.getCarId();
+            if (!pending.containsKey(carId) && pending.size() >= bufferSize) {
+                // Buffer overflow: drop the backlog and let the client resync from scratch
+                requestReset();
+                return;
+            }
+            firstPreviousStatus.putIfAbsent(carId, streamedEvent.event.getPreviousStatus());
+            pending.remove(carId);
+            pending.put(carId, streamedEvent);
+        }
+
+        synchronized void requestReset() {
+            resetRequested = true;
+            pending.clear();
+            firstPreviousStatus.clear();
+        }
+
+        synchronized List<SseEmitter.SseEventBuilder> drain() {
+            List<SseEmitter.SseEventBuilder> events = new ArrayList<>();
+            if (resetRequested) {
+                events.add(SseEmitter.event().name(RESET_EVENT).data(""));
+                resetRequested = false;
+                return events;
+            }
+            for (StreamedEvent streamedEvent : pending.values()) {
+                CarStatusChangedEvent event = streamedEvent.event;
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("carId", event.getCarId());
+                payload.put("previousStatus", firstPreviousStatus.get(event.getCarId()));
+                payload.put("status", event.getStatus());
+                payload.put("changedAt", event.getChangedAt());
+                events.add(SseEmitter.event()
+                        .id(streamedEvent.eventId)
+                        .name(STATUS_EVENT)
+                        .data(payload, MediaType.APPLICATION_JSON));
+            }
+            pending.clear();
+            firstPreviousStatus.clear();
+            return events;
+        }
+
+        boolean tryStartSend(long now) {
+            return sendStartedAt.compareAndSet(0, now);
+        }
+
+        void finishSend() {
+            sendStartedAt.set(0);
+        }
+
+        long sendStartedAt() {
+            return sendStartedAt.get();
+        }
+
+        void drop(Exception cause) {
+            if (dropCause == null) {
+                dropCause = cause;
+            }
+        }
+
+        Exception dropCause() {
+            return dropCause;
+        }
+
+        synchronized int pendingCount() {
+            return pending.size();
+        }
+
+        void flush(long now, long heartbeatIntervalMs) throws IOException {
+            List<SseEmitter.SseEventBuilder> events = drain();
+            if (events.isEmpty()) {
+                if (now - lastSentAt >= heartbeatIntervalMs) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                    lastSentAt = now;
+                }
+                return;
+            }
+            for (SseEmitter.SseEventBuilder event : events) {
+                emitter.send(event);
+            }
+            lastSentAt = now;
+        }
+    }
+}
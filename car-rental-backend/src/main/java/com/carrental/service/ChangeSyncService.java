@@ -0,0 +1,197 @@
+package com.carrental.service;
+
+import com.carrental.dto.ChangeSet;
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import com.carrental.model.SyncEntityType;
+import com.carrental.model.SyncTombstone;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.RentalRepository;
+import com.carrental.repository.SyncTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Delta sync for offline clients. Rows are read in (updated_at, id) order past the client's watermark and
+// deletions from sync_tombstones in (deleted_at, id) order, each on its own index, so a sync reads only what
+// changed. Nothing newer than settle-seconds ago is returned: a row stamped just before a commit that has not
+// landed yet would otherwise sort below a watermark already handed out and never be sent.
+@Service
+public class ChangeSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeSyncService.class);
+
+    static final int DEFAULT_LIMIT = 500;
+    static final int MAX_LIMIT = 5000;
+
+    // Before every timestamp the tables can hold, so an empty watermark means a full download
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Value("${change-sync.settle-seconds:2}")
+    private long settleSeconds;
+
+    @Value("${change-sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    // Empty when the watermark is older than the tombstone retention: deletions may have been purged since,
+    // and the client has to download everything again. Invalid watermarks or limits throw.
+    // Not read-only, so these read the primary: a replica may lag by more than settle-seconds, and a row it is
+    // missing would fall below the returned watermark and never be sent.
+    @Transactional
+    public Optional<ChangeSet<Car>> getCarChanges(String since, Integer limit) {
+        return changes(SyncEntityType.CAR, since, limit, Car::getUpdatedAt, Car::getId,
+                carRepository::findChangedSince);
+    }
+
+    @Transactional
+    public Optional<ChangeSet<Customer>> getCustomerChanges(String since, Integer limit) {
+        return changes(SyncEntityType.CUSTOMER, since, limit, Customer::getUpdatedAt, Customer::getId,
+                customerRepository::findChangedSince);
+    }
+
+    @Transactional
+    public Optional<ChangeSet<Rental>> getRentalChanges(String since, Integer limit) {
+        return changes(SyncEntityType.RENTAL, since, limit, Rental::getUpdatedAt, Rental::getId,
+                rentalRepository::findChangedSince);
+    }
+
+    // Called in the deleting transaction, so a tombstone exists exactly when the delete committed
+    @Transactional
+    public void recordDeletions(SyncEntityType type, Collection<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SyncTombstone> tombstones = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            tombstones.add(new SyncTombstone(type, id, now));
+        }
+        syncTombstoneRepository.saveAll(tombstones);
+    }
+
+    @Scheduled(cron = "${change-sync.purge-cron:0 45 2 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = syncTombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        if (purged > 0) {
+            log.info("Purged {} sync tombstones older than {} days", purged, tombstoneRetentionDays);
+        }
+    }
+
+    private <T> Optional<ChangeSet<T>> changes(SyncEntityType type, String since, Integer limit,
+                                               Function<T, LocalDateTime> updatedAt, Function<T, Long> id,
+                                               RowQuery<T> rowQuery) {
+        int pageSize = limit != null ? limit : DEFAULT_LIMIT;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new RuntimeException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        Watermark watermark = Watermark.parse(since);
+        LocalDateTime upTo = LocalDateTime.now().minusSeconds(settleSeconds);
+        if (since != null && watermark.deletedAt.isBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays))) {
+            return Optional.empty();
+        }
+
+        Pageable page = PageRequest.of(0, pageSize);
+        List<T> rows = rowQuery.find(watermark.rowsAt, watermark.rowsId, upTo, page);
+        List<SyncTombstone> tombstones = syncTombstoneRepository.findChangedSince(type, watermark.deletedAt,
+                watermark.tombstoneId, upTo, page);
+
+        // A stream read to its end moves to upTo, so the watermark keeps up with time even while nothing
+        // changes and is never mistaken for one older than the tombstone retention
+        Watermark next = watermark;
+        if (rows.size() == pageSize) {
+            T last = rows.get(rows.size() - 1);
+            next = next.withRows(updatedAt.apply(last), id.apply(last));
+        } else {
+            next = next.withRows(upTo, Long.MAX_VALUE);
+        }
+        if (tombstones.size() == pageSize) {
+            SyncTombstone last = tombstones.get(tombstones.size() - 1);
+            next = next.withTombstones(last.getDeletedAt(), last.getId());
+        } else {
+            next = next.withTombstones(upTo, Long.MAX_VALUE);
+        }
+        List<Long> deleted = tombstones.stream().map(SyncTombstone::getEntityId).toList();
+        boolean hasMore = rows.size() == pageSize || tombstones.size() == pageSize;
+        return Optional.of(new ChangeSet<>(rows, deleted, upTo, next.encode(), hasMore));
+    }
+
+    private interface RowQuery<T> {
+        List<T> find(LocalDateTime after, Long afterId, LocalDateTime upTo, Pageable page);
+    }
+
+    // Position in both streams. Sent to clients as an opaque token; a plain ISO date-time is also accepted
+    // as a first watermark, meaning changes after that instant.
+    static final class Watermark {
+        final LocalDateTime rowsAt;
+        final long rowsId;
+        final LocalDateTime deletedAt;
+        final long tombstoneId;
+
+        Watermark(LocalDateTime rowsAt, long rowsId, LocalDateTime deletedAt, long tombstoneId) {
+            this.rowsAt = rowsAt;
+            this.rowsId = rowsId;
+            this.deletedAt = deletedAt;
+            this.tombstoneId = tombstoneId;
+        }
+
+        static Watermark parse(String since) {
+            if (since == null || since.isBlank()) {
+                return new Watermark(BEGINNING, 0, BEGINNING, 0);
+            }
+            try {
+                LocalDateTime at = LocalDateTime.parse(since.trim());
+                return new Watermark(at, Long.MAX_VALUE, at, Long.MAX_VALUE);
+            } catch (DateTimeParseException e) {
+                // Not a date-time, so a token from a previous response
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(since.trim()), StandardCharsets.UTF_8).split("\\|");
+                return new Watermark(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]),
+                        LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid since watermark: " + since);
+            }
+        }
+
+        Watermark withRows(LocalDateTime at, long id) {
+            return new Watermark(at, id, deletedAt, tombstoneId);
+        }
+
+        Watermark withTombstones(LocalDateTime at, long id) {
+            return new Watermark(rowsAt, rowsId, at, id);
+        }
+
+        String encode() {
+            String raw = rowsAt + "|" + rowsId + "|" + deletedAt + "|" + tombstoneId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.carrental.service;
+
+import com.carrental.currency.CurrencyConversion;
+import com.carrental.currency.ExchangeRateProvider;
+import com.carrental.currency.ExchangeRates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Locale;
+
+// Holds the current rate table as one immutable snapshot. A refresh builds a complete new table and swaps the
+// reference, so a request resolving its conversion never sees a half-updated table, and a failed refresh leaves
+// the previous one in service.
+@Service
+public class CurrencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(CurrencyService.class);
+
+    private final ExchangeRateProvider provider;
+    private volatile ExchangeRates rates;
+
+    private final Counter refreshFailures;
+
+    public CurrencyService(ExchangeRateProvider provider, MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.refreshFailures = meterRegistry.counter("currency.refresh.failures");
+        Gauge.builder("currency.rates.age.seconds", this, CurrencyService::ageSeconds).register(meterRegistry);
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${currency.refresh-interval-ms:3600000}",
+               initialDelayString = "${currency.refresh-interval-ms:3600000}")
+    public void refresh() {
+        try {
+            ExchangeRates fetched = provider.fetch();
+            rates = fetched;
+            log.info("Loaded {} exchange rates against {} as of {}", fetched.getRates().size(), fetched.getBase(),
+                    fetched.getAsOf());
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            log.warn("Exchange rate refresh failed, keeping {}: {}",
+                    rates != null ? "rates as of " + rates.getAsOf() : "base currency only", e.getMessage());
+        }
+    }
+
+    // Null when no table could be loaded yet
+    public ExchangeRates getRates() {
+        return rates;
+    }
+
+    // Throws for a currency the current table has no rate for
+    public CurrencyConversion conversionTo(String currency) {
+        ExchangeRates current = rates;
+        if (current == null) {
+            throw new RuntimeException("Exchange rates are not available");
+        }
+        return current.conversionTo(currency.trim().toUpperCase(Locale.ROOT))
+                .orElseThrow(() -> new RuntimeException("Unsupported currency: " + currency));
+    }
+
+    private double ageSeconds() {
+        ExchangeRates current = rates;
+        return current == null ? Double.NaN : Instant.now().getEpochSecond() - current.getAsOf().getEpochSecond();
+    }
+}
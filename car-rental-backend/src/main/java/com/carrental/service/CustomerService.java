@@ -1,10 +1,20 @@
 package com.carrental.service;
 
+import com.carrental.event.RentalEvent;
+import com.carrental.event.RentalEventType;
+import com.carrental.model.ArchivedRental;
 import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import com.carrental.model.SyncEntityType;
+import com.carrental.repository.ArchivedRentalRepository;
 import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.RentalRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,14 +24,35 @@ public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private ChangeSyncService changeSyncService;
+
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
     public List<Customer> getAllCustomers() {
         return customerRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Customer> getCustomerById(Long id) {
         return customerRepository.findById(id);
     }
 
+    @Transactional
     public Customer createCustomer(Customer customer) {
         // Check if email already exists
         if (customerRepository.findByEmail(customer.getEmail()).isPresent()) {
@@ -36,6 +67,7 @@ public class CustomerService {
         return customerRepository.save(customer);
     }
 
+    @Transactional
     public Customer updateCustomer(Long id, Customer customerDetails) {
         return customerRepository.findById(id)
                 .map(customer -> {
@@ -62,22 +94,45 @@ public class CustomerService {
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
     }
 
+    @Transactional
     public void deleteCustomer(Long id) {
+        // Live rentals cascade from Customer; archived ones have to be removed explicitly. Both are read first
+        // so listeners keeping per-car state (rollup, occupancy) hear about every rental that goes.
+        List<Rental> rentals = rentalRepository.findByCustomerId(id);
+        List<ArchivedRental> archivedRentals = archivedRentalRepository.findByCustomerId(id);
+        archivedRentalRepository.deleteByCustomerId(id);
         customerRepository.deleteById(id);
+        List<Long> rentalIds = rentals.stream().map(Rental::getId).toList();
+        notificationOutboxService.cancelReturnReminders(rentalIds);
+        changeSyncService.recordDeletions(SyncEntityType.CUSTOMER, List.of(id));
+        changeSyncService.recordDeletions(SyncEntityType.RENTAL, rentalIds);
+        for (Rental rental : rentals) {
+            eventPublisher.publishEvent(RentalEvent.of(RentalEventType.RENTAL_DELETED, rental, rental.getStatus()));
+        }
+        for (ArchivedRental archived : archivedRentals) {
+            String status = archived.getStatus().name();
+            eventPublisher.publishEvent(new RentalEvent(RentalEventType.RENTAL_DELETED, archived.getId(),
+                    archived.getCar().getId(), id, archived.getBranchId(), status, status, LocalDateTime.now()));
+        }
     }
 
+    @Transactional(readOnly = true)
     public Optional<Customer> getCustomerByEmail(String email) {
         return customerRepository.findByEmail(email);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Customer> getCustomerByDriverLicense(String driverLicense) {
         return customerRepository.findByDriverLicense(driverLicense);
     }
 
+    // Not @Transactional: the coalescer opens a transaction for the caller that runs the query
     public List<Customer> searchCustomers(String keyword) {
-        return customerRepository.searchByKeyword(keyword);
+        return requestCoalescer.execute(List.of("customers:search", keyword),
+                () -> DetachedCopies.customers(customerRepository.searchByKeyword(keyword)));
     }
 
+    @Transactional(readOnly = true)
     public boolean customerExists(Long id) {
         return customerRepository.existsById(id);
     }
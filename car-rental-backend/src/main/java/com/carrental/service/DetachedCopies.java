@@ -0,0 +1,72 @@
+package com.carrental.service;
+
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import org.hibernate.Hibernate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Plain copies of rentals and customers that RequestCoalescer can hand to several requests. Everything the JSON
+// renders is loaded while the leader's session is open and copied out of it, so a follower serializing the result
+// after that session has closed never meets a lazy proxy or collection. Cars have no lazy associations and are
+// shared as loaded.
+final class DetachedCopies {
+
+    private DetachedCopies() {}
+
+    // With its car, its customer and the customer's rentals
+    static Rental rental(Rental rental) {
+        Rental copy = rentalFields(rental);
+        copy.setCustomer(customer(Hibernate.unproxy(rental.getCustomer(), Customer.class)));
+        return copy;
+    }
+
+    static List<Rental> rentals(List<Rental> rentals) {
+        List<Rental> copies = new ArrayList<>(rentals.size());
+        for (Rental rental : rentals) {
+            copies.add(rental(rental));
+        }
+        return copies;
+    }
+
+    // With its rentals and their cars; the rentals' customer back reference is not rendered and left empty
+    static Customer customer(Customer customer) {
+        Customer copy = new Customer(customer.getFirstName(), customer.getLastName(), customer.getEmail(),
+                customer.getPhoneNumber(), customer.getDriverLicense());
+        copy.setId(customer.getId());
+        copy.setAddress(customer.getAddress());
+        copy.setCreatedAt(customer.getCreatedAt());
+        copy.setUpdatedAt(customer.getUpdatedAt());
+        if (customer.getRentals() != null) {
+            List<Rental> rentals = new ArrayList<>(customer.getRentals().size());
+            for (Rental rental : customer.getRentals()) {
+                rentals.add(rentalFields(rental));
+            }
+            copy.setRentals(rentals);
+        }
+        return copy;
+    }
+
+    static List<Customer> customers(List<Customer> customers) {
+        List<Customer> copies = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            copies.add(customer(customer));
+        }
+        return copies;
+    }
+
+    private static Rental rentalFields(Rental rental) {
+        Rental copy = new Rental(null, Hibernate.unproxy(rental.getCar(), Car.class), rental.getStartDate(),
+                rental.getEndDate(), rental.getTotalCost());
+        copy.setId(rental.getId());
+        copy.setActualReturnDate(rental.getActualReturnDate());
+        copy.setStatus(rental.getStatus());
+        copy.setNotes(rental.getNotes());
+        copy.setBranchId(rental.getBranchId());
+        copy.setCreatedAt(rental.getCreatedAt());
+        copy.setUpdatedAt(rental.getUpdatedAt());
+        return copy;
+    }
+}
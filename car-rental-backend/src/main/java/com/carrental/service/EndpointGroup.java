@@ -0,0 +1,50 @@
+package com.carrental.service;
+
+// Traffic classes for rate limiting and bulkheads. Writes (the booking path) are kept apart from
+// the expensive reads so a polling script or a report burst cannot use up the shared request threads.
+public enum EndpointGroup {
+    BOOKING("booking"),
+    LISTING("listing"),
+    SEARCH("search"),
+    REPORTS("reports"),
+    DEFAULT("default");
+
+    private final String key;
+
+    EndpointGroup(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    // path is relative to the servlet context, e.g. /rentals/overdue
+    public static EndpointGroup classify(String method, String path) {
+        // Submitting a report job queues the expensive work; polling a job is a map lookup
+        if (path.startsWith("/reports/jobs")) {
+            return "GET".equals(method) ? DEFAULT : REPORTS;
+        }
+        if (!"GET".equals(method)) {
+            return BOOKING;
+        }
+        if (path.startsWith("/reports") || (path.startsWith("/branches/") && path.endsWith("/stats"))) {
+            return REPORTS;
+        }
+        if (path.equals("/cars") || path.equals("/customers") || path.equals("/rentals")
+                || path.equals("/cars/available") || path.equals("/rentals/overdue")
+                || path.equals("/rentals/date-range") || path.startsWith("/rentals/status/")
+                || path.equals("/branches") || (path.startsWith("/branches/") && path.endsWith("/cars/available"))) {
+            return LISTING;
+        }
+        if (path.equals("/cars/search") || path.equals("/cars/filter") || path.equals("/cars/facets")
+                || path.equals("/cars/query")
+                || path.equals("/customers/search")
+                || path.startsWith("/cars/make/")
+                || path.equals("/branches/nearest")
+                || (path.startsWith("/branches/") && path.endsWith("/cars/search"))) {
+            return SEARCH;
+        }
+        return DEFAULT;
+    }
+}
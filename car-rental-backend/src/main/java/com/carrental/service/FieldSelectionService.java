@@ -0,0 +1,161 @@
+package com.carrental.service;
+
+import com.carrental.currency.MoneyAmount;
+import com.carrental.currency.MoneySerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// ?fields= support: selects only the requested columns in one query and returns them as rows keyed by field name.
+// Fields are an entity's basic attributes, plus association.attribute for its to-one associations (car.make on a
+// rental), which adds one left join per association named; collections are not selectable. No entity is loaded,
+// so nothing enters the persistence context and lazy associations are never touched.
+@Service
+public class FieldSelectionService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Map<Class<?>, Map<String, FieldPath>> catalogs = new ConcurrentHashMap<>();
+
+    // Rows ordered by id; where maps attribute paths (status, customer.id) to the value they must equal
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findAll(Class<?> entity, String fields, Map<String, Object> where) {
+        List<FieldPath> selected = parse(entity, fields);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entity);
+        query.multiselect(selections(root, selected));
+
+        List<Predicate> predicates = new ArrayList<>();
+        for (Map.Entry<String, Object> condition : where.entrySet()) {
+            Path<?> path = root;
+            for (String part : condition.getKey().split("\\.")) {
+                path = path.get(part);
+            }
+            predicates.add(cb.equal(path, condition.getValue()));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(root.get("id")));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            rows.add(toRow(tuple, selected));
+        }
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findById(Class<?> entity, String fields, Long id) {
+        return findAll(entity, fields, Map.of("id", id)).stream().findFirst();
+    }
+
+    // Throws for a blank list or a field the entity does not have
+    List<FieldPath> parse(Class<?> entity, String fields) {
+        Map<String, FieldPath> catalog = catalogs.computeIfAbsent(entity, this::buildCatalog);
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : (fields != null ? fields : "").split(",")) {
+            if (!name.isBlank()) {
+                names.add(name.trim());
+            }
+        }
+        if (names.isEmpty()) {
+            throw new RuntimeException("fields must name at least one field");
+        }
+        List<FieldPath> selected = new ArrayList<>();
+        for (String name : names) {
+            FieldPath path = catalog.get(name);
+            if (path == null) {
+                throw new RuntimeException("Unknown field: " + name);
+            }
+            selected.add(path);
+        }
+        return selected;
+    }
+
+    private List<Selection<?>> selections(Root<?> root, List<FieldPath> selected) {
+        Map<String, From<?, ?>> joins = new LinkedHashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (FieldPath field : selected) {
+            From<?, ?> from = field.association == null ? root
+                    : joins.computeIfAbsent(field.association, association -> root.join(association, JoinType.LEFT));
+            selections.add(from.get(field.attribute));
+        }
+        return selections;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toRow(Tuple tuple, List<FieldPath> selected) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < selected.size(); i++) {
+            FieldPath field = selected.get(i);
+            Object value = tuple.get(i);
+            if (field.money && value != null) {
+                value = new MoneyAmount((BigDecimal) value);
+            }
+            Map<String, Object> target = field.association == null ? row
+                    : (Map<String, Object>) row.computeIfAbsent(field.association, key -> new LinkedHashMap<>());
+            target.put(field.attribute, value);
+        }
+        return row;
+    }
+
+    private Map<String, FieldPath> buildCatalog(Class<?> entity) {
+        Map<String, FieldPath> catalog = new LinkedHashMap<>();
+        EntityType<?> type = entityManager.getMetamodel().entity(entity);
+        for (SingularAttribute<?, ?> attribute : type.getSingularAttributes()) {
+            if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                catalog.put(attribute.getName(), new FieldPath(null, attribute));
+            } else if (attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.MANY_TO_ONE
+                    || attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.ONE_TO_ONE) {
+                EntityType<?> target = entityManager.getMetamodel().entity(attribute.getJavaType());
+                for (SingularAttribute<?, ?> targetAttribute : target.getSingularAttributes()) {
+                    if (targetAttribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC) {
+                        catalog.put(attribute.getName() + "." + targetAttribute.getName(),
+                                new FieldPath(attribute.getName(), targetAttribute));
+                    }
+                }
+            }
+        }
+        return catalog;
+    }
+
+    static final class FieldPath {
+        final String association;
+        final String attribute;
+        final boolean money;
+
+        FieldPath(String association, SingularAttribute<?, ?> attribute) {
+            this.association = association;
+            this.attribute = attribute.getName();
+            this.money = attribute.getJavaMember() instanceof Field field
+                    && field.isAnnotationPresent(JsonSerialize.class)
+                    && field.getAnnotation(JsonSerialize.class).using() == MoneySerializer.class;
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package com.carrental.service;
+
+import com.carrental.config.PrimaryReads;
+import com.carrental.dto.FleetFacets;
+import com.carrental.dto.FleetFilter;
+import com.carrental.event.CarChangedEvent;
+import com.carrental.event.CarStatusChangedEvent;
+import com.carrental.model.Car;
+import com.carrental.model.CarStatus;
+import com.carrental.repository.CarRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Column-per-attribute copy of the cars table for faceted filtering. Strings are dictionary-encoded so a filter
+// becomes a lookup in a small boolean table, and one pass over the primitive arrays yields both the matches
+// and every facet count. Columns are immutable; a write builds the next version and swaps it in.
+@Service
+public class FleetSnapshot {
+
+    private static final int MAKE = 1;
+    private static final int MODEL = 1 << 1;
+    private static final int FUEL = 1 << 2;
+    private static final int TRANSMISSION = 1 << 3;
+    private static final int STATUS = 1 << 4;
+    private static final int SEATS = 1 << 5;
+    private static final int YEAR = 1 << 6;
+    private static final int RATE = 1 << 7;
+
+    private static final CarStatus[] STATUSES = CarStatus.values();
+
+    @Autowired
+    private CarRepository carRepository;
+
+    private final PrimaryReads primaryReads;
+
+    private volatile Columns columns;
+
+    // Reads go to the primary: a car read from a lagging replica right after its write would be stored
+    // in the snapshot until the car changes again
+    public FleetSnapshot(PrimaryReads primaryReads) {
+        this.primaryReads = primaryReads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        columns = Columns.of(primaryReads.execute(status -> carRepository.findAll()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCarChanged(CarChangedEvent event) {
+        Columns current = columns;
+        if (current == null) {
+            return;
+        }
+        Car car = event.isDeleted() ? null
+                : primaryReads.execute(status -> carRepository.findById(event.getCarId()).orElse(null));
+        columns = car != null ? current.with(car) : current.without(event.getCarId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCarStatusChanged(CarStatusChangedEvent event) {
+        Columns current = columns;
+        if (current != null) {
+            columns = current.withStatus(event.getCarId(), event.getStatus());
+        }
+    }
+
+    public int size() {
+        return current().size;
+    }
+
+    public FleetFacets query(FleetFilter filter) {
+        Columns c = current();
+        int n = c.size;
+
+        // Per-attribute acceptance tables indexed by dictionary code; null means not filtered
+        boolean[] makeOk = c.makes.accepting(filter.getMakes());
+        boolean[] modelOk = c.models.accepting(filter.getModels());
+        boolean[] fuelOk = c.fuels.accepting(filter.getFuelTypes());
+        boolean[] transmissionOk = c.transmissions.accepting(filter.getTransmissionTypes());
+        boolean[] statusOk = null;
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            statusOk = new boolean[STATUSES.length];
+            for (CarStatus status : filter.getStatuses()) {
+                statusOk[status.ordinal()] = true;
+            }
+        }
+        int minSeats = filter.getMinSeats() != null ? filter.getMinSeats() : Integer.MIN_VALUE;
+        int maxSeats = filter.getMaxSeats() != null ? filter.getMaxSeats() : Integer.MAX_VALUE;
+        int minYear = filter.getMinYear() != null ? filter.getMinYear() : Integer.MIN_VALUE;
+        int maxYear = filter.getMaxYear() != null ? filter.getMaxYear() : Integer.MAX_VALUE;
+        long minCents = filter.getMinRate() != null ? toCents(filter.getMinRate(), RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maxCents = filter.getMaxRate() != null ? toCents(filter.getMaxRate(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+
+        int[] makeCounts = new int[c.makes.size()];
+        int[] modelCounts = new int[c.models.size()];
+        int[] fuelCounts = new int[c.fuels.size()];
+        int[] transmissionCounts = new int[c.transmissions.size()];
+        int[] statusCounts = new int[STATUSES.length];
+        int[] seatCounts = new int[c.seatValues.length];
+        int[] yearCounts = new int[c.yearValues.length];
+        List<Long> matches = new ArrayList<>();
+
+        for (int i = 0; i < n; i++) {
+            int miss = 0;
+            if (makeOk != null && !makeOk[c.make[i]]) miss |= MAKE;
+            if (modelOk != null && !modelOk[c.model[i]]) miss |= MODEL;
+            if (fuelOk != null && !fuelOk[c.fuel[i]]) miss |= FUEL;
+            if (transmissionOk != null && !transmissionOk[c.transmission[i]]) miss |= TRANSMISSION;
+            if (statusOk != null && !statusOk[c.status[i]]) miss |= STATUS;
+            if (c.seats[i] < minSeats || c.seats[i] > maxSeats) miss |= SEATS;
+            if (c.year[i] < minYear || c.year[i] > maxYear) miss |= YEAR;
+            if (c.rateCents[i] < minCents || c.rateCents[i] > maxCents) miss |= RATE;
+
+            if (miss == 0) matches.add(c.ids[i]);
+            // A row counts towards an attribute's facet when it passes every other filter
+            if ((miss & ~MAKE) == 0) makeCounts[c.make[i]]++;
+            if ((miss & ~MODEL) == 0) modelCounts[c.model[i]]++;
+            if ((miss & ~FUEL) == 0) fuelCounts[c.fuel[i]]++;
+            if ((miss & ~TRANSMISSION) == 0) transmissionCounts[c.transmission[i]]++;
+            if ((miss & ~STATUS) == 0) statusCounts[c.status[i]]++;
+            if ((miss & ~SEATS) == 0) seatCounts[Arrays.binarySearch(c.seatValues, c.seats[i])]++;
+            if ((miss & ~YEAR) == 0) yearCounts[Arrays.binarySearch(c.yearValues, c.year[i])]++;
+        }
+
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        facets.put("status", statusFacet(statusCounts));
+        facets.put("make", c.makes.facet(makeCounts));
+        facets.put("model", c.models.facet(modelCounts));
+        facets.put("fuelType", c.fuels.facet(fuelCounts));
+        facets.put("transmissionType", c.transmissions.facet(transmissionCounts));
+        // Seat count 0 stands for "unknown" and is left out
+        facets.put("seatingCapacity", numericFacet(seatCounts, c.seatValues, 1));
+        facets.put("year", numericFacet(yearCounts, c.yearValues, Integer.MIN_VALUE));
+        return new FleetFacets(n, matches.size(), matches, facets);
+    }
+
+    private Columns current() {
+        Columns current = columns;
+        if (current == null) {
+            rebuild();
+            current = columns;
+        }
+        return current;
+    }
+
+    private static Map<String, Integer> statusFacet(int[] counts) {
+        Map<String, Integer> facet = new LinkedHashMap<>();
+        for (CarStatus status : STATUSES) {
+            if (counts[status.ordinal()] > 0) {
+                facet.put(status.name(), counts[status.ordinal()]);
+            }
+        }
+        return facet;
+    }
+
+    // Slot i holds the count for values[i]; values below the smallest reported one are left out
+    private static Map<String, Integer> numericFacet(int[] counts, int[] values, int smallest) {
+        Map<String, Integer> facet = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 && values[i] >= smallest) {
+                facet.put(Integer.toString(values[i]), counts[i]);
+            }
+        }
+        return facet;
+    }
+
+    static long toCents(BigDecimal amount, RoundingMode rounding) {
+        return amount.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    // Append-only value table; code 0 is reserved for null
+    static class Dictionary {
+        private final List<String> values;
+        private final Map<String, Integer> codes;
+
+        private Dictionary(List<String> values, Map<String, Integer> codes) {
+            this.values = values;
+            this.codes = codes;
+        }
+
+        static Dictionary empty() {
+            List<String> values = new ArrayList<>();
+            values.add(null);
+            return new Dictionary(values, new HashMap<>());
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        Integer code(String value) {
+            return value == null ? Integer.valueOf(0) : codes.get(value);
+        }
+
+        Dictionary withValue(String value) {
+            if (code(value) != null) {
+                return this;
+            }
+            List<String> newValues = new ArrayList<>(values);
+            Map<String, Integer> newCodes = new HashMap<>(codes);
+            newCodes.put(value, newValues.size());
+            newValues.add(value);
+            return new Dictionary(newValues, newCodes);
+        }
+
+        // Case-insensitive, since the values come straight from query parameters
+        boolean[] accepting(List<String> wanted) {
+            if (wanted == null || wanted.isEmpty()) {
+                return null;
+            }
+            boolean[] accepted = new boolean[values.size()];
+            for (int code = 1; code < values.size(); code++) {
+                for (String value : wanted) {
+                    if (values.get(code).equalsIgnoreCase(value.trim())) {
+                        accepted[code] = true;
+                    }
+                }
+            }
+            return accepted;
+        }
+
+        Map<String, Integer> facet(int[] counts) {
+            Map<String, Integer> facet = new TreeMap<>();
+            for (int code = 1; code < counts.length; code++) {
+                if (counts[code] > 0) {
+                    facet.put(values.get(code), counts[code]);
+                }
+            }
+            return facet;
+        }
+    }
+
+    static class Columns {
+        final int size;
+        final long[] ids;
+        final int[] make;
+        final int[] model;
+        final int[] fuel;
+        final int[] transmission;
+        final byte[] status;
+        final int[] seats;
+        final int[] year;
+        final long[] rateCents;
+        final Dictionary makes;
+        final Dictionary models;
+        final Dictionary fuels;
+        final Dictionary transmissions;
+        final Map<Long, Integer> rowById;
+        // Distinct values present, sorted: facet counts are indexed by position here, so their size does not
+        // depend on how far apart the values are
+        final int[] seatValues;
+        final int[] yearValues;
+
+        Columns(int size, long[] ids, int[] make, int[] model, int[] fuel, int[] transmission, byte[] status,
+                int[] seats, int[] year, long[] rateCents, Dictionary makes, Dictionary models, Dictionary fuels,
+                Dictionary transmissions, Map<Long, Integer> rowById) {
+            this.size = size;
+            this.ids = ids;
+            this.make = make;
+            this.model = model;
+            this.fuel = fuel;
+            this.transmission = transmission;
+            this.status = status;
+            this.seats = seats;
+            this.year = year;
+            this.rateCents = rateCents;
+            this.makes = makes;
+            this.models = models;
+            this.fuels = fuels;
+            this.transmissions = transmissions;
+            this.rowById = rowById;
+            this.seatValues = Arrays.stream(seats, 0, size).distinct().sorted().toArray();
+            this.yearValues = Arrays.stream(year, 0, size).distinct().sorted().toArray();
+        }
+
+        private Columns(Columns base, byte[] status) {
+            this.size = base.size;
+            this.ids = base.ids;
+            this.make = base.make;
+            this.model = base.model;
+            this.fuel = base.fuel;
+            this.transmission = base.transmission;
+            this.status = status;
+            this.seats = base.seats;
+            this.year = base.year;
+            this.rateCents = base.rateCents;
+            this.makes = base.makes;
+            this.models = base.models;
+            this.fuels = base.fuels;
+            this.transmissions = base.transmissions;
+            this.rowById = base.rowById;
+            this.seatValues = base.seatValues;
+            this.yearValues = base.yearValues;
+        }
+
+        static Columns of(List<Car> cars) {
+            int n = cars.size();
+            Dictionary makes = Dictionary.empty();
+            Dictionary models = Dictionary.empty();
+            Dictionary fuels = Dictionary.empty();
+            Dictionary transmissions = Dictionary.empty();
+            for (Car car : cars) {
+                makes = makes.withValue(car.getMake());
+                models = models.withValue(car.getModel());
+                fuels = fuels.withValue(car.getFuelType());
+                transmissions = transmissions.withValue(car.getTransmissionType());
+            }
+
+            long[] ids = new long[n];
+            int[] make = new int[n];
+            int[] model = new int[n];
+            int[] fuel = new int[n];
+            int[] transmission = new int[n];
+            byte[] status = new byte[n];
+            int[] seats = new int[n];
+            int[] year = new int[n];
+            long[] rateCents = new long[n];
+            Map<Long, Integer> rowById = new HashMap<>();
+            for (int row = 0; row < n; row++) {
+                Car car = cars.get(row);
+                ids[row] = car.getId();
+                make[row] = makes.code(car.getMake());
+                model[row] = models.code(car.getModel());
+                fuel[row] = fuels.code(car.getFuelType());
+                transmission[row] = transmissions.code(car.getTransmissionType());
+                status[row] = (byte) car.getStatus().ordinal();
+                seats[row] = seatsOf(car);
+                year[row] = car.getYear();
+                rateCents[row] = toCents(car.getDailyRate(), RoundingMode.HALF_UP);
+                rowById.put(car.getId(), row);
+            }
+            return new Columns(n, ids, make, model, fuel, transmission, status, seats, year, rateCents,
+                    makes, models, fuels, transmissions, rowById);
+        }
+
+        // Inserts or replaces the car's row
+        Columns with(Car car) {
+            Integer existing = rowById.get(car.getId());
+            int row = existing != null ? existing : size;
+            int newSize = existing != null ? size : size + 1;
+
+            Dictionary newMakes = makes.withValue(car.getMake());
+            Dictionary newModels = models.withValue(car.getModel());
+            Dictionary newFuels = fuels.withValue(car.getFuelType());
+            Dictionary newTransmissions = transmissions.withValue(car.getTransmissionType());
+
+            Columns next = new Columns(newSize, Arrays.copyOf(ids, newSize), Arrays.copyOf(make, newSize),
+                    Arrays.copyOf(model, newSize), Arrays.copyOf(fuel, newSize), Arrays.copyOf(transmission, newSize),
+                    Arrays.copyOf(status, newSize), set(seats, newSize, row, seatsOf(car)),
+                    set(year, newSize, row, car.getYear()), Arrays.copyOf(rateCents, newSize),
+                    newMakes, newModels, newFuels, newTransmissions, new HashMap<>(rowById));
+            next.ids[row] = car.getId();
+            next.make[row] = newMakes.code(car.getMake());
+            next.model[row] = newModels.code(car.getModel());
+            next.fuel[row] = newFuels.code(car.getFuelType());
+            next.transmission[row] = newTransmissions.code(car.getTransmissionType());
+            next.status[row] = (byte) car.getStatus().ordinal();
+            next.rateCents[row] = toCents(car.getDailyRate(), RoundingMode.HALF_UP);
+            next.rowById.put(car.getId(), row);
+            return next;
+        }
+
+        // Removes the car's row by moving the last row into its place
+        Columns without(Long carId) {
+            Integer row = rowById.get(carId);
+            if (row == null) {
+                return this;
+            }
+            int last = size - 1;
+            long[] newIds = Arrays.copyOf(ids, last);
+            int[] newMake = Arrays.copyOf(make, last);
+            int[] newModel = Arrays.copyOf(model, last);
+            int[] newFuel = Arrays.copyOf(fuel, last);
+            int[] newTransmission = Arrays.copyOf(transmission, last);
+            byte[] newStatus = Arrays.copyOf(status, last);
+            int[] newSeats = Arrays.copyOf(seats, last);
+            int[] newYear = Arrays.copyOf(year, last);
+            long[] newRateCents = Arrays.copyOf(rateCents, last);
+            Map<Long, Integer> newRowById = new HashMap<>(rowById);
+            newRowById.remove(carId);
+            if (row != last) {
+                newIds[row] = ids[last];
+                newMake[row] = make[last];
+                newModel[row] = model[last];
+                newFuel[row] = fuel[last];
+                newTransmission[row] = transmission[last];
+                newStatus[row] = status[last];
+                newSeats[row] = seats[last];
+                newYear[row] = year[last];
+                newRateCents[row] = rateCents[last];
+                newRowById.put(ids[last], row);
+            }
+            return new Columns(last, newIds, newMake, newModel, newFuel, newTransmission, newStatus, newSeats,
+                    newYear, newRateCents, makes, models, fuels, transmissions, newRowById);
+        }
+
+        // Status changes are the most frequent write, so only that column is copied
+        Columns withStatus(Long carId, CarStatus newStatus) {
+            Integer row = rowById.get(carId);
+            if (row == null || newStatus == null) {
+                return this;
+            }
+            byte[] statuses = status.clone();
+            statuses[row] = (byte) newStatus.ordinal();
+            return new Columns(this, statuses);
+        }
+
+        private static int seatsOf(Car car) {
+            return car.getSeatingCapacity() != null && car.getSeatingCapacity() > 0 ? car.getSeatingCapacity() : 0;
+        }
+
+        private static int[] set(int[] column, int newSize, int row, int value) {
+            int[] copy = Arrays.copyOf(column, newSize);
+            copy[row] = value;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.carrental.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class IdempotencyStore {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    // Insertion order, so the eldest entries are evicted first once max-entries is reached
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    private final Counter replayedCounter;
+    private final Counter waitedCounter;
+    private final Counter mismatchCounter;
+
+    public IdempotencyStore(MeterRegistry meterRegistry,
+                            @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${idempotency.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.maxEntries = maxEntries;
+
+        this.replayedCounter = meterRegistry.counter("idempotency.replayed");
+        this.waitedCounter = meterRegistry.counter("idempotency.waited");
+        this.mismatchCounter = meterRegistry.counter("idempotency.mismatch");
+        Gauge.builder("idempotency.entries", this, IdempotencyStore::size).register(meterRegistry);
+    }
+
+    // Either makes the caller the owner of the key (it must call complete or abandon afterwards)
+    // or returns the entry a previous request with the same key already created
+    public synchronized Claim claim(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        Entry existing = entries.get(key);
+        if (existing != null && existing.isExpired(now)) {
+            entries.remove(key);
+            existing = null;
+        }
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                mismatchCounter.increment();
+                return new Claim(ClaimResult.MISMATCH, existing);
+            }
+            return new Claim(ClaimResult.EXISTING, existing);
+        }
+
+        Entry entry = new Entry(fingerprint, now + ttlMillis);
+        entries.put(key, entry);
+        evictOverflow(now);
+        return new Claim(ClaimResult.OWNER, entry);
+    }
+
+    public synchronized void complete(Entry entry, StoredResponse response) {
+        entry.expiresAt = System.currentTimeMillis() + ttlMillis;
+        entry.result.complete(response);
+    }
+
+    // The owner failed without a response worth replaying; waiters retry and one of them takes over the key
+    public synchronized void abandon(String key, Entry entry) {
+        entries.remove(key, entry);
+        entry.result.complete(null);
+    }
+
+    // Returns the stored response, or null if the owner abandoned the key
+    public StoredResponse await(Entry entry, long timeoutMs) throws TimeoutException, InterruptedException {
+        if (!entry.result.isDone()) {
+            waitedCounter.increment();
+        }
+        try {
+            StoredResponse response = entry.result.get(timeoutMs, TimeUnit.MILLISECONDS);
+            if (response != null) {
+                replayedCounter.increment();
+            }
+            return response;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:60000}")
+    public synchronized void purgeExpired() {
+        purgeExpired(System.currentTimeMillis());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evictOverflow(long now) {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        purgeExpired(now);
+        // Still full: drop the oldest finished entries; in-flight ones are kept so their waiters are not orphaned
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            if (iterator.next().getValue().result.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void purgeExpired(long now) {
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    public enum ClaimResult {
+        OWNER,
+        EXISTING,
+        MISMATCH
+    }
+
+    public static class Claim {
+        private final ClaimResult result;
+        private final Entry entry;
+
+        Claim(ClaimResult result, Entry entry) {
+            this.result = result;
+            this.entry = entry;
+        }
+
+        public ClaimResult getResult() { return result; }
+        public Entry getEntry() { return entry; }
+    }
+
+    public static class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        private long expiresAt;
+
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return result.isDone() && now >= expiresAt;
+        }
+    }
+
+    public static class StoredResponse {
+        private final int status;
+        private final String contentType;
+        private final String location;
+        private final byte[] body;
+
+        public StoredResponse(int status, String contentType, String location, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.location = location;
+            this.body = body;
+        }
+
+        public int getStatus() { return status; }
+        public String getContentType() { return contentType; }
+        public String getLocation() { return location; }
+        public byte[] getBody() { return body; }
+    }
+}
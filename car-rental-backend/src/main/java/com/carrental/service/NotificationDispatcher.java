@@ -0,0 +1,187 @@
+package com.carrental.service;
+
+import com.carrental.model.Customer;
+import com.carrental.model.OutboxMessage;
+import com.carrental.model.OutboxStatus;
+import com.carrental.notification.Notification;
+import com.carrental.notification.NotificationSender;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final CustomerRepository customerRepository;
+    private final NotificationSender notificationSender;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long leaseSeconds;
+    private final long retryBackoffSeconds;
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Counter cancelledCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer deliveryTimer;
+
+    public NotificationDispatcher(OutboxMessageRepository outboxMessageRepository,
+                                  CustomerRepository customerRepository,
+                                  NotificationSender notificationSender,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${notifications.batch-size:100}") int batchSize,
+                                  @Value("${notifications.max-attempts:5}") int maxAttempts,
+                                  @Value("${notifications.lease-seconds:60}") long leaseSeconds,
+                                  @Value("${notifications.retry-backoff-seconds:30}") long retryBackoffSeconds) {
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.customerRepository = customerRepository;
+        this.notificationSender = notificationSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.leaseSeconds = leaseSeconds;
+        this.retryBackoffSeconds = retryBackoffSeconds;
+
+        this.sentCounter = meterRegistry.counter("notifications.sent");
+        this.retriedCounter = meterRegistry.counter("notifications.retried");
+        this.failedCounter = meterRegistry.counter("notifications.failed");
+        this.cancelledCounter = meterRegistry.counter("notifications.cancelled");
+        this.batchSizeSummary = meterRegistry.summary("notifications.dispatch.batch.size");
+        this.deliveryTimer = meterRegistry.timer("notifications.dispatch.delivery");
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.dispatch-interval-ms:1000}")
+    public void dispatchOnSchedule() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.error("Notification dispatch failed", e);
+        }
+    }
+
+    // Claims due messages batch by batch until the outbox has nothing more that is due
+    public int dispatch() {
+        int dispatched = 0;
+        List<OutboxMessage> batch;
+        do {
+            batch = transactionTemplate.execute(status -> claimBatch());
+            if (batch.isEmpty()) {
+                break;
+            }
+            deliver(batch);
+            dispatched += batch.size();
+        } while (batch.size() == batchSize);
+        return dispatched;
+    }
+
+    // Rows are locked with SKIP LOCKED only for the duration of the claim; pushing next_attempt_at out by the
+    // lease keeps other dispatchers away while this one talks to the gateway without holding a connection.
+    private List<OutboxMessage> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> due = outboxMessageRepository.findDueForDispatch(now, PageRequest.of(0, batchSize));
+        for (OutboxMessage message : due) {
+            message.setAttempts(message.getAttempts() + 1);
+            message.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+        }
+        return due;
+    }
+
+    private void deliver(List<OutboxMessage> batch) {
+        batchSizeSummary.record(batch.size());
+
+        Set<Long> customerIds = batch.stream().map(OutboxMessage::getCustomerId).collect(Collectors.toSet());
+        Map<Long, Customer> customers = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        // A message whose customer has been deleted has nobody to go to, so it is cancelled rather than sent
+        List<OutboxMessage> deliverable = new ArrayList<>();
+        List<OutboxMessage> orphaned = new ArrayList<>();
+        List<Notification> notifications = new ArrayList<>();
+        for (OutboxMessage message : batch) {
+            Customer customer = customers.get(message.getCustomerId());
+            if (customer == null) {
+                orphaned.add(message);
+                continue;
+            }
+            deliverable.add(message);
+            notifications.add(new Notification(message.getId(), message.getType(), message.getRentalId(),
+                    customer.getEmail(), customer.getPhoneNumber(), message.getPayload()));
+        }
+
+        Set<Long> delivered = Collections.emptySet();
+        String error = null;
+        if (!notifications.isEmpty()) {
+            try {
+                delivered = deliveryTimer.record(() -> notificationSender.send(notifications));
+            } catch (RuntimeException e) {
+                log.warn("Notification sender failed for a batch of {}", notifications.size(), e);
+                delivered = Collections.emptySet();
+                error = e.getMessage();
+            }
+        }
+
+        Set<Long> deliveredIds = delivered;
+        String lastError = error != null ? error : "Not accepted by sender";
+        transactionTemplate.executeWithoutResult(status -> recordResults(deliverable, orphaned, deliveredIds, lastError));
+    }
+
+    private void recordResults(List<OutboxMessage> deliverable, List<OutboxMessage> orphaned, Set<Long> deliveredIds,
+                               String lastError) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxMessage message : orphaned) {
+            outboxMessageRepository.recordFailedAttempt(message.getId(), OutboxStatus.CANCELLED,
+                    message.getNextAttemptAt(), "Customer " + message.getCustomerId() + " no longer exists");
+            cancelledCounter.increment();
+        }
+
+        if (!deliveredIds.isEmpty()) {
+            outboxMessageRepository.markSent(new ArrayList<>(deliveredIds), now);
+            sentCounter.increment(deliveredIds.size());
+        }
+
+        String error = lastError.length() > 500 ? lastError.substring(0, 500) : lastError;
+        for (OutboxMessage message : deliverable) {
+            if (deliveredIds.contains(message.getId())) {
+                continue;
+            }
+            if (message.getAttempts() >= maxAttempts) {
+                outboxMessageRepository.recordFailedAttempt(message.getId(), OutboxStatus.FAILED,
+                        message.getNextAttemptAt(), error);
+                failedCounter.increment();
+            } else {
+                // Exponential backoff: 1x, 2x, 4x ... the base delay
+                long backoff = retryBackoffSeconds << (message.getAttempts() - 1);
+                outboxMessageRepository.recordFailedAttempt(message.getId(), OutboxStatus.PENDING,
+                        now.plusSeconds(backoff), error);
+                retriedCounter.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.carrental.service;
+
+import com.carrental.model.Car;
+import com.carrental.model.NotificationType;
+import com.carrental.model.OutboxMessage;
+import com.carrental.model.OutboxStatus;
+import com.carrental.model.Rental;
+import com.carrental.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Writes notification rows into the outbox. Must run inside the caller's transaction so the
+// notification exists if and only if the rental change commits.
+@Service
+public class NotificationOutboxService {
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${notifications.reminder-time:09:00}")
+    private String reminderTime;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueRentalCreated(Rental rental, Car car) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxMessageRepository.save(new OutboxMessage(NotificationType.RENTAL_CONFIRMATION,
+                rental.getId(), rental.getCustomer().getId(), payload(rental, car), now));
+
+        outboxMessageRepository.save(new OutboxMessage(NotificationType.RETURN_REMINDER,
+                rental.getId(), rental.getCustomer().getId(), payload(rental, car), reminderAt(rental.getEndDate(), now)));
+    }
+
+    // For an open rental whose dates changed: the pending reminder moves to the new end date and carries the new
+    // dates. If the old reminder has already gone out (or failed), a new one is queued for the new end date.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void rescheduleReturnReminder(Rental rental, Car car) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime remindAt = reminderAt(rental.getEndDate(), now);
+        String payload = payload(rental, car);
+        int rescheduled = outboxMessageRepository.reschedulePending(rental.getId(), NotificationType.RETURN_REMINDER,
+                remindAt, payload);
+        if (rescheduled == 0) {
+            outboxMessageRepository.save(new OutboxMessage(NotificationType.RETURN_REMINDER,
+                    rental.getId(), rental.getCustomer().getId(), payload, remindAt));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueRentalCompleted(Rental rental) {
+        cancelReturnReminder(rental.getId());
+        outboxMessageRepository.save(new OutboxMessage(NotificationType.RETURN_CONFIRMATION,
+                rental.getId(), rental.getCustomer().getId(), payload(rental, rental.getCar()), LocalDateTime.now()));
+    }
+
+    // For rentals that end without a return (cancelled or deleted): the reminder must not go out
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cancelReturnReminder(Long rentalId) {
+        outboxMessageRepository.updatePendingStatus(rentalId, NotificationType.RETURN_REMINDER, OutboxStatus.CANCELLED);
+    }
+
+    // Deleting a customer cascades to their rentals; reminders for them would go to nobody
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cancelReturnReminders(Collection<Long> rentalIds) {
+        if (!rentalIds.isEmpty()) {
+            outboxMessageRepository.updatePendingStatus(rentalIds, NotificationType.RETURN_REMINDER, OutboxStatus.CANCELLED);
+        }
+    }
+
+    // The day before the car is due back, or right away when that has passed
+    private LocalDateTime reminderAt(LocalDate endDate, LocalDateTime now) {
+        LocalDateTime remindAt = endDate.minusDays(1).atTime(LocalTime.parse(reminderTime));
+        return remindAt.isAfter(now) ? remindAt : now;
+    }
+
+    private String payload(Rental rental, Car car) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("rentalId", rental.getId());
+        payload.put("car", car.getMake() + " " + car.getModel());
+        payload.put("licensePlate", car.getLicensePlate());
+        payload.put("startDate", rental.getStartDate());
+        payload.put("endDate", rental.getEndDate());
+        payload.put("actualReturnDate", rental.getActualReturnDate());
+        payload.put("totalCost", rental.getTotalCost());
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize notification payload for rental " + rental.getId(), e);
+        }
+    }
+}
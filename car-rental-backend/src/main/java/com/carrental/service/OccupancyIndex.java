@@ -0,0 +1,223 @@
+package com.carrental.service;
+
+import com.carrental.config.PrimaryReads;
+import com.carrental.event.RentalEvent;
+import com.carrental.model.RentalStatus;
+import com.carrental.repository.ArchivedRentalRepository;
+import com.carrental.repository.RentalRepository;
+import com.carrental.repository.RentalSpan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// One bitset per car, one bit per day, over a rolling horizon of past-days behind and future-days ahead of today.
+// Readers never lock: a car's words are replaced as a whole, and a full rebuild swaps in a new snapshot.
+@Service
+public class OccupancyIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancyIndex.class);
+
+    private static final long[] NO_OCCUPANCY = new long[0];
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @Value("${occupancy.past-days:365}")
+    private int pastDays;
+
+    @Value("${occupancy.future-days:365}")
+    private int futureDays;
+
+    private final PrimaryReads primaryReads;
+
+    private volatile Snapshot snapshot;
+
+    // Spans are read on the primary: refreshCar runs right after a booking change, before a replica may have it
+    public OccupancyIndex(PrimaryReads primaryReads) {
+        this.primaryReads = primaryReads;
+    }
+
+    // Also runs daily so the horizon keeps rolling forward
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${occupancy.rebuild-cron:0 5 0 * * *}")
+    public synchronized void rebuild() {
+        LocalDate today = LocalDate.now();
+        LocalDate origin = today.minusDays(pastDays);
+        Snapshot rebuilt = new Snapshot(origin, pastDays + futureDays + 1);
+        LocalDate horizonEnd = rebuilt.lastDay();
+
+        // Live table first: a rental archived in between is then seen twice (harmless), never missed
+        List<RentalSpan> spans = primaryReads.execute(status -> rentalRepository.findOccupancySpans(origin, horizonEnd));
+        List<RentalSpan> archivedSpans = primaryReads.execute(
+                status -> archivedRentalRepository.findOccupancySpans(origin, horizonEnd));
+
+        Map<Long, long[]> cars = rebuilt.cars;
+        for (RentalSpan span : spans) {
+            rebuilt.mark(cars.computeIfAbsent(span.getCarId(), id -> rebuilt.newWords()), span, today);
+        }
+        for (RentalSpan span : archivedSpans) {
+            rebuilt.mark(cars.computeIfAbsent(span.getCarId(), id -> rebuilt.newWords()), span, today);
+        }
+        snapshot = rebuilt;
+        log.info("Built occupancy index for {} cars over {} to {}", cars.size(), origin, horizonEnd);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalEvent(RentalEvent event) {
+        if (event.getCarId() != null) {
+            refreshCar(event.getCarId());
+        }
+    }
+
+    // Recomputes one car from its rentals; cheap enough to run on every booking change
+    public synchronized void refreshCar(Long carId) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        long[] words = current.newWords();
+        List<RentalSpan> spans = primaryReads.execute(status -> {
+            List<RentalSpan> all = new ArrayList<>(rentalRepository.findOccupancySpansByCarId(carId));
+            all.addAll(archivedRentalRepository.findOccupancySpansByCarId(carId));
+            return all;
+        });
+        for (RentalSpan span : spans) {
+            current.mark(words, span, today);
+        }
+        current.cars.put(carId, words);
+    }
+
+    public LocalDate getHorizonStart() {
+        return current().origin;
+    }
+
+    public LocalDate getHorizonEnd() {
+        return current().lastDay();
+    }
+
+    // Days in [from, to] on which the car is booked; the range must lie within the horizon
+    public int occupiedDays(Long carId, LocalDate from, LocalDate to) {
+        Snapshot current = current();
+        return countBits(current.words(carId), current.dayIndex(from), current.dayIndex(to));
+    }
+
+    public boolean isOccupied(Long carId, LocalDate date) {
+        Snapshot current = current();
+        int day = current.dayIndex(date);
+        if (day < 0 || day >= current.days) {
+            return false;
+        }
+        return isSet(current.words(carId), day);
+    }
+
+    // How many of the given cars are booked on each day of [from, to]; the range must lie within the horizon
+    public int[] busyCounts(List<Long> carIds, LocalDate from, LocalDate to) {
+        Snapshot current = current();
+        int fromDay = current.dayIndex(from);
+        int[] counts = new int[current.dayIndex(to) - fromDay + 1];
+        for (Long carId : carIds) {
+            long[] words = current.words(carId);
+            for (int i = 0; i < counts.length; i++) {
+                if (isSet(words, fromDay + i)) {
+                    counts[i]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static boolean isSet(long[] words, int day) {
+        return (day >> 6) < words.length && (words[day >> 6] & (1L << day)) != 0;
+    }
+
+    static void setBits(long[] words, int fromDay, int toDay) {
+        for (int day = fromDay; day <= toDay; ) {
+            int word = day >> 6;
+            int lastInWord = Math.min(toDay, (word << 6) + 63);
+            long mask = (-1L >>> (63 - (lastInWord & 63))) & (-1L << (day & 63));
+            words[word] |= mask;
+            day = lastInWord + 1;
+        }
+    }
+
+    static int countBits(long[] words, int fromDay, int toDay) {
+        int count = 0;
+        int lastDay = Math.min(toDay, (words.length << 6) - 1);
+        for (int day = Math.max(0, fromDay); day <= lastDay; ) {
+            int word = day >> 6;
+            int lastInWord = Math.min(lastDay, (word << 6) + 63);
+            long mask = (-1L >>> (63 - (lastInWord & 63))) & (-1L << (day & 63));
+            count += Long.bitCount(words[word] & mask);
+            day = lastInWord + 1;
+        }
+        return count;
+    }
+
+    private static class Snapshot {
+        final LocalDate origin;
+        final int days;
+        final Map<Long, long[]> cars = new ConcurrentHashMap<>();
+
+        Snapshot(LocalDate origin, int days) {
+            this.origin = origin;
+            this.days = days;
+        }
+
+        LocalDate lastDay() {
+            return origin.plusDays(days - 1);
+        }
+
+        int dayIndex(LocalDate date) {
+            return (int) ChronoUnit.DAYS.between(origin, date);
+        }
+
+        long[] newWords() {
+            return new long[(days + 63) >> 6];
+        }
+
+        long[] words(Long carId) {
+            return cars.getOrDefault(carId, NO_OCCUPANCY);
+        }
+
+        // A rental holds the car from its start date until it is returned; an active rental past its
+        // end date keeps holding it through today
+        void mark(long[] words, RentalSpan span, LocalDate today) {
+            LocalDate end = span.getActualReturnDate() != null ? span.getActualReturnDate() : span.getEndDate();
+            boolean open = span.getStatus() == RentalStatus.ACTIVE || span.getStatus() == RentalStatus.OVERDUE;
+            if (open && span.getActualReturnDate() == null && end.isBefore(today)) {
+                end = today;
+            }
+            int fromDay = Math.max(0, dayIndex(span.getStartDate()));
+            int toDay = Math.min(days - 1, dayIndex(end));
+            if (fromDay <= toDay) {
+                setBits(words, fromDay, toDay);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.carrental.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class RateLimiter {
+
+    private final Map<EndpointGroup, Limit> limits = new EnumMap<>(EndpointGroup.class);
+    private final Map<EndpointGroup, Counter> rejectedCounters = new EnumMap<>(EndpointGroup.class);
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimiter(Environment environment, MeterRegistry meterRegistry) {
+        for (EndpointGroup group : EndpointGroup.values()) {
+            String prefix = "rate-limit." + group.getKey() + ".";
+            int capacity = environment.getProperty(prefix + "capacity", Integer.class, 100);
+            double refillPerSecond = environment.getProperty(prefix + "refill-per-second", Double.class, 50.0);
+            if (capacity < 1) {
+                throw new IllegalArgumentException(prefix + "capacity must be at least 1, was " + capacity);
+            }
+            // Also rejects NaN; a zero rate would make the emission interval infinite
+            if (!(refillPerSecond > 0)) {
+                throw new IllegalArgumentException(prefix + "refill-per-second must be greater than 0, was " + refillPerSecond);
+            }
+            limits.put(group, new Limit(capacity, refillPerSecond));
+            rejectedCounters.put(group, meterRegistry.counter("rate.limit.rejected", "group", group.getKey()));
+        }
+    }
+
+    // Returns 0 when the request may proceed, otherwise the nanoseconds until the client's next token
+    public long tryAcquire(EndpointGroup group, String clientId) {
+        return tryAcquire(group, clientId, System.nanoTime());
+    }
+
+    long tryAcquire(EndpointGroup group, String clientId, long now) {
+        Limit limit = limits.get(group);
+        TokenBucket bucket = buckets.computeIfAbsent(group.getKey() + ":" + clientId,
+                k -> new TokenBucket(limit, now));
+        long waitNanos = bucket.tryConsume(now);
+        if (waitNanos > 0) {
+            rejectedCounters.get(group).increment();
+        }
+        return waitNanos;
+    }
+
+    // A bucket that has refilled completely holds no state worth keeping
+    @Scheduled(fixedDelayString = "${rate-limit.purge-interval-ms:60000}")
+    public void purgeIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private static class Limit {
+        final int capacity;
+        final long emissionIntervalNanos;
+        final long burstNanos;
+
+        Limit(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+            try {
+                this.burstNanos = Math.multiplyExact(capacity, emissionIntervalNanos);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Rate limit of " + refillPerSecond + "/s with capacity " + capacity
+                        + " is too slow to represent");
+            }
+        }
+    }
+
+    // Token bucket kept as a single timestamp (GCRA): the time at which the bucket would be full again.
+    // Each request moves it forward by one emission interval; the request is refused when that would put
+    // it more than capacity intervals ahead of now. One CAS per request, no locks.
+    static class TokenBucket {
+        private final long emissionIntervalNanos;
+        private final long burstNanos;
+        private final AtomicLong fullAt;
+
+        TokenBucket(Limit limit, long now) {
+            this.emissionIntervalNanos = limit.emissionIntervalNanos;
+            this.burstNanos = limit.burstNanos;
+            this.fullAt = new AtomicLong(now);
+        }
+
+        long tryConsume(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + emissionIntervalNanos;
+                long waitNanos = next - burstNanos - now;
+                if (waitNanos > 0) {
+                    return waitNanos;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean isFull(long now) {
+            return fullAt.get() - now <= 0;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.carrental.service;
+
+import com.carrental.model.RentalStatus;
+import com.carrental.model.SyncEntityType;
+import com.carrental.repository.ArchivedRentalRepository;
+import com.carrental.repository.RentalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class RentalArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(RentalArchiveService.class);
+
+    private static final List<RentalStatus> CLOSED_STATUSES = List.of(RentalStatus.COMPLETED, RentalStatus.CANCELLED);
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @Autowired
+    private ChangeSyncService changeSyncService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${rental-archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rental-archive.retention-days:90}")
+    private int retentionDays;
+
+    @Value("${rental-archive.batch-size:500}")
+    private int batchSize;
+
+    public RentalArchiveService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${rental-archive.cron:0 30 2 * * *}")
+    public void archiveOnSchedule() {
+        if (enabled) {
+            archiveClosedRentals();
+        }
+    }
+
+    // Moves rentals closed before the retention cutoff into rentals_archive, one chunk per transaction
+    // so locks stay short and a failure only rolls back the current chunk.
+    public int archiveClosedRentals() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int archived = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            archived += moved;
+        } while (moved == batchSize);
+
+        if (archived > 0) {
+            log.info("Archived {} rentals closed before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = rentalRepository.findArchivableRentalIds(CLOSED_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedRentalRepository.copyFromRentals(ids, LocalDateTime.now());
+        rentalRepository.deleteAllByIdInBatch(ids);
+        // Archived rentals leave the live rental feed
+        changeSyncService.recordDeletions(SyncEntityType.RENTAL, ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,253 @@
+package com.carrental.service;
+
+import com.carrental.event.CarStatusChangedEvent;
+import com.carrental.event.RentalEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+@Service
+public class RentalEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(RentalEventLog.class);
+    // Events that could not be written even on their own; route this logger to its own file to replay them
+    private static final Logger deadLetterLog = LoggerFactory.getLogger(RentalEventLog.class.getName() + ".dead-letter");
+
+    private static final String INSERT_SQL = "INSERT INTO rental_events " +
+            "(event_type, rental_id, car_id, customer_id, previous_status, new_status, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    // A batch is written all or nothing, so a retry never duplicates the rows that got in before the failure
+    private final TransactionTemplate transactionTemplate;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final int maxBatchAttempts;
+
+    // Lock-free queue; the size counter is what makes it bounded
+    private final ConcurrentLinkedQueue<RentalEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    private final Counter publishedCounter;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedBatchCounter;
+    private final Counter deadLetterCounter;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    // Batch that failed to write; retried before anything new is taken from the queue
+    private List<RentalEvent> pendingBatch = new ArrayList<>();
+    private int pendingBatchAttempts = 0;
+
+    public RentalEventLog(JdbcTemplate jdbcTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${rental-event-log.capacity:10000}") int capacity,
+                          @Value("${rental-event-log.batch-size:200}") int batchSize,
+                          @Value("${rental-event-log.flush-interval-ms:200}") long flushIntervalMs,
+                          @Value("${rental-event-log.offer-timeout-ms:5}") long offerTimeoutMs,
+                          @Value("${rental-event-log.max-batch-attempts:3}") int maxBatchAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        this.maxBatchAttempts = maxBatchAttempts;
+
+        this.publishedCounter = meterRegistry.counter("rental.events.published");
+        this.writtenCounter = meterRegistry.counter("rental.events.written");
+        this.droppedCounter = meterRegistry.counter("rental.events.dropped");
+        this.failedBatchCounter = meterRegistry.counter("rental.events.failed.batches");
+        this.deadLetterCounter = meterRegistry.counter("rental.events.dead.lettered");
+        this.flushTimer = meterRegistry.timer("rental.events.flush");
+        Gauge.builder("rental.events.queue.depth", queueSize, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("rental.events.queue.capacity", () -> capacity).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::writeLoop, "rental-event-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever the writer did not get to is flushed here, before the DataSource goes away
+        flushAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalEvent(RentalEvent event) {
+        publish(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarStatusChanged(CarStatusChangedEvent event) {
+        publish(RentalEvent.of(event));
+    }
+
+    // Never blocks for longer than offer-timeout-ms; when the writer cannot keep up the event is dropped and counted
+    public boolean publish(RentalEvent event) {
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (!tryOffer(event)) {
+            Thread writer = writerThread;
+            if (writer != null) {
+                LockSupport.unpark(writer);
+            }
+            if (System.nanoTime() >= deadline) {
+                droppedCounter.increment();
+                log.warn("Rental event log full ({} events), dropping {} event", capacity, event.getType());
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        publishedCounter.increment();
+        if (queueSize.get() >= batchSize && writerThread != null) {
+            LockSupport.unpark(writerThread);
+        }
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return queueSize.get();
+    }
+
+    private boolean tryOffer(RentalEvent event) {
+        if (queueSize.incrementAndGet() > capacity) {
+            queueSize.decrementAndGet();
+            return false;
+        }
+        queue.offer(event);
+        return true;
+    }
+
+    private void writeLoop() {
+        while (running) {
+            try {
+                if (flushBatch() < batchSize) {
+                    LockSupport.parkNanos(this, flushIntervalNanos);
+                }
+            } catch (RuntimeException e) {
+                failedBatchCounter.increment();
+                log.error("Failed to write rental events, will retry", e);
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    synchronized void flushAll() {
+        try {
+            while (flushBatch() > 0) {
+                // keep draining
+            }
+        } catch (RuntimeException e) {
+            failedBatchCounter.increment();
+            log.error("Failed to flush rental events on shutdown, {} events lost", pendingBatch.size() + queueSize.get(), e);
+        }
+    }
+
+    private synchronized int flushBatch() {
+        if (pendingBatch.isEmpty()) {
+            RentalEvent event;
+            while (pendingBatch.size() < batchSize && (event = queue.poll()) != null) {
+                queueSize.decrementAndGet();
+                pendingBatch.add(event);
+            }
+        }
+        if (pendingBatch.isEmpty()) {
+            return 0;
+        }
+
+        List<RentalEvent> batch = pendingBatch;
+        try {
+            flushTimer.record(() -> insert(batch));
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            if (++pendingBatchAttempts < maxBatchAttempts) {
+                throw e;
+            }
+            // The batch keeps failing, most likely on one bad row: write the events one at a time so the rest
+            // get through and the writer moves on
+            failedBatchCounter.increment();
+            log.error("Rental event batch of {} failed {} times, writing events one by one", batch.size(),
+                    pendingBatchAttempts, e);
+            insertIndividually(batch);
+        }
+        pendingBatch = new ArrayList<>();
+        pendingBatchAttempts = 0;
+        return batch.size();
+    }
+
+    private void insert(List<RentalEvent> events) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getType().name());
+            setNullableLong(ps, 2, event.getRentalId());
+            setNullableLong(ps, 3, event.getCarId());
+            setNullableLong(ps, 4, event.getCustomerId());
+            ps.setString(5, event.getPreviousStatus());
+            ps.setString(6, event.getNewStatus());
+            ps.setTimestamp(7, Timestamp.valueOf(event.getOccurredAt()));
+        }));
+    }
+
+    private void insertIndividually(List<RentalEvent> events) {
+        for (RentalEvent event : events) {
+            try {
+                insert(List.of(event));
+                writtenCounter.increment();
+            } catch (RuntimeException e) {
+                deadLetterCounter.increment();
+                deadLetterLog.error("type={} rentalId={} carId={} customerId={} previousStatus={} newStatus={} " +
+                                "occurredAt={}: {}", event.getType(), event.getRentalId(), event.getCarId(),
+                        event.getCustomerId(), event.getPreviousStatus(), event.getNewStatus(),
+                        event.getOccurredAt(), e.getMessage());
+            }
+        }
+    }
+
+    private static void setNullableLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
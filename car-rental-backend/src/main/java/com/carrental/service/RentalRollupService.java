@@ -0,0 +1,238 @@
+package com.carrental.service;
+
+import com.carrental.event.CarChangedEvent;
+import com.carrental.event.RentalEvent;
+import com.carrental.event.RentalEventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps rental_daily_rollup (bookings, cancellations and revenue per pickup day and car) in step with rentals.
+// Each refresh takes the cars with a rental updated since the watermark and recomputes all of their rows from
+// rentals and rentals_archive, so a rental moving to another day, being cancelled or being archived is never
+// counted twice. Hard deletes carry no updated_at and are picked up from the rental events instead.
+@Service
+public class RentalRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(RentalRollupService.class);
+
+    static final String ROLLUP_NAME = "rental_daily";
+
+    private static final int CARS_PER_STATEMENT = 500;
+
+    private static final String RECOMPUTE_SELECT =
+            "SELECT r.start_date, r.car_id, c.make, " +
+            "SUM(CASE WHEN r.status <> 'CANCELLED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.status = 'CANCELLED' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN r.status <> 'CANCELLED' THEN r.total_cost ELSE 0 END) " +
+            "FROM (SELECT car_id, start_date, status, total_cost FROM rentals %1$s " +
+            "UNION ALL SELECT car_id, start_date, status, total_cost FROM rentals_archive %1$s) r " +
+            "JOIN cars c ON c.id = r.car_id " +
+            "GROUP BY r.start_date, r.car_id, c.make";
+
+    private static final String INSERT_ROLLUP = "INSERT INTO rental_daily_rollup " +
+            "(rollup_date, car_id, make, bookings, cancellations, revenue) ";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Cars whose rentals were deleted outright since the last refresh
+    private final Set<Long> pendingCars = ConcurrentHashMap.newKeySet();
+
+    private final Counter carsRecomputed;
+    private final Timer refreshTimer;
+
+    @Value("${rental-rollup.enabled:true}")
+    private boolean enabled;
+
+    // Rentals are re-read this far behind the watermark, so one whose updated_at was set before a later
+    // rental's but that committed after the last refresh is still seen
+    @Value("${rental-rollup.overlap-seconds:60}")
+    private long overlapSeconds;
+
+    public RentalRollupService(NamedParameterJdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.carsRecomputed = meterRegistry.counter("rental.rollup.cars");
+        this.refreshTimer = meterRegistry.timer("rental.rollup.refresh");
+    }
+
+    @Scheduled(fixedDelayString = "${rental-rollup.refresh-interval-ms:60000}",
+               initialDelayString = "${rental-rollup.refresh-interval-ms:60000}")
+    public void refreshOnSchedule() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalEvent(RentalEvent event) {
+        if (event.getType() == RentalEventType.RENTAL_DELETED && event.getCarId() != null) {
+            pendingCars.add(event.getCarId());
+        }
+    }
+
+    // Rows carry the car's make for grouping
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCarChanged(CarChangedEvent event) {
+        if (!event.isDeleted()) {
+            pendingCars.add(event.getCarId());
+        }
+    }
+
+    // Folds rental changes since the watermark into the rollup; builds it from scratch on first use.
+    // Returns the number of cars recomputed.
+    public synchronized int refresh() {
+        Set<Long> pending = new TreeSet<>(pendingCars);
+        pendingCars.removeAll(pending);
+        try {
+            int cars = refreshTimer.record(() -> transactionTemplate.execute(status -> refreshInTransaction(pending)));
+            carsRecomputed.increment(cars);
+            return cars;
+        } catch (RuntimeException e) {
+            pendingCars.addAll(pending);
+            throw e;
+        }
+    }
+
+    // Drops and recomputes every row, e.g. after a bulk load that bypassed updated_at
+    public synchronized int rebuild() {
+        int rows = transactionTemplate.execute(status -> rebuildInTransaction());
+        log.info("Rebuilt rental daily rollup: {} rows", rows);
+        return rows;
+    }
+
+    public LocalDateTime getWatermark() {
+        return readWatermark();
+    }
+
+    // Rows within [from, to], per day, summed over the cars of each group: fleet (one row per day), make or car
+    public List<RollupRow> findDaily(LocalDate from, LocalDate to, String groupBy) {
+        String groupColumn = switch (groupBy) {
+            case "fleet" -> "'fleet'";
+            case "make" -> "make";
+            case "car" -> "car_id";
+            default -> throw new RuntimeException("groupBy must be fleet, make or car");
+        };
+        String sql = "SELECT rollup_date, " + groupColumn + " AS group_key, SUM(bookings) AS bookings, " +
+                "SUM(cancellations) AS cancellations, SUM(revenue) AS revenue FROM rental_daily_rollup " +
+                "WHERE rollup_date BETWEEN :from AND :to GROUP BY rollup_date" +
+                ("fleet".equals(groupBy) ? "" : ", " + groupColumn) + " ORDER BY rollup_date";
+        MapSqlParameterSource params = new MapSqlParameterSource().addValue("from", from).addValue("to", to);
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new RollupRow(
+                rs.getDate("rollup_date").toLocalDate(),
+                rs.getString("group_key"),
+                rs.getLong("bookings"),
+                rs.getLong("cancellations"),
+                rs.getBigDecimal("revenue")));
+    }
+
+    private int refreshInTransaction(Set<Long> pending) {
+        LocalDateTime watermark = readWatermark();
+        if (watermark == null) {
+            return rebuildInTransaction();
+        }
+
+        Set<Long> cars = new TreeSet<>(pending);
+        LocalDateTime highWaterMark = watermark;
+        MapSqlParameterSource params = new MapSqlParameterSource("since",
+                Timestamp.valueOf(watermark.minusSeconds(overlapSeconds)));
+        List<Map<String, Object>> changed = jdbcTemplate.queryForList(
+                "SELECT car_id, MAX(updated_at) AS last_update FROM rentals WHERE updated_at > :since GROUP BY car_id",
+                params);
+        for (Map<String, Object> row : changed) {
+            cars.add(((Number) row.get("car_id")).longValue());
+            LocalDateTime lastUpdate = ((Timestamp) row.get("last_update")).toLocalDateTime();
+            if (lastUpdate.isAfter(highWaterMark)) {
+                highWaterMark = lastUpdate;
+            }
+        }
+
+        List<Long> carIds = new ArrayList<>(cars);
+        for (int i = 0; i < carIds.size(); i += CARS_PER_STATEMENT) {
+            recomputeCars(carIds.subList(i, Math.min(carIds.size(), i + CARS_PER_STATEMENT)));
+        }
+        writeWatermark(highWaterMark);
+        return carIds.size();
+    }
+
+    private int rebuildInTransaction() {
+        MapSqlParameterSource none = new MapSqlParameterSource();
+        LocalDateTime highWaterMark = jdbcTemplate.queryForObject("SELECT MAX(updated_at) FROM rentals", none,
+                LocalDateTime.class);
+        jdbcTemplate.update("DELETE FROM rental_daily_rollup", none);
+        int rows = jdbcTemplate.update(INSERT_ROLLUP + String.format(RECOMPUTE_SELECT, ""), none);
+        writeWatermark(highWaterMark != null ? highWaterMark : LocalDateTime.now());
+        return rows;
+    }
+
+    private void recomputeCars(List<Long> carIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("carIds", carIds);
+        jdbcTemplate.update("DELETE FROM rental_daily_rollup WHERE car_id IN (:carIds)", params);
+        jdbcTemplate.update(INSERT_ROLLUP + String.format(RECOMPUTE_SELECT, "WHERE car_id IN (:carIds)"), params);
+    }
+
+    private LocalDateTime readWatermark() {
+        List<Timestamp> watermark = jdbcTemplate.queryForList(
+                "SELECT high_water_mark FROM rollup_watermarks WHERE rollup_name = :name",
+                new MapSqlParameterSource("name", ROLLUP_NAME), Timestamp.class);
+        return watermark.isEmpty() ? null : watermark.get(0).toLocalDateTime();
+    }
+
+    private void writeWatermark(LocalDateTime highWaterMark) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("name", ROLLUP_NAME)
+                .addValue("mark", Timestamp.valueOf(highWaterMark))
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        int updated = jdbcTemplate.update("UPDATE rollup_watermarks SET high_water_mark = :mark, refreshed_at = :now " +
+                "WHERE rollup_name = :name", params);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO rollup_watermarks (rollup_name, high_water_mark, refreshed_at) " +
+                    "VALUES (:name, :mark, :now)", params);
+        }
+    }
+
+    public static class RollupRow {
+        private final LocalDate date;
+        private final String key;
+        private final long bookings;
+        private final long cancellations;
+        private final BigDecimal revenue;
+
+        RollupRow(LocalDate date, String key, long bookings, long cancellations, BigDecimal revenue) {
+            this.date = date;
+            this.key = key;
+            this.bookings = bookings;
+            this.cancellations = cancellations;
+            this.revenue = revenue;
+        }
+
+        public LocalDate getDate() { return date; }
+        public String getKey() { return key; }
+        public long getBookings() { return bookings; }
+        public long getCancellations() { return cancellations; }
+        public BigDecimal getRevenue() { return revenue; }
+    }
+}
@@ -1,61 +1,84 @@
 package com.carrental.service;
 
+import com.carrental.event.RentalEvent;
+import com.carrental.event.RentalEventType;
 import com.carrental.model.Car;
 import com.carrental.model.CarStatus;
 import com.carrental.model.Customer;
 import com.carrental.model.Rental;
 import com.carrental.model.RentalStatus;
+import com.carrental.model.SyncEntityType;
+import com.carrental.repository.ArchivedRentalRepository;
 import com.carrental.repository.RentalRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
 public class RentalService {
 
+    // rentals.customer_id foreign key, named by V1__baseline_schema.sql
+    private static final String CUSTOMER_FOREIGN_KEY = "FKcxn0lr4sjtxi7u4nxshbaj83u";
+
     @Autowired
     private RentalRepository rentalRepository;
 
+    @Autowired
+    private ArchivedRentalRepository archivedRentalRepository;
+
     @Autowired
     private CarService carService;
 
     @Autowired
-    private CustomerService customerService;
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private ChangeSyncService changeSyncService;
 
+    @Transactional(readOnly = true)
     public List<Rental> getAllRentals() {
         return rentalRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Rental> getRentalById(Long id) {
         return rentalRepository.findById(id);
     }
 
     @Transactional
     public Rental createRental(Rental rental) {
-        // Validate customer exists
-        if (!customerService.customerExists(rental.getCustomer().getId())) {
-            throw new RuntimeException("Customer not found with id: " + rental.getCustomer().getId());
+        if (rental.getCustomer() == null || rental.getCustomer().getId() == null) {
+            throw new RuntimeException("Customer is required");
         }
 
-        // Validate car exists and is available
-        Car car = carService.getCarById(rental.getCar().getId())
+        // The only read of the car, locked: a concurrent booking of the same car waits here,
+        // so the availability and conflict checks below cannot race with another insert
+        Car car = carService.getCarForUpdate(rental.getCar().getId())
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + rental.getCar().getId()));
 
-        if (car.getStatus() != CarStatus.AVAILABLE) {
+        if (!CarService.isBookable(car)) {
             throw new RuntimeException("Car is not available for rental");
         }
 
-        // Check for conflicting rentals
-        List<Rental> conflictingRentals = rentalRepository.findConflictingRentals(
-                rental.getCar().getId(), rental.getStartDate(), rental.getEndDate());
-        
-        if (!conflictingRentals.isEmpty()) {
+        if (rentalRepository.existsConflictingRental(car.getId(), rental.getStartDate(), rental.getEndDate())) {
             throw new RuntimeException("Car is already rented for the selected dates");
         }
 
@@ -63,17 +86,38 @@ public class RentalService {
         long days = ChronoUnit.DAYS.between(rental.getStartDate(), rental.getEndDate()) + 1;
         BigDecimal totalCost = car.getDailyRate().multiply(BigDecimal.valueOf(days));
         rental.setTotalCost(totalCost);
+        rental.setCar(car);
 
-        // Set car status to rented
-        carService.updateCarStatus(car.getId(), CarStatus.RENTED);
+        // Picked up at the car's branch unless the booking names one
+        if (rental.getBranchId() == null) {
+            rental.setBranchId(car.getBranchId());
+        }
 
-        // Save rental
-        return rentalRepository.save(rental);
+        // Set car status to rented; the UPDATE is flushed together with the rental insert
+        carService.changeStatus(car, CarStatus.RENTED);
+
+        // The customer is not read: the rentals.customer_id foreign key rejects an unknown id on insert
+        Rental savedRental;
+        try {
+            savedRental = rentalRepository.saveAndFlush(rental);
+        } catch (DataIntegrityViolationException e) {
+            if (violates(e, CUSTOMER_FOREIGN_KEY)) {
+                throw new RuntimeException("Customer not found with id: " + rental.getCustomer().getId());
+            }
+            throw e;
+        }
+        notificationOutboxService.enqueueRentalCreated(savedRental, car);
+        eventPublisher.publishEvent(RentalEvent.of(RentalEventType.RENTAL_CREATED, savedRental, null));
+        return savedRental;
     }
 
+    @Transactional
     public Rental updateRental(Long id, Rental rentalDetails) {
         return rentalRepository.findById(id)
                 .map(rental -> {
+                    RentalStatus previousStatus = rental.getStatus();
+                    boolean datesChanged = !rental.getStartDate().equals(rentalDetails.getStartDate())
+                            || !rental.getEndDate().equals(rentalDetails.getEndDate());
                     rental.setStartDate(rentalDetails.getStartDate());
                     rental.setEndDate(rentalDetails.getEndDate());
                     rental.setActualReturnDate(rentalDetails.getActualReturnDate());
@@ -85,7 +129,14 @@ public class RentalService {
                     BigDecimal totalCost = rental.getCar().getDailyRate().multiply(BigDecimal.valueOf(days));
                     rental.setTotalCost(totalCost);
                     
-                    return rentalRepository.save(rental);
+                    Rental savedRental = rentalRepository.save(rental);
+                    if (savedRental.getStatus() == RentalStatus.CANCELLED || savedRental.getStatus() == RentalStatus.COMPLETED) {
+                        notificationOutboxService.cancelReturnReminder(savedRental.getId());
+                    } else if (datesChanged) {
+                        notificationOutboxService.rescheduleReturnReminder(savedRental, savedRental.getCar());
+                    }
+                    eventPublisher.publishEvent(RentalEvent.of(RentalEventType.RENTAL_UPDATED, savedRental, previousStatus));
+                    return savedRental;
                 })
                 .orElseThrow(() -> new RuntimeException("Rental not found with id: " + id));
     }
@@ -101,43 +152,63 @@ public class RentalService {
         }
         
         rentalRepository.deleteById(id);
+        notificationOutboxService.cancelReturnReminder(id);
+        changeSyncService.recordDeletions(SyncEntityType.RENTAL, List.of(id));
+        eventPublisher.publishEvent(RentalEvent.of(RentalEventType.RENTAL_DELETED, rental, rental.getStatus()));
     }
 
     @Transactional
     public Rental completeRental(Long id, LocalDate actualReturnDate) {
         return rentalRepository.findById(id)
                 .map(rental -> {
+                    RentalStatus previousStatus = rental.getStatus();
                     rental.setActualReturnDate(actualReturnDate);
                     rental.setStatus(RentalStatus.COMPLETED);
                     
                     // Make car available again
                     carService.updateCarStatus(rental.getCar().getId(), CarStatus.AVAILABLE);
                     
-                    return rentalRepository.save(rental);
+                    Rental savedRental = rentalRepository.save(rental);
+                    notificationOutboxService.enqueueRentalCompleted(savedRental);
+                    eventPublisher.publishEvent(RentalEvent.of(RentalEventType.RENTAL_COMPLETED, savedRental, previousStatus));
+                    return savedRental;
                 })
                 .orElseThrow(() -> new RuntimeException("Rental not found with id: " + id));
     }
 
+    @Transactional(readOnly = true)
     public List<Rental> getRentalsByCustomer(Long customerId) {
-        return rentalRepository.findByCustomerId(customerId);
+        // Customer history spans the live table and the archive of long-closed rentals
+        List<Rental> rentals = new ArrayList<>(rentalRepository.findByCustomerId(customerId));
+        archivedRentalRepository.findByCustomerId(customerId)
+                .forEach(archived -> rentals.add(archived.toRental()));
+        rentals.sort(Comparator.comparing(Rental::getId));
+        return rentals;
     }
 
+    @Transactional(readOnly = true)
     public List<Rental> getRentalsByCar(Long carId) {
         return rentalRepository.findByCarId(carId);
     }
 
+    @Transactional(readOnly = true)
     public List<Rental> getRentalsByStatus(RentalStatus status) {
         return rentalRepository.findByStatus(status);
     }
 
+    // Not @Transactional: the coalescer opens a transaction for the caller that runs the query
     public List<Rental> getOverdueRentals() {
-        return rentalRepository.findOverdueRentals(LocalDate.now());
+        LocalDate today = LocalDate.now();
+        return requestCoalescer.execute(List.of("rentals:overdue", today),
+                () -> DetachedCopies.rentals(rentalRepository.findOverdueRentals(today)));
     }
 
+    @Transactional(readOnly = true)
     public List<Rental> getRentalsByDateRange(LocalDate startDate, LocalDate endDate) {
         return rentalRepository.findByStartDateBetween(startDate, endDate);
     }
 
+    @Transactional(readOnly = true)
     public BigDecimal calculateRentalCost(Long carId, LocalDate startDate, LocalDate endDate) {
         Car car = carService.getCarById(carId)
                 .orElseThrow(() -> new RuntimeException("Car not found with id: " + carId));
@@ -145,4 +216,14 @@ public class RentalService {
         long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
         return car.getDailyRate().multiply(BigDecimal.valueOf(days));
     }
-}
\ No newline at end of file
+
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toUpperCase(Locale.ROOT).contains(constraint.toUpperCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,313 @@
+package com.carrental.service;
+
+import com.carrental.dto.ReportJob;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs long reports off the request threads on a small bounded pool. A result is stored under a hash of the report
+// type and its fully resolved parameters, so any later job with the same parameters is answered from the store,
+// and a job submitted while an identical one is still queued or running is handed that job.
+@Service
+public class ReportJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    @Autowired
+    private ReportService reportService;
+
+    private final ThreadPoolExecutor executor;
+    private final long resultTtlMillis;
+    private final long jobTtlMillis;
+    private final int maxResults;
+
+    private final ConcurrentHashMap<String, Job> jobs = new ConcurrentHashMap<>();
+    // Queued or running job per result key
+    private final ConcurrentHashMap<String, Job> inFlight = new ConcurrentHashMap<>();
+    // Insertion order, so the eldest results are evicted first once max-results is reached
+    private final LinkedHashMap<String, StoredResult> results = new LinkedHashMap<>();
+
+    private final Counter submittedCounter;
+    private final Counter cacheHitCounter;
+    private final Counter rejectedCounter;
+    private final Timer runTimer;
+
+    public ReportJobService(MeterRegistry meterRegistry,
+                            @Value("${report-jobs.workers:2}") int workers,
+                            @Value("${report-jobs.queue-capacity:20}") int queueCapacity,
+                            @Value("${report-jobs.result-ttl-seconds:3600}") long resultTtlSeconds,
+                            @Value("${report-jobs.job-ttl-seconds:3600}") long jobTtlSeconds,
+                            @Value("${report-jobs.max-results:200}") int maxResults) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.resultTtlMillis = TimeUnit.SECONDS.toMillis(resultTtlSeconds);
+        this.jobTtlMillis = TimeUnit.SECONDS.toMillis(jobTtlSeconds);
+        this.maxResults = maxResults;
+
+        this.submittedCounter = meterRegistry.counter("report.jobs.submitted");
+        this.cacheHitCounter = meterRegistry.counter("report.jobs.cache.hits");
+        this.rejectedCounter = meterRegistry.counter("report.jobs.rejected");
+        this.runTimer = meterRegistry.timer("report.jobs.run");
+        Gauge.builder("report.jobs.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("report.jobs.results", this, ReportJobService::resultCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Invalid types or parameters throw; empty when the queue is full
+    public Optional<ReportJob> submit(String type, Map<String, String> parameters) {
+        SortedMap<String, String> resolved = resolve(type, parameters != null ? parameters : Map.of());
+        String resultKey = resultKey(type, resolved);
+        submittedCounter.increment();
+
+        StoredResult stored = storedResult(resultKey);
+        if (stored != null) {
+            cacheHitCounter.increment();
+            Job job = new Job(type, resolved, resultKey);
+            job.startedAt = job.submittedAt;
+            job.finish(stored.result, null, true);
+            jobs.put(job.id, job);
+            return Optional.of(job.toDto());
+        }
+
+        Job job = new Job(type, resolved, resultKey);
+        Job existing = inFlight.putIfAbsent(resultKey, job);
+        if (existing != null) {
+            return Optional.of(existing.toDto());
+        }
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            inFlight.remove(resultKey, job);
+            rejectedCounter.increment();
+            return Optional.empty();
+        }
+        return Optional.of(job.toDto());
+    }
+
+    public Optional<ReportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(Job::toDto);
+    }
+
+    @Scheduled(fixedDelayString = "${report-jobs.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        jobs.values().removeIf(job -> job.completedAtMillis > 0 && now - job.completedAtMillis >= jobTtlMillis);
+        synchronized (results) {
+            results.values().removeIf(result -> result.isExpired(now));
+        }
+    }
+
+    int resultCount() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    private void run(Job job) {
+        job.status = ReportJob.Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        try {
+            Object result = runTimer.recordCallable(() -> execute(job.type, job.parameters));
+            store(job.resultKey, result);
+            job.finish(result, null, false);
+        } catch (Exception e) {
+            log.warn("Report job {} ({}) failed: {}", job.id, job.type, e.getMessage());
+            job.finish(null, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName(), false);
+        } finally {
+            inFlight.remove(job.resultKey, job);
+        }
+    }
+
+    private Object execute(String type, Map<String, String> parameters) {
+        return switch (type) {
+            case "utilization" -> reportService.getUtilization(LocalDate.parse(parameters.get("from")),
+                    LocalDate.parse(parameters.get("to")), parameters.get("groupBy"));
+            case "revenue" -> reportService.getRevenue(LocalDate.parse(parameters.get("from")),
+                    LocalDate.parse(parameters.get("to")), parameters.get("groupBy"), parameters.get("interval"));
+            case "customer-value" -> reportService.getCustomerLifetimeValue(Integer.parseInt(parameters.get("limit")));
+            default -> throw new RuntimeException("Unknown report type: " + type);
+        };
+    }
+
+    // Fills in defaults and resolves relative ones (date ranges ending today) to the values they stand for today,
+    // so the result key names exactly the data the report covers
+    static SortedMap<String, String> resolve(String type, Map<String, String> parameters) {
+        SortedMap<String, String> resolved = new TreeMap<>();
+        switch (type) {
+            case "utilization" -> {
+                requireKnown(parameters, Set.of("from", "to", "groupBy"));
+                resolveRange(parameters, resolved);
+                resolved.put("groupBy", oneOf(parameters, "groupBy", "make", Set.of("make", "model")));
+            }
+            case "revenue" -> {
+                requireKnown(parameters, Set.of("from", "to", "groupBy", "interval"));
+                resolveRange(parameters, resolved);
+                resolved.put("groupBy", oneOf(parameters, "groupBy", "fleet", Set.of("fleet", "make", "car")));
+                resolved.put("interval", oneOf(parameters, "interval", "day", Set.of("day", "month")));
+            }
+            case "customer-value" -> {
+                requireKnown(parameters, Set.of("limit"));
+                int limit = Integer.parseInt(parameters.getOrDefault("limit", "100"));
+                if (limit < 1 || limit > 1000) {
+                    throw new RuntimeException("limit must be between 1 and 1000");
+                }
+                resolved.put("limit", String.valueOf(limit));
+            }
+            default -> throw new RuntimeException("Unknown report type: " + type);
+        }
+        return resolved;
+    }
+
+    static String resultKey(String type, SortedMap<String, String> resolved) {
+        StringBuilder canonical = new StringBuilder(type);
+        for (Map.Entry<String, String> parameter : resolved.entrySet()) {
+            canonical.append('\n').append(parameter.getKey()).append('=').append(parameter.getValue());
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void requireKnown(Map<String, String> parameters, Set<String> known) {
+        for (String name : parameters.keySet()) {
+            if (!known.contains(name)) {
+                throw new RuntimeException("Unknown parameter: " + name);
+            }
+        }
+    }
+
+    private static void resolveRange(Map<String, String> parameters, SortedMap<String, String> resolved) {
+        LocalDate to = parameters.get("to") != null ? LocalDate.parse(parameters.get("to")) : LocalDate.now();
+        LocalDate from = parameters.get("from") != null ? LocalDate.parse(parameters.get("from")) : to.minusDays(29);
+        if (from.isAfter(to)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        resolved.put("from", from.toString());
+        resolved.put("to", to.toString());
+    }
+
+    private static String oneOf(Map<String, String> parameters, String name, String defaultValue, Set<String> allowed) {
+        String value = parameters.getOrDefault(name, defaultValue);
+        if (!allowed.contains(value)) {
+            throw new RuntimeException(name + " must be one of " + allowed);
+        }
+        return value;
+    }
+
+    private StoredResult storedResult(String resultKey) {
+        synchronized (results) {
+            StoredResult stored = results.get(resultKey);
+            if (stored != null && stored.isExpired(System.currentTimeMillis())) {
+                results.remove(resultKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private void store(String resultKey, Object result) {
+        synchronized (results) {
+            results.remove(resultKey);
+            results.put(resultKey, new StoredResult(result, System.currentTimeMillis() + resultTtlMillis));
+            Iterator<StoredResult> eldest = results.values().iterator();
+            while (results.size() > maxResults && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private static class StoredResult {
+        final Object result;
+        final long expiresAt;
+
+        StoredResult(Object result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    private static class Job {
+        final String id = UUID.randomUUID().toString();
+        final String type;
+        final Map<String, String> parameters;
+        final String resultKey;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        volatile ReportJob.Status status = ReportJob.Status.QUEUED;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime completedAt;
+        volatile long completedAtMillis;
+        volatile boolean cached;
+        volatile String error;
+        volatile Object result;
+
+        Job(String type, SortedMap<String, String> parameters, String resultKey) {
+            this.type = type;
+            this.parameters = Map.copyOf(parameters);
+            this.resultKey = resultKey;
+        }
+
+        void finish(Object result, String error, boolean cached) {
+            this.result = result;
+            this.error = error;
+            this.cached = cached;
+            this.completedAt = LocalDateTime.now();
+            this.completedAtMillis = System.currentTimeMillis();
+            // Written last: a reader that sees the final status also sees the result
+            this.status = error == null ? ReportJob.Status.SUCCEEDED : ReportJob.Status.FAILED;
+        }
+
+        ReportJob toDto() {
+            ReportJob.Status current = status;
+            return new ReportJob(id, type, new TreeMap<>(parameters), resultKey, current, cached, submittedAt,
+                    startedAt, completedAt, error, result);
+        }
+    }
+}
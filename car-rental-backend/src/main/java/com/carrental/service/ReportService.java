@@ -0,0 +1,182 @@
+package com.carrental.service;
+
+import com.carrental.dto.CustomerValueReport;
+import com.carrental.dto.RevenueReport;
+import com.carrental.dto.UtilizationReport;
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.repository.ArchivedRentalRepository;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.CustomerRentalTotals;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.RentalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ReportService {
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private OccupancyIndex occupancyIndex;
+
+    @Autowired
+    private RentalRollupService rentalRollupService;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    // Utilization = booked car-days / car-days in the range, from the occupancy bitsets rather than the rentals table
+    @Transactional(readOnly = true)
+    public UtilizationReport getUtilization(LocalDate from, LocalDate to, String groupBy) {
+        Function<Car, String> groupKey = groupKey(groupBy);
+        LocalDate today = LocalDate.now();
+        LocalDate start = from != null ? from : today.minusDays(29);
+        LocalDate end = to != null ? to : today;
+        if (start.isAfter(end)) {
+            throw new RuntimeException("from must not be after to");
+        }
+
+        // Clamp to the range the index covers
+        if (start.isBefore(occupancyIndex.getHorizonStart())) {
+            start = occupancyIndex.getHorizonStart();
+        }
+        if (end.isAfter(occupancyIndex.getHorizonEnd())) {
+            end = occupancyIndex.getHorizonEnd();
+        }
+        if (start.isAfter(end)) {
+            throw new RuntimeException("Range is outside the occupancy horizon");
+        }
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        LocalDate rangeStart = start;
+        LocalDate rangeEnd = end;
+
+        // Each car is one popcount over its words for the range, spread across the common pool
+        Map<String, long[]> totals = carRepository.findAll().parallelStream()
+                .collect(Collectors.groupingByConcurrent(groupKey, Collectors.teeing(
+                        Collectors.counting(),
+                        Collectors.summingLong(car -> occupancyIndex.occupiedDays(car.getId(), rangeStart, rangeEnd)),
+                        (cars, occupied) -> new long[]{cars, occupied})));
+
+        List<UtilizationReport.Group> groups = new ArrayList<>();
+        long fleetCars = 0;
+        long fleetOccupied = 0;
+        for (Map.Entry<String, long[]> entry : new TreeMap<>(totals).entrySet()) {
+            long cars = entry.getValue()[0];
+            long occupied = entry.getValue()[1];
+            groups.add(new UtilizationReport.Group(entry.getKey(), cars, occupied, cars * days));
+            fleetCars += cars;
+            fleetOccupied += occupied;
+        }
+        UtilizationReport.Group fleet = new UtilizationReport.Group("fleet", fleetCars, fleetOccupied, fleetCars * days);
+        return new UtilizationReport(start, end, groupBy, fleet, groups);
+    }
+
+    // Bookings, cancellations and revenue by pickup day from the daily rollup, as of its last refresh;
+    // interval=month sums the days of each calendar month
+    @Transactional(readOnly = true)
+    public RevenueReport getRevenue(LocalDate from, LocalDate to, String groupBy, String interval) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            throw new RuntimeException("from must not be after to");
+        }
+        Function<LocalDate, LocalDate> period = switch (interval) {
+            case "day" -> Function.identity();
+            case "month" -> date -> date.withDayOfMonth(1);
+            default -> throw new RuntimeException("interval must be day or month");
+        };
+
+        Map<String, RevenueReport.Bucket> buckets = new LinkedHashMap<>();
+        RevenueReport.Bucket totals = new RevenueReport.Bucket(start, "total", 0, 0, BigDecimal.ZERO);
+        for (RentalRollupService.RollupRow row : rentalRollupService.findDaily(start, end, groupBy)) {
+            LocalDate bucketStart = period.apply(row.getDate());
+            RevenueReport.Bucket bucket = buckets.computeIfAbsent(bucketStart + "|" + row.getKey(),
+                    key -> new RevenueReport.Bucket(bucketStart, row.getKey(), 0, 0, BigDecimal.ZERO));
+            add(bucket, row);
+            add(totals, row);
+        }
+        return new RevenueReport(start, end, groupBy, interval, rentalRollupService.getWatermark(), totals,
+                new ArrayList<>(buckets.values()));
+    }
+
+    // Every customer's rentals and booked revenue over the live table and the archive, with the top customers by
+    // revenue named; reads both rental tables in full, so it runs as a report job
+    @Transactional(readOnly = true)
+    public CustomerValueReport getCustomerLifetimeValue(int limit) {
+        if (limit < 1) {
+            throw new RuntimeException("limit must be positive");
+        }
+        Map<Long, CustomerValueReport.Entry> entries = new HashMap<>();
+        List<CustomerRentalTotals> totals = new ArrayList<>(rentalRepository.summarizeByCustomer());
+        totals.addAll(archivedRentalRepository.summarizeByCustomer());
+        for (CustomerRentalTotals customer : totals) {
+            BigDecimal revenue = customer.getRevenue() != null ? customer.getRevenue() : BigDecimal.ZERO;
+            entries.merge(customer.getCustomerId(),
+                    new CustomerValueReport.Entry(customer.getCustomerId(), customer.getRentals(), revenue,
+                            customer.getFirstRental(), customer.getLastRental()),
+                    (a, b) -> new CustomerValueReport.Entry(a.getCustomerId(), a.getRentals() + b.getRentals(),
+                            a.getRevenue().add(b.getRevenue()),
+                            a.getFirstRental().isBefore(b.getFirstRental()) ? a.getFirstRental() : b.getFirstRental(),
+                            a.getLastRental().isAfter(b.getLastRental()) ? a.getLastRental() : b.getLastRental()));
+        }
+
+        List<CustomerValueReport.Entry> top = entries.values().stream()
+                .sorted(Comparator.comparing(CustomerValueReport.Entry::getRevenue).reversed()
+                        .thenComparing(CustomerValueReport.Entry::getCustomerId))
+                .limit(limit)
+                .toList();
+        Map<Long, Customer> customers = customerRepository.findAllById(
+                        top.stream().map(CustomerValueReport.Entry::getCustomerId).toList()).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        for (CustomerValueReport.Entry entry : top) {
+            Customer customer = customers.get(entry.getCustomerId());
+            if (customer != null) {
+                entry.setName(customer.getFirstName() + " " + customer.getLastName());
+                entry.setEmail(customer.getEmail());
+            }
+        }
+        BigDecimal revenue = entries.values().stream()
+                .map(CustomerValueReport.Entry::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new CustomerValueReport(entries.size(), revenue, top);
+    }
+
+    private static void add(RevenueReport.Bucket bucket, RentalRollupService.RollupRow row) {
+        bucket.setBookings(bucket.getBookings() + row.getBookings());
+        bucket.setCancellations(bucket.getCancellations() + row.getCancellations());
+        bucket.setRevenue(bucket.getRevenue().add(row.getRevenue()));
+    }
+
+    private static Function<Car, String> groupKey(String groupBy) {
+        if ("make".equals(groupBy)) {
+            return Car::getMake;
+        }
+        if ("model".equals(groupBy)) {
+            return car -> car.getMake() + " " + car.getModel();
+        }
+        throw new RuntimeException("groupBy must be make or model");
+    }
+}
@@ -0,0 +1,84 @@
+package com.carrental.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Single-flight for hot reads: concurrent calls with the same key share one in-flight execution and its result.
+// Nothing is cached once the execution finishes, so callers never see data older than a query already running.
+// Followers get the leader's objects, loaded in the leader's persistence context: only coalesce results that are
+// fully loaded, such as Car lists. Rentals and customers go through DetachedCopies first; as loaded, their lazy
+// associations would be initialized through another request's session, or fail once it is closed.
+// Call it outside a transaction: the leader's load opens its own, so waiting followers hold no pooled connection.
+@Component
+public class RequestCoalescer implements TransactionExecutionListener {
+
+    private final ConcurrentHashMap<List<?>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Counter executedCounter;
+    private final Counter sharedCounter;
+
+    // Lazy: the transaction manager is built with this bean as one of its execution listeners
+    public RequestCoalescer(@Lazy PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.executedCounter = meterRegistry.counter("coalescer.executed");
+        this.sharedCounter = meterRegistry.counter("coalescer.shared");
+    }
+
+    // The key holds the query name and each argument as separate elements, so no two argument lists collide
+    @SuppressWarnings("unchecked")
+    public <T> T execute(List<?> key, Supplier<T> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            sharedCounter.increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        executedCounter.increment();
+        try {
+            T result = readOnlyTransaction.execute(status -> loader.get());
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // A flight that started before a write committed may miss it, so nobody joins it afterwards;
+    // the flight itself still completes for the callers already waiting on it
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            inFlight.clear();
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,9 @@
+-- Archived rentals keep their car and customer, like live ones: deleting a car that only archived rentals still
+-- reference is refused instead of leaving history that points at nothing. Rows already orphaned by such a
+-- delete cannot be rendered (GET /rentals/customer/{id} fails on them) and are dropped first.
+delete from rentals_archive where car_id not in (select id from cars);
+delete from rentals_archive where customer_id not in (select id from customers);
+
+-- The key's indexes already exist: idx_rentals_archive_car and idx_rentals_archive_customer
+alter table rentals_archive add constraint fk_rentals_archive_car foreign key (car_id) references cars (id);
+alter table rentals_archive add constraint fk_rentals_archive_customer foreign key (customer_id) references customers (id);
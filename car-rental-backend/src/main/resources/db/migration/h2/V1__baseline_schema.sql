@@ -0,0 +1,55 @@
+-- Schema as previously generated by Hibernate for H2.
+
+create table cars (
+    id bigint generated by default as identity,
+    make varchar(255) not null,
+    model varchar(255) not null,
+    year integer not null,
+    license_plate varchar(255) not null unique,
+    daily_rate numeric(10,2) not null,
+    status varchar(255) not null check (status in ('AVAILABLE','RENTED','MAINTENANCE','OUT_OF_SERVICE')),
+    fuel_type varchar(255),
+    transmission_type varchar(255),
+    seating_capacity integer,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table customers (
+    id bigint generated by default as identity,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null unique,
+    phone_number varchar(255) not null,
+    driver_license varchar(255) not null unique,
+    address varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table rentals (
+    id bigint generated by default as identity,
+    customer_id bigint not null,
+    car_id bigint not null,
+    start_date date not null,
+    end_date date not null,
+    actual_return_date date,
+    total_cost numeric(10,2) not null,
+    status varchar(255) not null check (status in ('ACTIVE','COMPLETED','CANCELLED','OVERDUE')),
+    notes varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+alter table rentals
+    add constraint FKb3vpbdnk78p1epicm7a7urvfh
+    foreign key (car_id)
+    references cars;
+
+alter table rentals
+    add constraint FKcxn0lr4sjtxi7u4nxshbaj83u
+    foreign key (customer_id)
+    references customers;
@@ -0,0 +1,31 @@
+-- Indexes backing the hot repository queries.
+
+-- RentalRepository.findConflictingRentals: car_id = ? and status = 'ACTIVE' and date overlap
+create index idx_rentals_car_status_dates on rentals (car_id, status, start_date, end_date);
+
+-- RentalRepository.findOverdueRentals: status = 'ACTIVE' and end_date < ?
+create index idx_rentals_status_end_date on rentals (status, end_date);
+
+-- RentalRepository.findByCustomerIdAndStatusIn
+create index idx_rentals_customer_status on rentals (customer_id, status);
+
+-- RentalRepository.findByStartDateBetween
+create index idx_rentals_start_date on rentals (start_date);
+
+-- CarRepository.findByStatus and findAvailableCarsWithinBudget (status = ? and daily_rate <= ?)
+create index idx_cars_status_daily_rate on cars (status, daily_rate);
+
+-- CarRepository.findByDailyRateBetween
+create index idx_cars_daily_rate on cars (daily_rate);
+
+-- CarRepository.findByMakeAndModel
+create index idx_cars_make_model on cars (make, model);
+
+-- CarRepository.findByYear
+create index idx_cars_year on cars (year);
+
+-- CustomerRepository.findByFirstNameAndLastName
+create index idx_customers_name on customers (first_name, last_name);
+
+-- CustomerRepository.findByPhoneNumber
+create index idx_customers_phone_number on customers (phone_number);
@@ -0,0 +1,24 @@
+-- Cold storage for rentals closed (COMPLETED or CANCELLED) longer than the retention period.
+-- Rows keep their original ids, so they never collide with live rentals.
+create table rentals_archive (
+    id bigint not null,
+    customer_id bigint not null,
+    car_id bigint not null,
+    start_date date not null,
+    end_date date not null,
+    actual_return_date date,
+    total_cost numeric(10,2) not null,
+    status varchar(255) not null check (status in ('ACTIVE','COMPLETED','CANCELLED','OVERDUE')),
+    notes varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    archived_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_rentals_archive_customer on rentals_archive (customer_id);
+
+create index idx_rentals_archive_car on rentals_archive (car_id);
+
+-- RentalRepository.findArchivableRentalIds: status in (...) and updated_at < ?
+create index idx_rentals_status_updated_at on rentals (status, updated_at);
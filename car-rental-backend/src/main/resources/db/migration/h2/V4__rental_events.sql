@@ -0,0 +1,16 @@
+-- Append-only audit trail of rental and car status transitions, written in batches by RentalEventLog.
+create table rental_events (
+    id bigint generated by default as identity,
+    event_type varchar(40) not null,
+    rental_id bigint,
+    car_id bigint,
+    customer_id bigint,
+    previous_status varchar(30),
+    new_status varchar(30),
+    occurred_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_rental_events_rental on rental_events (rental_id);
+
+create index idx_rental_events_car on rental_events (car_id);
@@ -0,0 +1,21 @@
+-- Transactional outbox: rows are written in the same transaction as the rental change
+-- and delivered later by NotificationDispatcher.
+create table notification_outbox (
+    id bigint generated by default as identity,
+    notification_type varchar(255) not null check (notification_type in ('RENTAL_CONFIRMATION','RETURN_REMINDER','RETURN_CONFIRMATION')),
+    rental_id bigint not null,
+    customer_id bigint not null,
+    payload varchar(2000),
+    status varchar(255) not null check (status in ('PENDING','SENT','FAILED','CANCELLED')),
+    attempts integer not null,
+    next_attempt_at timestamp(6) not null,
+    created_at timestamp(6),
+    sent_at timestamp(6),
+    last_error varchar(500),
+    primary key (id)
+);
+
+-- OutboxMessageRepository.findDueForDispatch: status = 'PENDING' and next_attempt_at <= ?
+create index idx_outbox_status_next_attempt on notification_outbox (status, next_attempt_at);
+
+create index idx_outbox_rental on notification_outbox (rental_id);
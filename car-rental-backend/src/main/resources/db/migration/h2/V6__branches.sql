@@ -0,0 +1,33 @@
+-- Branches own a partition of the fleet; cars and rentals without a branch stay valid.
+create table branches (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    code varchar(255) not null unique,
+    address varchar(255),
+    city varchar(255),
+    state varchar(255),
+    zip_code varchar(255),
+    phone varchar(255),
+    email varchar(255),
+    manager_name varchar(255),
+    opening_hours varchar(255),
+    status varchar(255) not null check (status in ('ACTIVE','MAINTENANCE','INACTIVE','CLOSED')),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+alter table cars add column branch_id bigint;
+
+-- CarRepository.findByBranchId; created before the foreign key so it also serves as the key's index
+create index idx_cars_branch_status on cars (branch_id, status);
+alter table cars add constraint fk_cars_branch foreign key (branch_id) references branches (id);
+
+-- Pickup branch, copied from the car when the rental is booked
+alter table rentals add column branch_id bigint;
+
+-- RentalRepository.countByBranchIdGroupByStatus
+create index idx_rentals_branch_status on rentals (branch_id, status);
+alter table rentals add constraint fk_rentals_branch foreign key (branch_id) references branches (id);
+
+alter table rentals_archive add column branch_id bigint;
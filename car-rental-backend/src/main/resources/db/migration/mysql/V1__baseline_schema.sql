@@ -0,0 +1,65 @@
+-- Schema as previously generated by Hibernate (ddl-auto: update).
+-- Existing databases are baselined at this version and skip this script.
+
+create table cars (
+    id bigint not null auto_increment,
+    make varchar(255) not null,
+    model varchar(255) not null,
+    year integer not null,
+    license_plate varchar(255) not null,
+    daily_rate decimal(10,2) not null,
+    status enum ('AVAILABLE','RENTED','MAINTENANCE','OUT_OF_SERVICE') not null,
+    fuel_type varchar(255),
+    transmission_type varchar(255),
+    seating_capacity integer,
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table customers (
+    id bigint not null auto_increment,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    phone_number varchar(255) not null,
+    driver_license varchar(255) not null,
+    address varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+create table rentals (
+    id bigint not null auto_increment,
+    customer_id bigint not null,
+    car_id bigint not null,
+    start_date date not null,
+    end_date date not null,
+    actual_return_date date,
+    total_cost decimal(10,2) not null,
+    status enum ('ACTIVE','COMPLETED','CANCELLED','OVERDUE') not null,
+    notes varchar(255),
+    created_at datetime(6),
+    updated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+alter table cars
+    add constraint UK_dbc9idlyetvssufb2vxicvb87 unique (license_plate);
+
+alter table customers
+    add constraint UK_m51dgvlynsdskqyn8e3ir3011 unique (driver_license);
+
+alter table customers
+    add constraint UK_rfbvkrffamfql7cjmen8v976v unique (email);
+
+alter table rentals
+    add constraint FKb3vpbdnk78p1epicm7a7urvfh
+    foreign key (car_id)
+    references cars (id);
+
+alter table rentals
+    add constraint FKcxn0lr4sjtxi7u4nxshbaj83u
+    foreign key (customer_id)
+    references customers (id);
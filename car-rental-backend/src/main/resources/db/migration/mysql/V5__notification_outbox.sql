@@ -0,0 +1,21 @@
+-- Transactional outbox: rows are written in the same transaction as the rental change
+-- and delivered later by NotificationDispatcher.
+create table notification_outbox (
+    id bigint not null auto_increment,
+    notification_type enum ('RENTAL_CONFIRMATION','RETURN_REMINDER','RETURN_CONFIRMATION') not null,
+    rental_id bigint not null,
+    customer_id bigint not null,
+    payload varchar(2000),
+    status enum ('PENDING','SENT','FAILED','CANCELLED') not null,
+    attempts integer not null,
+    next_attempt_at datetime(6) not null,
+    created_at datetime(6),
+    sent_at datetime(6),
+    last_error varchar(500),
+    primary key (id)
+) engine=InnoDB;
+
+-- OutboxMessageRepository.findDueForDispatch: status = 'PENDING' and next_attempt_at <= ?
+create index idx_outbox_status_next_attempt on notification_outbox (status, next_attempt_at);
+
+create index idx_outbox_rental on notification_outbox (rental_id);
@@ -0,0 +1,3 @@
+-- Branch coordinates (WGS84 degrees) for GET /branches/nearest; branches without them are not located.
+alter table branches add column latitude double;
+alter table branches add column longitude double;
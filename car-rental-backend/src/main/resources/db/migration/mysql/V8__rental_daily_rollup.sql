@@ -0,0 +1,25 @@
+-- Bookings, cancellations and revenue per pickup day and car, maintained by RentalRollupService from
+-- rentals and rentals_archive. Report endpoints read this instead of aggregating the rentals tables.
+create table rental_daily_rollup (
+    rollup_date date not null,
+    car_id bigint not null,
+    make varchar(255) not null,
+    bookings integer not null,
+    cancellations integer not null,
+    revenue decimal(14,2) not null,
+    primary key (rollup_date, car_id)
+) engine=InnoDB;
+
+-- Per-car recompute deletes by car_id
+create index idx_rental_daily_rollup_car on rental_daily_rollup (car_id);
+
+-- Highest rentals.updated_at already folded into each rollup
+create table rollup_watermarks (
+    rollup_name varchar(64) not null,
+    high_water_mark datetime(6) not null,
+    refreshed_at datetime(6) not null,
+    primary key (rollup_name)
+) engine=InnoDB;
+
+-- RentalRollupService.refresh: updated_at > ?
+create index idx_rentals_updated_at on rentals (updated_at);
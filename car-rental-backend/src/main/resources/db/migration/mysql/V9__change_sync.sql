@@ -0,0 +1,16 @@
+-- Ids of cars, customers and rentals removed from their tables (deleted, or archived for rentals), so
+-- GET /{cars,customers,rentals}/changes can report them to clients syncing from a watermark
+create table sync_tombstones (
+    id bigint not null auto_increment,
+    entity_type varchar(20) not null,
+    entity_id bigint not null,
+    deleted_at datetime(6) not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- ChangeSyncService: entity_type = ? and (deleted_at, id) past the client's watermark; purge by deleted_at
+create index idx_sync_tombstones_type_deleted_at on sync_tombstones (entity_type, deleted_at, id);
+
+-- ChangeSyncService: (updated_at, id) past the client's watermark, in that order
+create index idx_cars_updated_at on cars (updated_at, id);
+create index idx_customers_updated_at on customers (updated_at, id);
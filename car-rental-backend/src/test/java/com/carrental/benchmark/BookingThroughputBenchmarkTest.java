@@ -0,0 +1,174 @@
+package com.carrental.benchmark;
+
+import com.carrental.event.CarStatusChangedEvent;
+import com.carrental.event.RentalEvent;
+import com.carrental.event.RentalEventType;
+import com.carrental.model.Car;
+import com.carrental.model.CarStatus;
+import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.OutboxMessageRepository;
+import com.carrental.repository.RentalRepository;
+import com.carrental.service.NotificationOutboxService;
+import com.carrental.service.RentalService;
+import com.carrental.support.SqlStatementRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Booking throughput of the previous booking sequence (reproduced here) against RentalService.createRental.
+// Not part of the regular build: mvn test -Pbenchmark
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingThroughputBenchmarkTest {
+
+    private static final int WARMUP_BOOKINGS = 200;
+    private static final int MEASURED_BOOKINGS = 1000;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private NotificationOutboxService notificationOutboxService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Customer customer;
+    private final List<Car> cars = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        customer = customerRepository.save(new Customer("Bench", "Mark", "bench@example.com", "555-0199", "DLBENCH"));
+        int needed = 2 * (WARMUP_BOOKINGS + MEASURED_BOOKINGS);
+        List<Car> fleet = new ArrayList<>();
+        for (int i = 0; i < needed; i++) {
+            fleet.add(new Car("Toyota", "Camry", 2023, "BENCH" + i, new BigDecimal("45.00")));
+        }
+        cars.addAll(carRepository.saveAll(fleet));
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxMessageRepository.deleteAll();
+        rentalRepository.deleteAll();
+        carRepository.deleteAll(cars);
+        customerRepository.delete(customer);
+    }
+
+    @Test
+    void bookingThroughput_LegacyVersusLockedPath() {
+        // Given
+        int next = 0;
+        run(cars.subList(next, next += WARMUP_BOOKINGS), this::legacyBooking);
+        run(cars.subList(next, next += WARMUP_BOOKINGS), this::lockedBooking);
+
+        // When
+        Result legacy = run(cars.subList(next, next += MEASURED_BOOKINGS), this::legacyBooking);
+        Result locked = run(cars.subList(next, next += MEASURED_BOOKINGS), this::lockedBooking);
+
+        // Then
+        System.out.printf("Booking throughput over %d bookings:%n", MEASURED_BOOKINGS);
+        System.out.printf("  legacy: %8.1f bookings/s, %.1f statements/booking%n", legacy.perSecond(), legacy.statements());
+        System.out.printf("  locked: %8.1f bookings/s, %.1f statements/booking%n", locked.perSecond(), locked.statements());
+        assertTrue(locked.statements() < legacy.statements());
+    }
+
+    private Result run(List<Car> batch, Consumer<Car> booking) {
+        SqlStatementRecorder.clear();
+        long started = System.nanoTime();
+        for (Car car : batch) {
+            booking.accept(car);
+        }
+        long elapsed = System.nanoTime() - started;
+        return new Result(batch.size(), elapsed, SqlStatementRecorder.count());
+    }
+
+    private void lockedBooking(Car car) {
+        rentalService.createRental(newRental(car));
+    }
+
+    // The booking sequence before the single locked read: existence check, car read, conflict list,
+    // status update through a separate save, then the rental insert
+    private void legacyBooking(Car target) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Rental rental = newRental(target);
+            if (!customerRepository.existsById(rental.getCustomer().getId())) {
+                throw new RuntimeException("Customer not found with id: " + rental.getCustomer().getId());
+            }
+            Car car = carRepository.findById(rental.getCar().getId()).orElseThrow();
+            if (car.getStatus() != CarStatus.AVAILABLE) {
+                throw new RuntimeException("Car is not available for rental");
+            }
+            if (!rentalRepository.findConflictingRentals(car.getId(), rental.getStartDate(), rental.getEndDate()).isEmpty()) {
+                throw new RuntimeException("Car is already rented for the selected dates");
+            }
+            long days = ChronoUnit.DAYS.between(rental.getStartDate(), rental.getEndDate()) + 1;
+            rental.setTotalCost(car.getDailyRate().multiply(BigDecimal.valueOf(days)));
+            rental.setBranchId(car.getBranchId());
+
+            Car rented = carRepository.findById(car.getId()).orElseThrow();
+            rented.setStatus(CarStatus.RENTED);
+            carRepository.save(rented);
+            eventPublisher.publishEvent(new CarStatusChangedEvent(car.getId(), CarStatus.AVAILABLE, CarStatus.RENTED));
+
+            Rental saved = rentalRepository.save(rental);
+            notificationOutboxService.enqueueRentalCreated(saved, car);
+            eventPublisher.publishEvent(RentalEvent.of(RentalEventType.RENTAL_CREATED, saved, null));
+        });
+    }
+
+    private Rental newRental(Car car) {
+        Customer customerRef = new Customer();
+        customerRef.setId(customer.getId());
+        Car carRef = new Car();
+        carRef.setId(car.getId());
+        return new Rental(customerRef, carRef, LocalDate.now().plusDays(1), LocalDate.now().plusDays(3), BigDecimal.ZERO);
+    }
+
+    private record Result(int bookings, long elapsedNanos, long statementCount) {
+        double perSecond() {
+            return bookings * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        double statements() {
+            return (double) statementCount / bookings;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.carrental.benchmark;
+
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import com.carrental.model.RentalStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Encode time and bytes on the wire for a 100k-rental list response with the converters the API uses:
+// JSON, JSON gzipped as Tomcat would, CBOR and Smile. Not part of the regular build: mvn test -Pbenchmark
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+class ResponseEncodingBenchmarkTest {
+
+    private static final int RENTALS = 100_000;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jsonConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Test
+    void encoding_JsonVersusGzipVersusCborVersusSmile() {
+        // Given
+        List<Rental> rentals = rentals();
+        ObjectMapper json = jsonConverter.getObjectMapper();
+
+        // When
+        Result plain = measure(() -> encode(json, rentals));
+        Result gzip = measure(() -> gzip(encode(json, rentals)));
+        Result cbor = measure(() -> encode(cborConverter.getObjectMapper(), rentals));
+        Result smile = measure(() -> encode(smileConverter.getObjectMapper(), rentals));
+
+        // Then
+        System.out.printf("Encoding %d rentals (median of %d rounds):%n", RENTALS, MEASURED_ROUNDS);
+        print("json", plain, plain);
+        print("json+gzip", gzip, plain);
+        print("cbor", cbor, plain);
+        print("smile", smile, plain);
+        assertTrue(gzip.bytes() < plain.bytes());
+        assertTrue(cbor.bytes() < plain.bytes());
+        assertTrue(smile.bytes() < plain.bytes());
+    }
+
+    private Result measure(Encoder encoder) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            encoder.encode();
+        }
+        long[] nanos = new long[MEASURED_ROUNDS];
+        int bytes = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long started = System.nanoTime();
+            bytes = encoder.encode().length;
+            nanos[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(nanos);
+        return new Result(nanos[MEASURED_ROUNDS / 2], bytes);
+    }
+
+    private static byte[] encode(ObjectMapper mapper, List<Rental> rentals) {
+        try {
+            return mapper.writeValueAsBytes(rentals);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void print(String format, Result result, Result baseline) {
+        System.out.printf("  %-10s %8.1f ms %12d bytes (%5.1f%% of json)%n", format, result.nanos() / 1_000_000.0,
+                result.bytes(), 100.0 * result.bytes() / baseline.bytes());
+    }
+
+    // Rentals as GET /rentals renders them, with their car and customer embedded; 500 cars and 5000 customers
+    private static List<Rental> rentals() {
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Car car = new Car(i % 2 == 0 ? "Toyota" : "Honda", i % 2 == 0 ? "Camry" : "Civic", 2018 + i % 6,
+                    "ENC" + i, new BigDecimal("45.00").add(BigDecimal.valueOf(i % 40)));
+            car.setId((long) i + 1);
+            car.setFuelType("Gasoline");
+            car.setTransmissionType("Automatic");
+            car.setSeatingCapacity(5);
+            cars.add(car);
+        }
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Customer customer = new Customer("First" + i, "Last" + i, "customer" + i + "@example.com",
+                    "555-" + (1000 + i % 9000), "DLENC" + i);
+            customer.setId((long) i + 1);
+            customers.add(customer);
+        }
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        List<Rental> rentals = new ArrayList<>(RENTALS);
+        for (int i = 0; i < RENTALS; i++) {
+            Car car = cars.get(i % cars.size());
+            LocalDate pickup = start.plusDays(i % 365);
+            Rental rental = new Rental(customers.get(i % customers.size()), car, pickup, pickup.plusDays(3),
+                    car.getDailyRate().multiply(BigDecimal.valueOf(4)));
+            rental.setId((long) i + 1);
+            rental.setStatus(i % 10 == 0 ? RentalStatus.CANCELLED : RentalStatus.COMPLETED);
+            rentals.add(rental);
+        }
+        return rentals;
+    }
+
+    private interface Encoder {
+        byte[] encode();
+    }
+
+    private record Result(long nanos, int bytes) {
+    }
+}
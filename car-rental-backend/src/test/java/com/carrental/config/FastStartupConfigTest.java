@@ -0,0 +1,96 @@
+package com.carrental.config;
+
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.RentalRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springdoc.core.service.OpenAPIService;
+import org.springdoc.webmvc.api.OpenApiWebMvcResource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not @Transactional: a test transaction would keep the session open and hide lazy loading outside of it
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "fast-startup"})
+class FastStartupConfigTest {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    private Rental rental;
+
+    @AfterEach
+    void tearDown() {
+        if (rental != null) {
+            rentalRepository.deleteById(rental.getId());
+            carRepository.deleteById(rental.getCar().getId());
+            customerRepository.deleteById(rental.getCustomer().getId());
+        }
+    }
+
+    @Test
+    void fastStartupProfile_ShouldDeferOpenApiModelAndSkipSeeding() {
+        // Given
+        String[] openApiBeans = beanFactory.getBeanNamesForType(OpenAPIService.class, true, false);
+        String[] docsEndpointBeans = beanFactory.getBeanNamesForType(OpenApiWebMvcResource.class, true, false);
+
+        // Then
+        assertTrue(openApiBeans.length > 0);
+        assertTrue(docsEndpointBeans.length > 0);
+        for (String beanName : openApiBeans) {
+            assertTrue(beanFactory.getBeanDefinition(beanName).isLazyInit());
+            assertFalse(beanFactory.containsSingleton(beanName), beanName + " was created during startup");
+        }
+        for (String beanName : docsEndpointBeans) {
+            assertFalse(beanFactory.containsSingleton(beanName), beanName + " was created during startup");
+        }
+        assertEquals(0, beanFactory.getBeanNamesForType(DataInitializer.class).length);
+    }
+
+    @Test
+    void fastStartupProfile_ShouldRenderRentalsWithTheirCarAndCustomer() throws Exception {
+        // Given
+        Car car = carRepository.save(new Car("Toyota", "Camry", 2023, "FAST001", new BigDecimal("45.00")));
+        Customer customer = customerRepository.save(new Customer("Fast", "Start", "fast.start@example.com",
+                "555-0199", "DLFAST001"));
+        rental = rentalRepository.save(new Rental(customer, car, LocalDate.now(), LocalDate.now().plusDays(2),
+                new BigDecimal("90.00")));
+
+        // When & Then
+        mockMvc.perform(get("/rentals/{id}", rental.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.car.licensePlate").value("FAST001"))
+                .andExpect(jsonPath("$.customer.email").value("fast.start@example.com"));
+        mockMvc.perform(get("/rentals/customer/{id}", customer.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].car.licensePlate").value("FAST001"));
+    }
+}
@@ -0,0 +1,132 @@
+package com.carrental.config;
+
+import com.carrental.service.IdempotencyStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyFilterTest {
+
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyFilter(new IdempotencyStore(new SimpleMeterRegistry(), 60, 100), 100, 1024);
+    }
+
+    @Test
+    void cachedBody_ReadListener_ShouldBeToldDataIsAvailableAndComplete() throws Exception {
+        // Given
+        List<String> calls = new ArrayList<>();
+
+        // When
+        filter.doFilter(request("k1", null, "{\"a\":1}"), new MockHttpServletResponse(), (request, response) -> {
+            ServletInputStream input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    calls.add("data:" + StreamUtils.copyToString(input, StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    calls.add("done");
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    calls.add("error");
+                }
+            });
+            ((HttpServletResponse) response).setStatus(201);
+        });
+
+        // Then
+        assertEquals(List.of("data:{\"a\":1}", "done"), calls);
+    }
+
+    @Test
+    void retry_WithDifferentQueryString_ShouldBeRejectedNotReplayed() throws Exception {
+        // Given
+        filter.doFilter(request("k2", null, "{}"), new MockHttpServletResponse(),
+                (request, response) -> ((HttpServletResponse) response).setStatus(201));
+
+        // When
+        MockHttpServletResponse sameQuery = new MockHttpServletResponse();
+        filter.doFilter(request("k2", null, "{}"), sameQuery, (request, response) -> fail("Should replay"));
+        MockHttpServletResponse otherQuery = new MockHttpServletResponse();
+        filter.doFilter(request("k2", "currency=EUR", "{}"), otherQuery, (request, response) -> fail("Should reject"));
+
+        // Then
+        assertEquals("true", sameQuery.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(422, otherQuery.getStatus());
+    }
+
+    @Test
+    void retry_WithDifferentAccept_ShouldBeRejectedNotReplayedInTheWrongFormat() throws Exception {
+        // Given
+        MockHttpServletRequest json = request("k3", null, "{}");
+        json.addHeader("Accept", "application/json");
+        filter.doFilter(json, new MockHttpServletResponse(), (request, response) -> {
+            ((HttpServletResponse) response).setStatus(201);
+            response.setContentType("application/json");
+        });
+
+        // When
+        MockHttpServletRequest cbor = request("k3", null, "{}");
+        cbor.addHeader("Accept", "application/cbor");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(cbor, response, (request, chainResponse) -> fail("Should reject"));
+
+        // Then
+        assertEquals(422, response.getStatus());
+    }
+
+    @Test
+    void request_WithBodyOverLimit_ShouldGet413WithoutReachingController() throws Exception {
+        // Given
+        String body = "{\"notes\":\"" + "x".repeat(1100) + "\"}";
+        MockHttpServletRequest declared = request("k4", null, body);
+        // No Content-Length, as with a chunked upload: the limit is enforced while reading
+        HttpServletRequest chunked = new HttpServletRequestWrapper(request("k5", null, body)) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+
+        // When
+        MockHttpServletResponse declaredResponse = new MockHttpServletResponse();
+        filter.doFilter(declared, declaredResponse, (request, response) -> fail("Should reject"));
+        MockHttpServletResponse chunkedResponse = new MockHttpServletResponse();
+        filter.doFilter(chunked, chunkedResponse, (request, response) -> fail("Should reject"));
+
+        // Then
+        assertEquals(413, declaredResponse.getStatus());
+        assertEquals(413, chunkedResponse.getStatus());
+    }
+
+    private static MockHttpServletRequest request(String key, String queryString, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/rentals");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.setQueryString(queryString);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
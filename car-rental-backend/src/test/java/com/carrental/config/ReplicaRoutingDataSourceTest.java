@@ -0,0 +1,184 @@
+package com.carrental.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing_primary", "primary");
+        DataSource replica = h2("routing_replica", "replica");
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replica);
+        dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldUseReplica() {
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void writeTransaction_ShouldUsePrimary() {
+        assertEquals("primary", writeTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readOnlyCallInsideWriteTransaction_ShouldStayOnPrimary() {
+        String node = writeTransaction.execute(status -> readOnlyTransaction.execute(inner -> currentNode()));
+        assertEquals("primary", node);
+    }
+
+    @Test
+    void newWriteTransactionInsideReadOnlyTransaction_ShouldUsePrimary() {
+        // Given
+        TransactionTemplate newWriteTransaction = new TransactionTemplate(writeTransaction.getTransactionManager());
+        newWriteTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // When
+        String node = readOnlyTransaction.execute(status -> {
+            currentNode();
+            return newWriteTransaction.execute(inner -> currentNode());
+        });
+
+        // Then
+        assertEquals("primary", node);
+    }
+
+    @Test
+    void primaryRead_ShouldUsePrimary() {
+        PrimaryReads primaryReads = new PrimaryReads(writeTransaction.getTransactionManager(), routingDataSource);
+        assertEquals("primary", primaryReads.execute(status -> currentNode()));
+    }
+
+    @Test
+    void primaryReadInsideReplicaTransaction_ShouldUsePrimary() {
+        // Given
+        PrimaryReads primaryReads = new PrimaryReads(writeTransaction.getTransactionManager(), routingDataSource);
+
+        // When
+        String node = readOnlyTransaction.execute(status -> {
+            currentNode();
+            return primaryReads.execute(inner -> currentNode());
+        });
+
+        // Then
+        assertEquals("primary", node);
+    }
+
+    @Test
+    void primaryReadInsideWriteTransaction_ShouldJoinIt() {
+        // Given
+        PrimaryReads primaryReads = new PrimaryReads(writeTransaction.getTransactionManager(), routingDataSource);
+
+        // When: a new transaction here would hold a second connection from the same pool
+        Boolean newTransaction = writeTransaction.execute(status -> {
+            currentNode();
+            return primaryReads.execute(inner -> inner.isNewTransaction());
+        });
+
+        // Then
+        assertFalse(newTransaction);
+    }
+
+    @Test
+    void lagAboveTolerance_ShouldRouteReadsToPrimaryUntilReplicaCatchesUp() {
+        // Given
+        ReplicaLagMonitor laggingMonitor = new ReplicaLagMonitor(routingDataSource, "SELECT 30", 5);
+        ReplicaLagMonitor healthyMonitor = new ReplicaLagMonitor(routingDataSource, "SELECT 1", 5);
+
+        // When & Then
+        laggingMonitor.checkReplicaLag();
+        assertEquals(30L, laggingMonitor.getLastLagSeconds());
+        assertFalse(routingDataSource.isReplicaAvailable());
+        assertEquals("primary", readOnlyTransaction.execute(status -> currentNode()));
+
+        healthyMonitor.checkReplicaLag();
+        assertTrue(routingDataSource.isReplicaAvailable());
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void jpaTransactionsOnOneEntityManager_ShouldEachRouteByTheirOwnFlag() {
+        // Given: one EntityManager bound for the whole request, as open-in-view does
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.DIALECT, "org.hibernate.dialect.H2Dialect");
+        new ReadReplicaConfig().replicaConnectionHandling().customize(properties);
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan("com.carrental.config");
+        factoryBean.setJpaPropertyMap(properties);
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        TransactionTemplate jpaWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate jpaReadOnly = new TransactionTemplate(transactionManager);
+        jpaReadOnly.setReadOnly(true);
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+
+        try {
+            // When & Then
+            assertEquals("replica", jpaReadOnly.execute(status -> currentNode(entityManager)));
+            assertEquals("primary", jpaWrite.execute(status -> currentNode(entityManager)));
+            assertEquals("replica", jpaReadOnly.execute(status -> currentNode(entityManager)));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+            factoryBean.destroy();
+        }
+    }
+
+    private static String currentNode(EntityManager entityManager) {
+        return (String) entityManager.createNativeQuery("SELECT name FROM node").getSingleResult();
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource h2(String database, String nodeName) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.execute("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", nodeName);
+        return dataSource;
+    }
+}
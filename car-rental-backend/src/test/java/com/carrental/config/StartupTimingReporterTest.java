@@ -0,0 +1,52 @@
+package com.carrental.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupTimingReporterTest {
+
+    @Test
+    void totalsByStep_NestedStepsWithSameName_ShouldCountOnlyOutermost() throws Exception {
+        // Given
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep outer = startup.start("spring.beans.instantiate").tag("beanName", "carService");
+        StartupStep inner = startup.start("spring.beans.instantiate").tag("beanName", "carRepository");
+        Thread.sleep(5);
+        inner.end();
+        outer.end();
+        refresh.end();
+
+        // When
+        List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+        Map<String, Duration> totals = StartupTimingReporter.totalsByStep(events);
+        Map<String, Duration> beans = StartupTimingReporter.slowestBeans(events);
+
+        // Then
+        assertEquals(durationOf(events, "carService"), totals.get("spring.beans.instantiate"));
+        assertTrue(totals.get("spring.context.refresh").compareTo(totals.get("spring.beans.instantiate")) >= 0);
+        assertEquals(2, beans.size());
+        assertTrue(beans.get("carService").compareTo(beans.get("carRepository")) >= 0);
+    }
+
+    private static Duration durationOf(List<StartupTimeline.TimelineEvent> events, String beanName) {
+        return events.stream()
+                .filter(event -> {
+                    for (StartupStep.Tag tag : event.getStartupStep().getTags()) {
+                        if (tag.getValue().equals(beanName)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                })
+                .findFirst().orElseThrow().getDuration();
+    }
+}
@@ -2,7 +2,12 @@ package com.carrental.controller;
 
 import com.carrental.model.Car;
 import com.carrental.model.CarStatus;
+import com.carrental.service.CalendarService;
 import com.carrental.service.CarService;
+import com.carrental.service.CarStatusStreamService;
+import com.carrental.service.ChangeSyncService;
+import com.carrental.service.FieldSelectionService;
+import com.carrental.service.FleetSnapshot;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,6 +36,21 @@ class CarControllerTest {
     @MockBean
     private CarService carService;
 
+    @MockBean
+    private CarStatusStreamService carStatusStreamService;
+
+    @MockBean
+    private CalendarService calendarService;
+
+    @MockBean
+    private FleetSnapshot fleetSnapshot;
+
+    @MockBean
+    private FieldSelectionService fieldSelectionService;
+
+    @MockBean
+    private ChangeSyncService changeSyncService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
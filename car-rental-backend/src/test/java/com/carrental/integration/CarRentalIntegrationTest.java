@@ -7,11 +7,14 @@ import com.carrental.model.Rental;
 import com.carrental.repository.CarRepository;
 import com.carrental.repository.CustomerRepository;
 import com.carrental.repository.RentalRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -21,11 +24,14 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
-@AutoConfigureWebMvc
+@AutoConfigureMockMvc
 @ActiveProfiles("test")
 @Transactional
 class CarRentalIntegrationTest {
@@ -128,6 +134,167 @@ class CarRentalIntegrationTest {
                 .andExpect(jsonPath("$.email").value("jane.test@email.com"));
     }
 
+    @Test
+    void createCustomer_RetriedWithSameIdempotencyKey_ShouldReplayFirstResponse() throws Exception {
+        Customer newCustomer = new Customer("Jane", "Smith", "jane.retry@email.com", "555-0103", "DL555555555");
+        String body = objectMapper.writeValueAsString(newCustomer);
+
+        String first = mockMvc.perform(post("/customers")
+                .header("Idempotency-Key", "customer-retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn().getResponse().getContentAsString();
+
+        // A retry that would otherwise fail on the duplicate email gets the original 201 back
+        mockMvc.perform(post("/customers")
+                .header("Idempotency-Key", "customer-retry-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(first));
+
+        assertEquals(2, customerRepository.count());
+    }
+
+    @Test
+    void createCustomer_IdempotencyKeyReusedWithDifferentBody_ShouldBeRejected() throws Exception {
+        Customer first = new Customer("Jane", "Smith", "jane.first@email.com", "555-0104", "DL111111111");
+        Customer second = new Customer("Jane", "Smith", "jane.second@email.com", "555-0105", "DL222222222");
+
+        mockMvc.perform(post("/customers")
+                .header("Idempotency-Key", "customer-reuse-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/customers")
+                .header("Idempotency-Key", "customer-reuse-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(second)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void getUtilization_GroupedByMake_ShouldReportEveryCar() throws Exception {
+        LocalDate today = LocalDate.now();
+
+        mockMvc.perform(get("/reports/utilization")
+                .param("from", today.minusDays(6).toString())
+                .param("to", today.toString())
+                .param("groupBy", "make"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.groups[0].key").value("Toyota"))
+                .andExpect(jsonPath("$.groups[0].cars").value(1))
+                .andExpect(jsonPath("$.groups[0].availableDays").value(7))
+                .andExpect(jsonPath("$.fleet.cars").value(1));
+
+        mockMvc.perform(get("/reports/utilization").param("groupBy", "color"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void queryCars_SortedByRate_ShouldPageWithCursor() throws Exception {
+        // Given
+        carRepository.save(new Car("Honda", "Civic", 2022, "TEST456", new BigDecimal("35.00")));
+        carRepository.save(new Car("Ford", "Focus", 2021, "TEST789", new BigDecimal("30.00")));
+        Car rented = new Car("Kia", "Rio", 2020, "TEST999", new BigDecimal("25.00"));
+        rented.setStatus(CarStatus.RENTED);
+        carRepository.save(rented);
+
+        // When
+        String firstPage = mockMvc.perform(get("/cars/query")
+                        .param("status", "AVAILABLE")
+                        .param("sort", "dailyRate")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].licensePlate").value("TEST789"))
+                .andExpect(jsonPath("$.items[1].licensePlate").value("TEST456"))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        // Then
+        mockMvc.perform(get("/cars/query")
+                        .param("status", "AVAILABLE")
+                        .param("sort", "dailyRate")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].licensePlate").value("TEST123"))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+
+        mockMvc.perform(get("/cars/query").param("sort", "year").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+
+        // Make and model match case-insensitively, as on /cars/facets
+        mockMvc.perform(get("/cars/query").param("make", "honda", " FORD "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2));
+    }
+
+    @Test
+    void branchEndpoints_ShouldOnlySeeTheBranchFleet() throws Exception {
+        // Given
+        String created = mockMvc.perform(post("/branches")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Downtown\",\"code\":\"DT01\",\"city\":\"Colombo\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long branchId = objectMapper.readTree(created).get("id").asLong();
+        Car branchCar = new Car("Honda", "Civic", 2022, "TEST456", new BigDecimal("35.00"));
+        branchCar.setBranchId(branchId);
+        carRepository.save(branchCar);
+
+        // When & Then
+        mockMvc.perform(get("/branches/{id}/cars/available", branchId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].licensePlate").value("TEST456"));
+
+        mockMvc.perform(get("/branches/{id}/stats", branchId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCars").value(1))
+                .andExpect(jsonPath("$.availableCars").value(1));
+
+        mockMvc.perform(delete("/branches/{id}", branchId))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/branches/{id}/cars/available", branchId + 1000))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void reportJobs_ShouldBeSubmittedAndPolled() throws Exception {
+        // Given
+        String body = "{\"type\":\"customer-value\",\"parameters\":{\"limit\":\"10\"}}";
+
+        // When
+        String response = mockMvc.perform(post("/reports/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(jsonPath("$.type").value("customer-value"))
+                .andExpect(jsonPath("$.parameters.limit").value("10"))
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(response).get("id").asText();
+
+        // Then
+        mockMvc.perform(get("/reports/jobs/{id}", jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(jobId));
+
+        mockMvc.perform(get("/reports/jobs/{id}", "missing"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/reports/jobs")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"type\":\"customer-value\",\"parameters\":{\"limit\":\"0\"}}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void searchCars_WithKeyword_ShouldReturnMatchingCars() throws Exception {
         mockMvc.perform(get("/cars/search")
@@ -148,4 +315,121 @@ class CarRentalIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("135.00")); // 3 days * 45.00
     }
-}
\ No newline at end of file
+
+    @Test
+    void currencyParameter_ShouldConvertListsAndQuotes() throws Exception {
+        mockMvc.perform(get("/cars").param("currency", "eur"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Currency", "EUR"))
+                .andExpect(jsonPath("$[0].dailyRate").value(41.40)); // 45.00 USD * 0.92
+
+        mockMvc.perform(get("/rentals/calculate-cost")
+                .param("carId", testCar.getId().toString())
+                .param("startDate", LocalDate.now().toString())
+                .param("endDate", LocalDate.now().plusDays(2).toString())
+                .param("currency", "JPY"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("21222")); // 135.00 USD * 157.20, no minor unit
+
+        mockMvc.perform(get("/cars").param("currency", "XYZ"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/cars/" + testCar.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dailyRate").value(45.00));
+    }
+
+    @Test
+    void binaryFormats_ShouldBeNegotiatedFromAcceptHeader() throws Exception {
+        byte[] cbor = mockMvc.perform(get("/cars").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] smile = mockMvc.perform(get("/cars").param("currency", "EUR").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode fromCbor = new CBORMapper().readTree(cbor);
+        JsonNode fromSmile = new SmileMapper().readTree(smile);
+        assertEquals("TEST123", fromCbor.get(0).get("licensePlate").asText());
+        assertEquals(0, new BigDecimal("45.00").compareTo(fromCbor.get(0).get("dailyRate").decimalValue()));
+        // Dates are written as ISO strings, as in JSON
+        assertTrue(fromCbor.get(0).get("createdAt").isTextual());
+        assertEquals(0, new BigDecimal("41.40").compareTo(fromSmile.get(0).get("dailyRate").decimalValue()));
+    }
+
+    @Test
+    void fieldsParameter_ShouldReturnOnlyRequestedFields() throws Exception {
+        mockMvc.perform(get("/cars").param("fields", "id,make,model,status,dailyRate").param("currency", "EUR"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(testCar.getId()))
+                .andExpect(jsonPath("$[0].status").value("AVAILABLE"))
+                .andExpect(jsonPath("$[0].dailyRate").value(41.40))
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+
+        mockMvc.perform(get("/customers/" + testCustomer.getId()).param("fields", "firstName, lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("John"))
+                .andExpect(jsonPath("$.email").doesNotExist());
+
+        mockMvc.perform(get("/cars/-1").param("fields", "id"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/customers").param("fields", "rentals"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/cars").param("fields", ""))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void changes_ShouldReturnChangedRowsAndNextWatermark() throws Exception {
+        mockMvc.perform(get("/customers/changes").param("since", LocalDate.now().minusDays(1).atStartOfDay().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextSince").isString())
+                .andExpect(jsonPath("$.deleted").isArray());
+
+        mockMvc.perform(get("/cars/changes").param("since", "yesterday"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/rentals/changes").param("since", LocalDate.now().minusYears(1).atStartOfDay().toString()))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void bulkStatus_ShouldApplyToAllCarsOrNone() throws Exception {
+        Car civic = carRepository.save(new Car("Honda", "Civic", 2022, "BULK1", new BigDecimal("40.00")));
+        Car rented = new Car("Ford", "Focus", 2021, "BULK2", new BigDecimal("35.00"));
+        rented.setStatus(CarStatus.RENTED);
+        rented = carRepository.save(rented);
+        rentalRepository.save(new Rental(testCustomer, rented, LocalDate.now(), LocalDate.now().plusDays(3),
+                new BigDecimal("105.00")));
+
+        mockMvc.perform(patch("/cars/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"carIds\": [" + testCar.getId() + ", " + rented.getId() + "], \"status\": \"MAINTENANCE\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.applied").value(false))
+                .andExpect(jsonPath("$.onRental[0]").value(rented.getId()));
+        mockMvc.perform(patch("/cars/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"carIds\": [" + testCar.getId() + ", 999999], \"status\": \"MAINTENANCE\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.notFound[0]").value(999999));
+        mockMvc.perform(patch("/cars/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"carIds\": [" + testCar.getId() + "], \"status\": \"RENTED\"}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/cars/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"carIds\": [], \"status\": \"MAINTENANCE\"}"))
+                .andExpect(status().isBadRequest());
+        assertEquals(CarStatus.AVAILABLE, carRepository.findById(testCar.getId()).orElseThrow().getStatus());
+
+        mockMvc.perform(patch("/cars/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"carIds\": [" + testCar.getId() + ", " + civic.getId() + "], \"status\": \"MAINTENANCE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(true))
+                .andExpect(jsonPath("$.updated.length()").value(2));
+        assertEquals(CarStatus.MAINTENANCE, carRepository.findById(civic.getId()).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,175 @@
+package com.carrental.integration;
+
+import com.carrental.model.Car;
+import com.carrental.model.CarStatus;
+import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import com.carrental.model.RentalStatus;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.RentalRepository;
+import com.carrental.support.SqlStatementRecorder;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// List endpoints must not issue one statement per row: rendering a rental loads its car and customer,
+// and those loads are batched, so the statement count stays the same as the list grows
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class ListStatementCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        rentalRepository.deleteAll();
+        carRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void rentalsByStatus_ShouldUseConstantStatements() throws Exception {
+        // Given
+        seed(3);
+        long few = statementsFor("/rentals/status/COMPLETED");
+        seed(12);
+        long many = statementsFor("/rentals/status/COMPLETED");
+
+        // Then
+        assertEquals(few, many, "Statements grew with the number of rentals");
+    }
+
+    @Test
+    void rentalsByCustomer_ShouldUseConstantStatements() throws Exception {
+        // Given
+        Long customerId = seed(3);
+        long few = statementsFor("/rentals/customer/" + customerId);
+        customerId = seed(12);
+        long many = statementsFor("/rentals/customer/" + customerId);
+
+        // Then
+        assertEquals(few, many, "Statements grew with the number of rentals");
+    }
+
+    @Test
+    void customerRentals_ShouldLoadInBatches() {
+        // Given
+        seed(12);
+        List<Customer> customers = customerRepository.findAll();
+
+        // When
+        SqlStatementRecorder.clear();
+        int rentals = customers.stream().mapToInt(customer -> customer.getRentals().size()).sum();
+
+        // Then
+        assertEquals(12, rentals);
+        assertEquals(1, SqlStatementRecorder.count(), "Expected one IN-list load: " + SqlStatementRecorder.statements());
+    }
+
+    @Test
+    void rentalFields_ShouldSelectOnlyRequestedColumnsInOneStatement() throws Exception {
+        // Given
+        seed(12);
+
+        // When
+        SqlStatementRecorder.clear();
+        mockMvc.perform(get("/rentals/status/COMPLETED").param("fields", "id,totalCost,car.make"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(12))
+                .andExpect(jsonPath("$[0].car.make").value("Toyota"))
+                .andExpect(jsonPath("$[0].startDate").doesNotExist());
+
+        // Then
+        assertEquals(1, SqlStatementRecorder.count(), "Expected one query: " + SqlStatementRecorder.statements());
+        String sql = SqlStatementRecorder.statements().get(0).toLowerCase();
+        assertFalse(sql.contains("customers"), sql);
+        assertFalse(sql.contains("start_date"), sql);
+        assertFalse(sql.contains("created_at"), sql);
+    }
+
+    @Test
+    void bulkCarStatus_ShouldCheckAndUpdateInTwoStatements() throws Exception {
+        // Given
+        seed(12);
+        String carIds = carRepository.findAll().stream().map(car -> car.getId().toString())
+                .collect(Collectors.joining(","));
+        entityManager.clear();
+
+        // When
+        SqlStatementRecorder.clear();
+        mockMvc.perform(patch("/cars/status").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"carIds\": [" + carIds + "], \"status\": \"MAINTENANCE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated.length()").value(12));
+
+        // Then
+        List<String> statements = SqlStatementRecorder.statements();
+        assertEquals(2, statements.size(), "Expected one check and one update: " + statements);
+        assertTrue(statements.get(0).toLowerCase().contains("for update"), statements.get(0));
+        assertTrue(statements.get(1).toLowerCase().startsWith("update cars"), statements.get(1));
+        assertEquals(12, carRepository.findByStatus(CarStatus.MAINTENANCE).size());
+    }
+
+    private long statementsFor(String path) throws Exception {
+        SqlStatementRecorder.clear();
+        mockMvc.perform(get(path)).andExpect(status().isOk());
+        return SqlStatementRecorder.count();
+    }
+
+    // Replaces all data with rentals on distinct cars: every other rental belongs to one regular customer,
+    // the rest each to a customer of their own. Returns the regular customer's id.
+    private Long seed(int rentals) {
+        entityManager.clear();
+        rentalRepository.deleteAll();
+        carRepository.deleteAll();
+        customerRepository.deleteAll();
+        entityManager.flush();
+        Customer regular = customerRepository.save(new Customer("Regular", "Customer", "regular@example.com",
+                "555-0100", "DLREGULAR"));
+        for (int i = 0; i < rentals; i++) {
+            Car car = carRepository.save(new Car("Toyota", "Camry", 2023, "LIST" + i, new BigDecimal("45.00")));
+            Customer customer = i % 2 == 0 ? regular : customerRepository.save(new Customer("List", "Customer" + i,
+                    "list" + i + "@example.com", "555-01" + i, "DLLIST" + i));
+            Rental rental = new Rental(customer, car, LocalDate.now().minusDays(10), LocalDate.now().minusDays(8),
+                    new BigDecimal("90.00"));
+            rental.setStatus(RentalStatus.COMPLETED);
+            rentalRepository.save(rental);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return regular.getId();
+    }
+}
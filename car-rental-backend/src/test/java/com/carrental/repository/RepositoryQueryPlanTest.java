@@ -0,0 +1,197 @@
+package com.carrental.repository;
+
+import com.carrental.dto.FleetFilter;
+import com.carrental.model.BranchStatus;
+import com.carrental.model.CarStatus;
+import com.carrental.model.RentalStatus;
+import com.carrental.model.SyncEntityType;
+import com.carrental.support.SqlStatementRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class RepositoryQueryPlanTest {
+
+    // Queries that legitimately read whole tables (full listings, '%keyword%' searches, index rebuilds and report jobs)
+    private static final Set<String> FULL_SCAN_ALLOWED = Set.of(
+            "ArchivedRentalRepository.findOccupancySpans",
+            "ArchivedRentalRepository.summarizeByCustomer",
+            "BranchRepository.findLocatedBranches",
+            "CarRepository.findAll",
+            "CarRepository.searchByKeyword",
+            "CustomerRepository.findAll",
+            "CustomerRepository.searchByKeyword",
+            "RentalRepository.findAll",
+            "RentalRepository.findOccupancySpans",
+            "RentalRepository.summarizeByCustomer");
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void repositoryQueries_ShouldNotFallBackToFullScans() {
+        LocalDate today = LocalDate.now();
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+
+        queries.put("CarRepository.findAll", () -> carRepository.findAll());
+        queries.put("CarRepository.findById", () -> carRepository.findById(1L));
+        queries.put("CarRepository.findByStatus", () -> carRepository.findByStatus(CarStatus.AVAILABLE));
+        queries.put("CarRepository.findByLicensePlate", () -> carRepository.findByLicensePlate("ABC123"));
+        queries.put("CarRepository.findByIdForUpdate", () -> carRepository.findByIdForUpdate(1L));
+        queries.put("CarRepository.findByMakeAndModel", () -> carRepository.findByMakeAndModel("Toyota", "Camry"));
+        queries.put("CarRepository.findByYear", () -> carRepository.findByYear(2023));
+        queries.put("CarRepository.findByDailyRateBetween",
+                () -> carRepository.findByDailyRateBetween(new BigDecimal("10"), new BigDecimal("50")));
+        queries.put("CarRepository.findAvailableCarsWithinBudget",
+                () -> carRepository.findAvailableCarsWithinBudget(new BigDecimal("50")));
+        queries.put("CarRepository.searchByKeyword", () -> carRepository.searchByKeyword("toy"));
+        queries.put("CarRepository.findByBranchId", () -> carRepository.findByBranchId(1L));
+        queries.put("CarRepository.existsByBranchId", () -> carRepository.existsByBranchId(1L));
+        queries.put("CarRepository.findStatusChecksForUpdate",
+                () -> carRepository.findStatusChecksForUpdate(List.of(1L, 2L, 3L)));
+        queries.put("CarRepository.findChangedSince",
+                () -> carRepository.findChangedSince(LocalDateTime.now().minusHours(1), 0L, LocalDateTime.now(),
+                        PageRequest.of(0, 100)));
+        FleetFilter availableWithinBudget = new FleetFilter();
+        availableWithinBudget.setStatuses(List.of(CarStatus.AVAILABLE));
+        availableWithinBudget.setMaxRate(new BigDecimal("50"));
+        queries.put("CarRepository.findBy(CarSpecifications)", () -> carRepository.findBy(
+                CarSpecifications.matching(availableWithinBudget)
+                        .and(CarSpecifications.after("dailyRate", true, new BigDecimal("20"), 1L)),
+                query -> query.sortBy(Sort.by("dailyRate", "id")).limit(21).all()));
+
+        queries.put("CustomerRepository.findAll", () -> customerRepository.findAll());
+        queries.put("CustomerRepository.findById", () -> customerRepository.findById(1L));
+        queries.put("CustomerRepository.findByEmail", () -> customerRepository.findByEmail("a@b.com"));
+        queries.put("CustomerRepository.findByDriverLicense", () -> customerRepository.findByDriverLicense("DL1"));
+        queries.put("CustomerRepository.findByFirstNameAndLastName",
+                () -> customerRepository.findByFirstNameAndLastName("John", "Doe"));
+        queries.put("CustomerRepository.searchByKeyword", () -> customerRepository.searchByKeyword("john"));
+        queries.put("CustomerRepository.findByPhoneNumber", () -> customerRepository.findByPhoneNumber("555-0101"));
+        queries.put("CustomerRepository.findChangedSince",
+                () -> customerRepository.findChangedSince(LocalDateTime.now().minusHours(1), 0L, LocalDateTime.now(),
+                        PageRequest.of(0, 100)));
+
+        queries.put("RentalRepository.findAll", () -> rentalRepository.findAll());
+        queries.put("RentalRepository.findById", () -> rentalRepository.findById(1L));
+        queries.put("RentalRepository.findByCustomerId", () -> rentalRepository.findByCustomerId(1L));
+        queries.put("RentalRepository.findByCarId", () -> rentalRepository.findByCarId(1L));
+        queries.put("RentalRepository.findByStatus", () -> rentalRepository.findByStatus(RentalStatus.ACTIVE));
+        queries.put("RentalRepository.findByStartDateBetween",
+                () -> rentalRepository.findByStartDateBetween(today, today.plusDays(30)));
+        queries.put("RentalRepository.findOverdueRentals", () -> rentalRepository.findOverdueRentals(today));
+        queries.put("RentalRepository.findConflictingRentals",
+                () -> rentalRepository.findConflictingRentals(1L, today, today.plusDays(3)));
+        queries.put("RentalRepository.summarizeByCustomer", () -> rentalRepository.summarizeByCustomer());
+        queries.put("RentalRepository.existsConflictingRental",
+                () -> rentalRepository.existsConflictingRental(1L, today, today.plusDays(3)));
+        queries.put("RentalRepository.findByCustomerIdAndStatusIn",
+                () -> rentalRepository.findByCustomerIdAndStatusIn(1L, List.of(RentalStatus.ACTIVE, RentalStatus.OVERDUE)));
+        queries.put("RentalRepository.findArchivableRentalIds",
+                () -> rentalRepository.findArchivableRentalIds(List.of(RentalStatus.COMPLETED, RentalStatus.CANCELLED),
+                        LocalDateTime.now(), PageRequest.of(0, 100)));
+        queries.put("RentalRepository.findOccupancySpans",
+                () -> rentalRepository.findOccupancySpans(today.minusDays(365), today.plusDays(365)));
+        queries.put("RentalRepository.findOccupancySpansByCarId", () -> rentalRepository.findOccupancySpansByCarId(1L));
+        queries.put("RentalRepository.summarizeByBranchId", () -> rentalRepository.summarizeByBranchId(1L));
+        queries.put("RentalRepository.findChangedSince",
+                () -> rentalRepository.findChangedSince(LocalDateTime.now().minusHours(1), 0L, LocalDateTime.now(),
+                        PageRequest.of(0, 100)));
+
+        queries.put("BranchRepository.findById", () -> branchRepository.findById(1L));
+        queries.put("BranchRepository.findByCode", () -> branchRepository.findByCode("CMB"));
+        queries.put("BranchRepository.findLocatedBranches",
+                () -> branchRepository.findLocatedBranches(BranchStatus.ACTIVE));
+
+        queries.put("ArchivedRentalRepository.findByCustomerId", () -> archivedRentalRepository.findByCustomerId(1L));
+        queries.put("ArchivedRentalRepository.findOccupancySpans",
+                () -> archivedRentalRepository.findOccupancySpans(today.minusDays(365), today.plusDays(365)));
+        queries.put("ArchivedRentalRepository.findOccupancySpansByCarId",
+                () -> archivedRentalRepository.findOccupancySpansByCarId(1L));
+        queries.put("ArchivedRentalRepository.summarizeByCustomer", () -> archivedRentalRepository.summarizeByCustomer());
+
+        queries.put("OutboxMessageRepository.findByRentalId", () -> outboxMessageRepository.findByRentalId(1L));
+        queries.put("OutboxMessageRepository.findDueForDispatch",
+                () -> outboxMessageRepository.findDueForDispatch(LocalDateTime.now(), PageRequest.of(0, 100)));
+
+        queries.put("SyncTombstoneRepository.findChangedSince",
+                () -> syncTombstoneRepository.findChangedSince(SyncEntityType.CAR, LocalDateTime.now().minusHours(1), 0L,
+                        LocalDateTime.now(), PageRequest.of(0, 100)));
+
+        List<String> fullScans = new ArrayList<>();
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+            String sql = captureSql(query.getValue());
+            String plan = explain(sql);
+            report.append(query.getKey()).append(":\n").append(plan).append("\n\n");
+            if (plan.contains(".tableScan") && !FULL_SCAN_ALLOWED.contains(query.getKey())) {
+                fullScans.add(query.getKey());
+            }
+        }
+
+        assertTrue(fullScans.isEmpty(), "Hot queries falling back to a full table scan: " + fullScans + "\n\n" + report);
+    }
+
+    private String captureSql(Runnable query) {
+        SqlStatementRecorder.clear();
+        query.run();
+        List<String> statements = SqlStatementRecorder.statements();
+        assertEquals(1, statements.size(), "Expected a single statement but got " + statements);
+        return statements.get(0);
+    }
+
+    private String explain(String sql) {
+        long parameterCount = sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.query("EXPLAIN " + sql, ps -> {
+            for (int i = 1; i <= parameterCount; i++) {
+                ps.setObject(i, null);
+            }
+        }, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1));
+            }
+            return plan.toString();
+        });
+    }
+}
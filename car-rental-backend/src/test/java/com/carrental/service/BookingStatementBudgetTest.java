@@ -0,0 +1,116 @@
+package com.carrental.service;
+
+import com.carrental.model.Car;
+import com.carrental.model.CarStatus;
+import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.support.SqlStatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BookingStatementBudgetTest {
+
+    // Locked car read, conflict check, rental insert, two outbox inserts, car status update
+    private static final int BOOKING_STATEMENT_BUDGET = 6;
+    private static final int BOOKING_SELECT_BUDGET = 2;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Car car;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        car = carRepository.save(new Car("Toyota", "Camry", 2023, "BUDGET1", new BigDecimal("45.00")));
+        customer = customerRepository.save(new Customer("John", "Doe", "budget@example.com", "555-0101", "DLBUDGET"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void createRental_ShouldStayWithinStatementBudget() {
+        // Given
+        Rental rental = new Rental(reference(customer), reference(car), LocalDate.now().plusDays(1),
+                LocalDate.now().plusDays(3), BigDecimal.ZERO);
+
+        // When
+        SqlStatementRecorder.clear();
+        Rental created = rentalService.createRental(rental);
+        List<String> statements = SqlStatementRecorder.statements();
+
+        // Then
+        assertNotNull(created.getId());
+        assertTrue(statements.size() <= BOOKING_STATEMENT_BUDGET,
+                "Booking used " + statements.size() + " statements: " + statements);
+        assertTrue(SqlStatementRecorder.selectCount() <= BOOKING_SELECT_BUDGET,
+                "Booking used " + SqlStatementRecorder.selectCount() + " selects: " + statements);
+        assertEquals(1, statements.stream().filter(sql -> sql.toLowerCase().contains("for update")).count(),
+                "Expected exactly one locking read: " + statements);
+        assertEquals(CarStatus.RENTED, carRepository.findById(car.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void createRental_UnknownCustomer_ShouldBeRejected() {
+        // Given
+        Customer missing = new Customer();
+        missing.setId(customer.getId() + 1000);
+        Rental rental = new Rental(missing, reference(car), LocalDate.now().plusDays(1),
+                LocalDate.now().plusDays(3), BigDecimal.ZERO);
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> rentalService.createRental(rental));
+        assertTrue(exception.getMessage().contains("Customer not found"));
+    }
+
+    @Test
+    void createRental_UnknownBranch_ShouldNotBeReportedAsUnknownCustomer() {
+        // Given
+        Rental rental = new Rental(reference(customer), reference(car), LocalDate.now().plusDays(1),
+                LocalDate.now().plusDays(3), BigDecimal.ZERO);
+        rental.setBranchId(999L);
+
+        // When & Then
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> rentalService.createRental(rental));
+        assertTrue(exception.getMessage().toUpperCase().contains("FK_RENTALS_BRANCH"), exception.getMessage());
+    }
+
+    private static Car reference(Car car) {
+        Car reference = new Car();
+        reference.setId(car.getId());
+        return reference;
+    }
+
+    private static Customer reference(Customer customer) {
+        Customer reference = new Customer();
+        reference.setId(customer.getId());
+        return reference;
+    }
+}
@@ -0,0 +1,162 @@
+package com.carrental.service;
+
+import com.carrental.config.PrimaryReads;
+import com.carrental.event.CarChangedEvent;
+import com.carrental.event.CarStatusChangedEvent;
+import com.carrental.event.RentalEvent;
+import com.carrental.event.RentalEventType;
+import com.carrental.model.Branch;
+import com.carrental.model.Car;
+import com.carrental.model.CarStatus;
+import com.carrental.repository.BranchRepository;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.RentalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BranchFleetCacheTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BranchFleetCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BranchFleetCache(new PrimaryReads(transactionManager), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "branchRepository", branchRepository);
+        ReflectionTestUtils.setField(cache, "carRepository", carRepository);
+        ReflectionTestUtils.setField(cache, "rentalRepository", rentalRepository);
+
+        for (long branchId = 1; branchId <= 2; branchId++) {
+            Branch branch = new Branch("Branch " + branchId, "B" + branchId, "City");
+            branch.setId(branchId);
+            lenient().when(branchRepository.findById(branchId)).thenReturn(Optional.of(branch));
+            lenient().when(rentalRepository.summarizeByBranchId(branchId)).thenReturn(List.of());
+        }
+        lenient().when(carRepository.findByBranchId(1L)).thenReturn(List.of(
+                car(10L, 1L, CarStatus.AVAILABLE), car(11L, 1L, CarStatus.RENTED)));
+        lenient().when(carRepository.findByBranchId(2L)).thenReturn(List.of(car(20L, 2L, CarStatus.AVAILABLE)));
+    }
+
+    @Test
+    void get_ShouldLoadEachBranchOnceAndServeLaterReadsFromMemory() {
+        // When
+        BranchFleetCache.Partition first = cache.get(1L).orElseThrow();
+        BranchFleetCache.Partition second = cache.get(1L).orElseThrow();
+
+        // Then
+        assertSame(first, second);
+        assertEquals(List.of(10L), first.getAvailableCars().stream().map(Car::getId).toList());
+        assertEquals(1L, first.getCarsByStatus().get(CarStatus.RENTED));
+        verify(carRepository, times(1)).findByBranchId(1L);
+    }
+
+    @Test
+    void get_WithoutReplicaRouting_ShouldJoinTheCallersTransaction() {
+        // When
+        cache.get(1L);
+
+        // Then: a new transaction from an after-commit listener would need a second pooled connection
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRED, definition.getValue().getPropagationBehavior());
+    }
+
+    @Test
+    void get_UnknownBranch_ShouldBeEmptyAndNotCached() {
+        // Given
+        when(branchRepository.findById(9L)).thenReturn(Optional.empty());
+
+        // When / Then
+        assertTrue(cache.get(9L).isEmpty());
+        assertEquals(0, cache.partitionCount());
+    }
+
+    @Test
+    void carAndRentalEvents_ShouldOnlyDropTheAffectedBranch() {
+        // Given
+        BranchFleetCache.Partition branchOne = cache.get(1L).orElseThrow();
+        BranchFleetCache.Partition branchTwo = cache.get(2L).orElseThrow();
+
+        // When
+        cache.onCarStatusChanged(new CarStatusChangedEvent(20L, CarStatus.AVAILABLE, CarStatus.RENTED));
+
+        // Then
+        assertSame(branchOne, cache.get(1L).orElseThrow());
+        assertNotSame(branchTwo, cache.get(2L).orElseThrow());
+
+        // When
+        BranchFleetCache.Partition reloadedTwo = cache.get(2L).orElseThrow();
+        cache.onRentalEvent(new RentalEvent(RentalEventType.RENTAL_CREATED, 5L, 10L, 3L, 1L,
+                null, "ACTIVE", LocalDateTime.now()));
+
+        // Then
+        assertNotSame(branchOne, cache.get(1L).orElseThrow());
+        assertSame(reloadedTwo, cache.get(2L).orElseThrow());
+    }
+
+    @Test
+    void carMovedBetweenBranches_ShouldDropBothBranches() {
+        // Given
+        BranchFleetCache.Partition branchOne = cache.get(1L).orElseThrow();
+        BranchFleetCache.Partition branchTwo = cache.get(2L).orElseThrow();
+
+        // When
+        cache.onCarChanged(new CarChangedEvent(10L, 2L, false));
+
+        // Then
+        assertNotSame(branchOne, cache.get(1L).orElseThrow());
+        assertNotSame(branchTwo, cache.get(2L).orElseThrow());
+    }
+
+    @Test
+    void statusEventDuringFirstLoad_ShouldNotInstallTheStalePartition() {
+        // Given: the status change commits after the load read car 20 but before it was recorded
+        when(carRepository.findByBranchId(2L)).thenAnswer(invocation -> {
+            cache.onCarStatusChanged(new CarStatusChangedEvent(20L, CarStatus.AVAILABLE, CarStatus.RENTED));
+            return List.of(car(20L, 2L, CarStatus.AVAILABLE));
+        });
+
+        // When
+        BranchFleetCache.Partition raced = cache.get(2L).orElseThrow();
+
+        // Then
+        assertEquals(0, cache.partitionCount());
+        assertNotSame(raced, cache.get(2L).orElseThrow());
+    }
+
+    private static Car car(Long id, Long branchId, CarStatus status) {
+        Car car = new Car("Toyota", "Camry", 2023, "PLATE" + id, new BigDecimal("45.00"));
+        car.setId(id);
+        car.setBranchId(branchId);
+        car.setStatus(status);
+        return car;
+    }
+}
@@ -0,0 +1,185 @@
+package com.carrental.service;
+
+import com.carrental.config.PrimaryReads;
+import com.carrental.dto.NearestBranch;
+import com.carrental.model.Branch;
+import com.carrental.model.BranchStatus;
+import com.carrental.model.Car;
+import com.carrental.model.CarStatus;
+import com.carrental.repository.BranchRentalTotals;
+import com.carrental.repository.BranchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BranchLocatorTest {
+
+    @Mock
+    private BranchRepository branchRepository;
+
+    @Mock
+    private BranchFleetCache branchFleetCache;
+
+    @Mock
+    private OccupancyIndex occupancyIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BranchLocator branchLocator;
+
+    private final LocalDate tomorrow = LocalDate.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        branchLocator = new BranchLocator(new PrimaryReads(transactionManager), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(branchLocator, "branchRepository", branchRepository);
+        ReflectionTestUtils.setField(branchLocator, "branchFleetCache", branchFleetCache);
+        ReflectionTestUtils.setField(branchLocator, "occupancyIndex", occupancyIndex);
+        lenient().when(occupancyIndex.getHorizonEnd()).thenReturn(LocalDate.now().plusDays(365));
+    }
+
+    @Test
+    void kdTreeNearest_ShouldReturnPointsInGreatCircleOrder() {
+        // Given
+        Random random = new Random(42);
+        int count = 500;
+        long[] ids = new long[count];
+        double[][] points = new double[count][];
+        double[][] coordinates = new double[count][];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i;
+            coordinates[i] = new double[] {random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180};
+            points[i] = BranchLocator.toUnitVector(coordinates[i][0], coordinates[i][1]);
+        }
+        BranchLocator.KdTree tree = new BranchLocator.KdTree(ids, points);
+        double latitude = 6.9271;
+        double longitude = 79.8612;
+
+        // When
+        List<Long> walked = new ArrayList<>();
+        Iterator<BranchLocator.KdTree.Hit> hits = tree.nearest(BranchLocator.toUnitVector(latitude, longitude));
+        while (hits.hasNext()) {
+            walked.add(hits.next().id);
+        }
+
+        // Then
+        List<Long> expected = new ArrayList<>();
+        for (long id : ids) {
+            expected.add(id);
+        }
+        expected.sort(Comparator.comparingDouble(id ->
+                haversineKm(latitude, longitude, coordinates[id.intValue()][0], coordinates[id.intValue()][1])));
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    void findNearest_ShouldStopAtFirstBranchesWithAFreeMatchingCar() throws Exception {
+        // Given: Colombo, Negombo, Kandy and Galle
+        when(branchRepository.findLocatedBranches(BranchStatus.ACTIVE)).thenReturn(List.of(
+                branch(1L, 6.9271, 79.8612), branch(2L, 7.2008, 79.8737),
+                branch(3L, 7.2906, 80.6337), branch(4L, 6.0535, 80.2210)));
+        stubPartition(1L, car(10L, 5, CarStatus.AVAILABLE));
+        stubPartition(2L, car(20L, 7, CarStatus.AVAILABLE));
+        when(occupancyIndex.occupiedDays(anyLong(), any(), any())).thenReturn(0);
+
+        // When
+        List<NearestBranch> nearest = branchLocator.findNearest(6.93, 79.85, tomorrow, tomorrow.plusDays(2), 7, 1);
+
+        // Then
+        assertEquals(1, nearest.size());
+        assertEquals(2L, nearest.get(0).getBranch().getId());
+        assertEquals(List.of(20L), nearest.get(0).getAvailableCars().stream().map(Car::getId).toList());
+        assertTrue(nearest.get(0).getDistanceKm() > 25 && nearest.get(0).getDistanceKm() < 35);
+        verify(branchFleetCache, never()).get(3L);
+        verify(branchFleetCache, never()).get(4L);
+    }
+
+    @Test
+    void findNearest_CarBookedOverTheRange_ShouldBeSkipped() throws Exception {
+        // Given
+        when(branchRepository.findLocatedBranches(BranchStatus.ACTIVE)).thenReturn(List.of(
+                branch(1L, 6.9271, 79.8612), branch(2L, 7.2008, 79.8737)));
+        stubPartition(1L, car(10L, 5, CarStatus.AVAILABLE));
+        stubPartition(2L, car(20L, 5, CarStatus.AVAILABLE));
+        when(occupancyIndex.occupiedDays(10L, tomorrow, tomorrow)).thenReturn(1);
+        when(occupancyIndex.occupiedDays(20L, tomorrow, tomorrow)).thenReturn(0);
+
+        // When
+        List<NearestBranch> nearest = branchLocator.findNearest(6.93, 79.85, tomorrow, tomorrow, null, 3);
+
+        // Then
+        assertEquals(1, nearest.size());
+        assertEquals(2L, nearest.get(0).getBranch().getId());
+    }
+
+    @Test
+    void findNearest_CarOutOnRent_ShouldBeSkippedForLaterDaysToo() throws Exception {
+        // Given: POST /rentals refuses any car that is not AVAILABLE, whatever its rentals leave free
+        when(branchRepository.findLocatedBranches(BranchStatus.ACTIVE)).thenReturn(List.of(
+                branch(1L, 6.9271, 79.8612), branch(2L, 7.2008, 79.8737)));
+        stubPartition(1L, car(10L, 5, CarStatus.RENTED));
+        stubPartition(2L, car(20L, 5, CarStatus.AVAILABLE));
+        when(occupancyIndex.occupiedDays(20L, tomorrow.plusDays(7), tomorrow.plusDays(9))).thenReturn(0);
+
+        // When
+        List<NearestBranch> nearest = branchLocator.findNearest(6.93, 79.85, tomorrow.plusDays(7), tomorrow.plusDays(9), null, 3);
+
+        // Then
+        assertEquals(1, nearest.size());
+        assertEquals(2L, nearest.get(0).getBranch().getId());
+    }
+
+    private void stubPartition(Long branchId, Car... cars) throws Exception {
+        Constructor<BranchFleetCache.Partition> constructor = BranchFleetCache.Partition.class
+                .getDeclaredConstructor(Branch.class, List.class, List.class);
+        Branch branch = branch(branchId, 0, 0);
+        BranchFleetCache.Partition partition = constructor.newInstance(branch, List.of(cars), List.<BranchRentalTotals>of());
+        when(branchFleetCache.get(branchId)).thenReturn(Optional.of(partition));
+    }
+
+    private static Branch branch(Long id, double latitude, double longitude) {
+        Branch branch = new Branch("Branch " + id, "B" + id, "City");
+        branch.setId(id);
+        branch.setLatitude(latitude);
+        branch.setLongitude(longitude);
+        return branch;
+    }
+
+    private static Car car(Long id, int seats, CarStatus status) {
+        Car car = new Car("Toyota", "Prado", 2023, "PLATE" + id, new BigDecimal("90.00"));
+        car.setId(id);
+        car.setSeatingCapacity(seats);
+        car.setStatus(status);
+        return car;
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2), 2);
+        return 2 * BranchLocator.EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,49 @@
+package com.carrental.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadsTest {
+
+    private Bulkheads bulkheads;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("bulkhead.reports.max-concurrent", "2")
+                .withProperty("bulkhead.reports.max-wait-ms", "0");
+        bulkheads = new Bulkheads(environment, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void tryEnter_WhenGroupSaturated_ShouldRejectWithoutAffectingOtherGroups() throws Exception {
+        // Given
+        assertTrue(bulkheads.tryEnter(EndpointGroup.REPORTS));
+        assertTrue(bulkheads.tryEnter(EndpointGroup.REPORTS));
+
+        // When
+        boolean entered = bulkheads.tryEnter(EndpointGroup.REPORTS);
+
+        // Then
+        assertFalse(entered);
+        assertTrue(bulkheads.tryEnter(EndpointGroup.BOOKING));
+    }
+
+    @Test
+    void release_ShouldFreeSlot() throws Exception {
+        // Given
+        bulkheads.tryEnter(EndpointGroup.REPORTS);
+        bulkheads.tryEnter(EndpointGroup.REPORTS);
+
+        // When
+        bulkheads.release(EndpointGroup.REPORTS);
+
+        // Then
+        assertEquals(1, bulkheads.available(EndpointGroup.REPORTS));
+        assertTrue(bulkheads.tryEnter(EndpointGroup.REPORTS));
+    }
+}
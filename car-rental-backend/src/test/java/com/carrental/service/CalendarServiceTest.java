@@ -0,0 +1,137 @@
+package com.carrental.service;
+
+import com.carrental.dto.AvailabilityCalendar;
+import com.carrental.model.Car;
+import com.carrental.model.CarStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarServiceTest {
+
+    @Mock
+    private CarService carService;
+
+    @Mock
+    private OccupancyIndex occupancyIndex;
+
+    @InjectMocks
+    private CalendarService calendarService;
+
+    private final LocalDate today = LocalDate.now();
+    private Car firstCar;
+    private Car secondCar;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(calendarService, "calendarDays", 90);
+        firstCar = new Car("Toyota", "Camry", 2023, "ABC123", new BigDecimal("45.00"));
+        firstCar.setId(1L);
+        secondCar = new Car("Toyota", "Camry", 2022, "XYZ789", new BigDecimal("40.00"));
+        secondCar.setId(2L);
+        lenient().when(occupancyIndex.getHorizonStart()).thenReturn(today.minusDays(365));
+        lenient().when(occupancyIndex.getHorizonEnd()).thenReturn(today.plusDays(365));
+    }
+
+    @Test
+    void getCarCalendar_ShouldCollapseDaysIntoFreeAndBusyRanges() {
+        // Given
+        when(carService.getCarById(1L)).thenReturn(Optional.of(firstCar));
+        when(occupancyIndex.busyCounts(List.of(1L), today, today.plusDays(5)))
+                .thenReturn(new int[]{0, 0, 1, 1, 1, 0});
+
+        // When
+        AvailabilityCalendar calendar = calendarService.getCarCalendar(1L, today, today.plusDays(5)).orElseThrow();
+
+        // Then
+        List<AvailabilityCalendar.Range> ranges = calendar.getRanges();
+        assertEquals(3, ranges.size());
+        assertTrue(ranges.get(0).isFree());
+        assertEquals(today.plusDays(1), ranges.get(0).getTo());
+        assertFalse(ranges.get(1).isFree());
+        assertEquals(today.plusDays(2), ranges.get(1).getFrom());
+        assertEquals(today.plusDays(4), ranges.get(1).getTo());
+        assertTrue(ranges.get(2).isFree());
+    }
+
+    @Test
+    void getModelCalendar_ShouldReportFreeCarsPerRange() {
+        // Given
+        when(carService.getCarsByMakeAndModel("Toyota", "Camry")).thenReturn(List.of(firstCar, secondCar));
+        when(occupancyIndex.busyCounts(List.of(1L, 2L), today, today.plusDays(89)))
+                .thenReturn(busyDays(90, 10, 19, 2));
+
+        // When
+        AvailabilityCalendar calendar = calendarService.getModelCalendar("Toyota", "Camry", null, null).orElseThrow();
+
+        // Then
+        assertEquals(2, calendar.getCars());
+        assertEquals(today.plusDays(89), calendar.getTo());
+        assertEquals(3, calendar.getRanges().size());
+        assertEquals(2, calendar.getRanges().get(0).getFreeCars());
+        assertEquals(0, calendar.getRanges().get(1).getFreeCars());
+        assertFalse(calendar.getRanges().get(1).isFree());
+    }
+
+    @Test
+    void getModelCalendar_ShouldNotCountCarsThatCannotBeBooked() {
+        // Given
+        secondCar.setStatus(CarStatus.MAINTENANCE);
+        when(carService.getCarsByMakeAndModel("Toyota", "Camry")).thenReturn(List.of(firstCar, secondCar));
+        when(occupancyIndex.busyCounts(List.of(1L), today, today.plusDays(89))).thenReturn(new int[90]);
+
+        // When
+        AvailabilityCalendar calendar = calendarService.getModelCalendar("Toyota", "Camry", null, null).orElseThrow();
+
+        // Then
+        assertEquals(2, calendar.getCars());
+        assertEquals(1, calendar.getRanges().size());
+        assertEquals(1, calendar.getRanges().get(0).getFreeCars());
+    }
+
+    @Test
+    void getCarCalendar_RentedCar_ShouldNotBeFreeOnLaterDays() {
+        // Given: booking requires an AVAILABLE car, whatever its rentals leave free
+        firstCar.setStatus(CarStatus.RENTED);
+        when(carService.getCarById(1L)).thenReturn(Optional.of(firstCar));
+        when(occupancyIndex.busyCounts(List.of(), today, today.plusDays(5))).thenReturn(new int[6]);
+
+        // When
+        AvailabilityCalendar calendar = calendarService.getCarCalendar(1L, today, today.plusDays(5)).orElseThrow();
+
+        // Then
+        assertEquals(1, calendar.getRanges().size());
+        assertFalse(calendar.getRanges().get(0).isFree());
+    }
+
+    @Test
+    void getModelCalendar_WithUnknownModel_ShouldReturnEmpty() {
+        // Given
+        when(carService.getCarsByMakeAndModel("Lada", "Niva")).thenReturn(List.of());
+
+        // When & Then
+        assertTrue(calendarService.getModelCalendar("Lada", "Niva", null, null).isEmpty());
+    }
+
+    private static int[] busyDays(int length, int from, int to, int busy) {
+        int[] counts = new int[length];
+        for (int day = from; day <= to; day++) {
+            counts[day] = busy;
+        }
+        return counts;
+    }
+}
@@ -1,17 +1,26 @@
 package com.carrental.service;
 
+import com.carrental.dto.FleetFilter;
+import com.carrental.event.CarStatusChangedEvent;
 import com.carrental.model.Car;
 import com.carrental.model.CarStatus;
+import com.carrental.model.SyncEntityType;
 import com.carrental.repository.CarRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +34,15 @@ class CarServiceTest {
     @Mock
     private CarRepository carRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeSyncService changeSyncService;
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+
     @InjectMocks
     private CarService carService;
 
@@ -128,6 +146,7 @@ class CarServiceTest {
 
         // Then
         verify(carRepository).deleteById(1L);
+        verify(changeSyncService).recordDeletions(SyncEntityType.CAR, List.of(1L));
     }
 
     @Test
@@ -158,6 +177,20 @@ class CarServiceTest {
         assertEquals(CarStatus.RENTED, result.getStatus());
         verify(carRepository).findById(1L);
         verify(carRepository).save(testCar);
+        verify(eventPublisher).publishEvent(any(CarStatusChangedEvent.class));
+    }
+
+    @Test
+    void updateCarStatus_WhenStatusUnchanged_ShouldNotPublishEvent() {
+        // Given
+        when(carRepository.findById(1L)).thenReturn(Optional.of(testCar));
+        when(carRepository.save(any(Car.class))).thenReturn(testCar);
+
+        // When
+        carService.updateCarStatus(1L, CarStatus.AVAILABLE);
+
+        // Then
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
@@ -186,4 +219,17 @@ class CarServiceTest {
         assertFalse(result);
         verify(carRepository).findById(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void queryCars_WithHandEditedCursorId_ShouldRejectAsInvalidCursor() {
+        // Given: the id part of a dailyRate cursor replaced with text
+        String cursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("dailyRate:asc:abc:40.00".getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> carService.queryCars(new FleetFilter(), "dailyRate", "asc", cursor, 10));
+        assertEquals("Invalid cursor", exception.getMessage());
+        verifyNoInteractions(carRepository);
+    }
+}
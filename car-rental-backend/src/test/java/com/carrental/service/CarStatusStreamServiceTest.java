@@ -0,0 +1,172 @@
+package com.carrental.service;
+
+import com.carrental.event.CarStatusChangedEvent;
+import com.carrental.model.CarStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CarStatusStreamServiceTest {
+
+    private CarStatusStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        streamService = new CarStatusStreamService(2, 3, 60000, 15000, 250, 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.stop();
+    }
+
+    @Test
+    void eventsSince_WithinReplayWindow_ShouldReturnMissedEvents() {
+        // Given
+        streamService.record(new CarStatusChangedEvent(1L, CarStatus.AVAILABLE, CarStatus.RENTED));
+        streamService.record(new CarStatusChangedEvent(2L, CarStatus.AVAILABLE, CarStatus.MAINTENANCE));
+        streamService.record(new CarStatusChangedEvent(1L, CarStatus.RENTED, CarStatus.AVAILABLE));
+
+        // When
+        List<CarStatusStreamService.StreamedEvent> missed = streamService.eventsSince(1L);
+
+        // Then
+        assertEquals(2, missed.size());
+        assertEquals(2L, missed.get(0).id);
+        assertEquals(3L, missed.get(1).id);
+        assertTrue(streamService.eventsSince(3L).isEmpty());
+    }
+
+    @Test
+    void eventsSince_WhenEvictedOrUnknown_ShouldRequireReset() {
+        // Given
+        for (long carId = 1; carId <= 5; carId++) {
+            streamService.record(new CarStatusChangedEvent(carId, CarStatus.AVAILABLE, CarStatus.RENTED));
+        }
+
+        // When & Then
+        assertNull(streamService.eventsSince(1L));
+        assertNotNull(streamService.eventsSince(2L));
+        assertNull(streamService.eventsSince(99L));
+    }
+
+    @Test
+    void subscribe_AfterRestart_ShouldResetClientOfThePreviousProcess() {
+        // Given: a client saw event 3 of the previous process, and the restarted one is past sequence 3 again
+        CarStatusStreamService previous = new CarStatusStreamService(2, 3, 60000, 15000, 250, 1, 100, 1000L);
+        CarStatusStreamService restarted = new CarStatusStreamService(2, 3, 60000, 15000, 250, 1, 100, 2000L);
+        String lastSeen = null;
+        for (long carId = 1; carId <= 3; carId++) {
+            lastSeen = previous.record(new CarStatusChangedEvent(carId, CarStatus.AVAILABLE, CarStatus.RENTED)).eventId;
+            restarted.record(new CarStatusChangedEvent(carId, CarStatus.AVAILABLE, CarStatus.MAINTENANCE));
+        }
+        previous.stop();
+
+        try {
+            // When
+            CarStatusStreamService.Subscriber subscriber = restarted.subscribe(new SseEmitter(), lastSeen);
+
+            // Then
+            assertEquals("1000-3", lastSeen);
+            assertNull(restarted.eventsSince(lastSeen));
+            assertNull(restarted.eventsSince("3"));
+            assertEquals(1, restarted.eventsSince("2000-2").size());
+            List<SseEmitter.SseEventBuilder> events = subscriber.drain();
+            assertEquals(1, events.size());
+            assertTrue(events.get(0).build().iterator().next().getData().toString().contains("event:" + CarStatusStreamService.RESET_EVENT));
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void subscriber_ShouldCoalesceBurstsPerCar() {
+        // Given
+        CarStatusStreamService.Subscriber subscriber = new CarStatusStreamService.Subscriber(new SseEmitter(), 2);
+
+        // When
+        subscriber.offer(streamService.record(new CarStatusChangedEvent(1L, CarStatus.AVAILABLE, CarStatus.RENTED)));
+        subscriber.offer(streamService.record(new CarStatusChangedEvent(1L, CarStatus.RENTED, CarStatus.AVAILABLE)));
+        subscriber.offer(streamService.record(new CarStatusChangedEvent(2L, CarStatus.AVAILABLE, CarStatus.RENTED)));
+
+        // Then
+        assertEquals(2, subscriber.pendingCount());
+        assertEquals(2, subscriber.drain().size());
+        assertEquals(0, subscriber.pendingCount());
+    }
+
+    @Test
+    void subscriber_WhenBufferOverflows_ShouldSendSingleReset() {
+        // Given
+        CarStatusStreamService.Subscriber subscriber = new CarStatusStreamService.Subscriber(new SseEmitter(), 2);
+
+        // When
+        for (long carId = 1; carId <= 3; carId++) {
+            subscriber.offer(streamService.record(new CarStatusChangedEvent(carId, CarStatus.AVAILABLE, CarStatus.RENTED)));
+        }
+
+        // Then
+        assertEquals(0, subscriber.pendingCount());
+        assertEquals(1, subscriber.drain().size());
+        assertTrue(subscriber.drain().isEmpty());
+    }
+
+    @Test
+    void flush_StalledSubscriber_ShouldNotDelayOthersAndBeDropped() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicReference<String> completedOn = new AtomicReference<>();
+        AtomicInteger delivered = new AtomicInteger();
+        streamService.subscribe(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void completeWithError(Throwable ex) {
+                completedOn.set(Thread.currentThread().getName());
+                completed.countDown();
+            }
+        }, null);
+        streamService.subscribe(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                delivered.incrementAndGet();
+            }
+        }, null);
+        streamService.onCarStatusChanged(new CarStatusChangedEvent(1L, CarStatus.AVAILABLE, CarStatus.RENTED));
+
+        // When
+        streamService.flush();
+        long deadline = System.currentTimeMillis() + 2000;
+        while (delivered.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(150);
+        streamService.flush();
+
+        // Then: the flushing thread only removes it; the emitter is completed once the stuck send returns
+        assertEquals(1, delivered.get());
+        assertEquals(1, streamService.getSubscriberCount());
+        assertEquals(1, completed.getCount());
+        release.countDown();
+        assertTrue(completed.await(2, TimeUnit.SECONDS));
+        assertTrue(completedOn.get().startsWith("car-status-sender-"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.carrental.service;
+
+import com.carrental.dto.ChangeSet;
+import com.carrental.model.Car;
+import com.carrental.repository.CarRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Replica routing on, with a replica that has the schema but none of the primary's writes: as far behind
+// as it can get, and further than settle-seconds
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sync_primary;NON_KEYWORDS=YEAR",
+        "read-replica.enabled=true",
+        "read-replica.url=" + ChangeSyncLaggingReplicaTest.REPLICA_URL,
+        "read-replica.driver-class-name=org.h2.Driver",
+        "read-replica.lag-check-interval-ms=3600000",
+        "change-sync.settle-seconds=2"})
+class ChangeSyncLaggingReplicaTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:sync_replica;DB_CLOSE_DELAY=-1;NON_KEYWORDS=YEAR";
+
+    static {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "password")
+                .locations("classpath:db/migration/h2")
+                .load()
+                .migrate();
+    }
+
+    @Autowired
+    private ChangeSyncService changeSyncService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Car car;
+
+    @AfterEach
+    void tearDown() {
+        if (car != null) {
+            carRepository.deleteById(car.getId());
+        }
+    }
+
+    @Test
+    void getCarChanges_RowMissingOnReplica_ShouldStillBeReturned() {
+        // Given: committed on the primary 3 seconds ago, past settle-seconds but within the replica's tolerated lag
+        car = carRepository.save(new Car("Toyota", "Camry", 2023, "LAG-1", new BigDecimal("45.00")));
+        jdbcTemplate.update("UPDATE cars SET updated_at = ? WHERE id = ?", LocalDateTime.now().minusSeconds(3), car.getId());
+        String since = LocalDateTime.now().minusMinutes(1).toString();
+
+        // When
+        ChangeSet<Car> changes = changeSyncService.getCarChanges(since, null).orElseThrow();
+
+        // Then: read-only reads do go to the replica, which lacks the car, yet the sync still sends it
+        assertTrue(carService.getCarById(car.getId()).isEmpty());
+        assertTrue(changes.getChanged().stream().anyMatch(changed -> changed.getId().equals(car.getId())));
+    }
+}
@@ -0,0 +1,142 @@
+package com.carrental.service;
+
+import com.carrental.dto.ChangeSet;
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.RentalRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"change-sync.settle-seconds=0", "change-sync.tombstone-retention-days=30"})
+@Transactional
+class ChangeSyncServiceTest {
+
+    @Autowired
+    private ChangeSyncService changeSyncService;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final LocalDateTime base = LocalDateTime.now().minusHours(1);
+
+    @BeforeEach
+    void setUp() {
+        rentalRepository.deleteAll();
+        carRepository.deleteAll();
+        customerRepository.deleteAll();
+        entityManager.flush();
+    }
+
+    @Test
+    void getCarChanges_ShouldPageInUpdateOrderAndResumeFromWatermark() throws Exception {
+        // Given
+        Car first = car("SYNC1", base.plusSeconds(1));
+        Car second = car("SYNC2", base.plusSeconds(2));
+        Car third = car("SYNC3", base.plusSeconds(2));
+
+        // When
+        ChangeSet<Car> page1 = changeSyncService.getCarChanges(base.toString(), 2).orElseThrow();
+        ChangeSet<Car> page2 = changeSyncService.getCarChanges(page1.getNextSince(), 2).orElseThrow();
+        ChangeSet<Car> idle = changeSyncService.getCarChanges(page2.getNextSince(), 2).orElseThrow();
+        Thread.sleep(5);
+        touch(second);
+        ChangeSet<Car> afterUpdate = changeSyncService.getCarChanges(idle.getNextSince(), 2).orElseThrow();
+
+        // Then
+        assertEquals(List.of(first.getId(), second.getId()), ids(page1.getChanged()));
+        assertTrue(page1.isHasMore());
+        assertEquals(List.of(third.getId()), ids(page2.getChanged()));
+        assertFalse(page2.isHasMore());
+        assertTrue(idle.getChanged().isEmpty());
+        assertEquals(List.of(second.getId()), ids(afterUpdate.getChanged()));
+    }
+
+    @Test
+    void getChanges_ShouldReportDeletionsAsTombstones() {
+        // Given
+        Car car = car("SYNC4", base.plusSeconds(1));
+        Customer customer = customerRepository.save(new Customer("Sync", "Client", "sync@example.com", "555-0140", "DLSYNC"));
+        Rental rental = rentalRepository.save(new Rental(customer, car, LocalDate.now(), LocalDate.now().plusDays(2),
+                new BigDecimal("90.00")));
+        entityManager.flush();
+        entityManager.clear();
+        String carWatermark = changeSyncService.getCarChanges(null, null).orElseThrow().getNextSince();
+        String rentalWatermark = changeSyncService.getRentalChanges(null, null).orElseThrow().getNextSince();
+        String customerWatermark = changeSyncService.getCustomerChanges(null, null).orElseThrow().getNextSince();
+
+        // When
+        customerService.deleteCustomer(customer.getId());
+        entityManager.flush();
+        carService.deleteCar(car.getId());
+        entityManager.flush();
+
+        // Then
+        assertEquals(List.of(car.getId()), changeSyncService.getCarChanges(carWatermark, null).orElseThrow().getDeleted());
+        assertEquals(List.of(customer.getId()),
+                changeSyncService.getCustomerChanges(customerWatermark, null).orElseThrow().getDeleted());
+        ChangeSet<Rental> rentals = changeSyncService.getRentalChanges(rentalWatermark, null).orElseThrow();
+        assertEquals(List.of(rental.getId()), rentals.getDeleted());
+        assertTrue(rentals.getChanged().isEmpty());
+    }
+
+    @Test
+    void getChanges_InvalidOrExpiredWatermark_ShouldBeRejected() {
+        assertTrue(changeSyncService.getCarChanges(LocalDateTime.now().minusDays(31).toString(), null).isEmpty());
+        assertThrows(RuntimeException.class, () -> changeSyncService.getCarChanges("not-a-watermark", null));
+        assertThrows(RuntimeException.class, () -> changeSyncService.getCarChanges(null, 0));
+    }
+
+    private Car car(String licensePlate, LocalDateTime updatedAt) {
+        Car car = carRepository.save(new Car("Toyota", "Camry", 2023, licensePlate, new BigDecimal("45.00")));
+        entityManager.flush();
+        jdbcTemplate.update("UPDATE cars SET updated_at = ? WHERE id = ?", updatedAt, car.getId());
+        // Later reads must see the stamped updated_at, not the instance saved above
+        entityManager.clear();
+        return car;
+    }
+
+    private void touch(Car car) {
+        jdbcTemplate.update("UPDATE cars SET updated_at = ? WHERE id = ?", LocalDateTime.now(), car.getId());
+    }
+
+    private static List<Long> ids(List<Car> cars) {
+        return cars.stream().map(Car::getId).toList();
+    }
+}
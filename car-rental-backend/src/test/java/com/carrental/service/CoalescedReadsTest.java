@@ -0,0 +1,109 @@
+package com.carrental.service;
+
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import com.carrental.model.RentalStatus;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.RentalRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Overdue rentals and customer search results are shared by RequestCoalescer. A follower gets the object the
+// leader returned and may serialize it after the leader's transaction and session are gone, so each call runs
+// on a thread of its own here and its result is serialized on the test thread afterwards.
+// Not @Transactional: the leader's session must really close.
+@SpringBootTest
+@ActiveProfiles("test")
+class CoalescedReadsTest {
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Customer customer;
+    private Car overdueCar;
+    private Car earlierCar;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate today = LocalDate.now();
+        overdueCar = carRepository.save(new Car("Toyota", "Camry", 2023, "SHARED-1", new BigDecimal("45.00")));
+        earlierCar = carRepository.save(new Car("Honda", "Civic", 2022, "SHARED-2", new BigDecimal("40.00")));
+        customer = customerRepository.save(new Customer("Shared", "Reader", "shared.reader@example.com",
+                "555-0150", "DLSHARED"));
+        rentalRepository.save(new Rental(customer, overdueCar, today.minusDays(5), today.minusDays(1),
+                new BigDecimal("180.00")));
+        Rental earlier = new Rental(customer, earlierCar, today.minusDays(30), today.minusDays(28),
+                new BigDecimal("80.00"));
+        earlier.setStatus(RentalStatus.COMPLETED);
+        rentalRepository.save(earlier);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rentalRepository.deleteAll(rentalRepository.findByCustomerId(customer.getId()));
+        customerRepository.deleteById(customer.getId());
+        carRepository.deleteAll(List.of(overdueCar, earlierCar));
+    }
+
+    @Test
+    void overdueRentals_SerializedAfterLeaderSessionClosed_ShouldRenderCustomerRentals() throws Exception {
+        // Given
+        List<Rental> shared = CompletableFuture.supplyAsync(rentalService::getOverdueRentals).get();
+
+        // When
+        String json = objectMapper.writeValueAsString(shared);
+
+        // Then
+        Rental overdue = shared.stream().filter(rental -> rental.getCar().getId().equals(overdueCar.getId()))
+                .findFirst().orElseThrow();
+        assertFalse(overdue.getCustomer().getRentals() instanceof PersistentCollection);
+        assertEquals(2, overdue.getCustomer().getRentals().size());
+        assertTrue(json.contains("SHARED-1"));
+        assertTrue(json.contains("SHARED-2"));
+    }
+
+    @Test
+    void searchCustomers_SerializedAfterLeaderSessionClosed_ShouldRenderRentalsWithCars() throws Exception {
+        // Given
+        List<Customer> shared = CompletableFuture.supplyAsync(() -> customerService.searchCustomers("shared.reader")).get();
+
+        // When
+        String json = objectMapper.writeValueAsString(shared);
+
+        // Then
+        assertEquals(1, shared.size());
+        assertFalse(shared.get(0).getRentals() instanceof PersistentCollection);
+        assertTrue(json.contains("SHARED-1"));
+        assertTrue(json.contains("SHARED-2"));
+    }
+}
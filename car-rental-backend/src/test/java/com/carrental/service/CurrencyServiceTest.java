@@ -0,0 +1,90 @@
+package com.carrental.service;
+
+import com.carrental.currency.CurrencyConversion;
+import com.carrental.currency.ExchangeRateProvider;
+import com.carrental.currency.ExchangeRates;
+import com.carrental.currency.FileExchangeRateProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CurrencyServiceTest {
+
+    @Mock
+    private ExchangeRateProvider provider;
+
+    @Test
+    void refresh_WhenProviderFails_ShouldKeepPreviousSnapshot() {
+        // Given
+        ExchangeRates first = new ExchangeRates("USD", Map.of("EUR", new BigDecimal("0.92")),
+                Instant.parse("2024-06-03T00:00:00Z"), "test");
+        when(provider.fetch()).thenReturn(first).thenThrow(new RuntimeException("feed unavailable"));
+        CurrencyService currencyService = new CurrencyService(provider, new SimpleMeterRegistry());
+        CurrencyConversion before = currencyService.conversionTo("EUR");
+
+        // When
+        currencyService.refresh();
+
+        // Then
+        assertSame(first, currencyService.getRates());
+        assertEquals(new BigDecimal("41.40"), before.apply(new BigDecimal("45.00")));
+        assertEquals(new BigDecimal("1"), currencyService.getRates().getRates().get("USD"));
+        assertThrows(RuntimeException.class, () -> currencyService.conversionTo("GBP"));
+    }
+
+    @Test
+    void refresh_ShouldSwapWholeSnapshotWhileEarlierConversionsKeepTheirRate() {
+        // Given
+        when(provider.fetch())
+                .thenReturn(new ExchangeRates("USD", Map.of("EUR", new BigDecimal("0.92")), Instant.now(), "test"))
+                .thenReturn(new ExchangeRates("USD", Map.of("EUR", new BigDecimal("0.95"),
+                        "JPY", new BigDecimal("157.20")), Instant.now(), "test"));
+        CurrencyService currencyService = new CurrencyService(provider, new SimpleMeterRegistry());
+        CurrencyConversion pinned = currencyService.conversionTo("EUR");
+
+        // When
+        currencyService.refresh();
+
+        // Then
+        assertEquals(new BigDecimal("0.92"), pinned.getRate());
+        assertEquals(new BigDecimal("0.95"), currencyService.conversionTo("eur").getRate());
+        assertEquals(new BigDecimal("7074"), currencyService.conversionTo("JPY").apply(new BigDecimal("45.00")));
+    }
+
+    @Test
+    void fileProvider_ShouldReadRatesAndRejectNonPositiveOnes() {
+        // Given
+        ObjectMapper objectMapper = new ObjectMapper();
+        FileExchangeRateProvider valid = new FileExchangeRateProvider(resource(
+                "{\"base\":\"USD\",\"asOf\":\"2024-06-03T00:00:00Z\",\"rates\":{\"EUR\":0.92,\"GBP\":0.785}}"),
+                objectMapper);
+        FileExchangeRateProvider invalid = new FileExchangeRateProvider(resource(
+                "{\"base\":\"USD\",\"rates\":{\"EUR\":0}}"), objectMapper);
+
+        // When
+        ExchangeRates rates = valid.fetch();
+
+        // Then
+        assertEquals("USD", rates.getBase());
+        assertEquals(Instant.parse("2024-06-03T00:00:00Z"), rates.getAsOf());
+        assertEquals(0, new BigDecimal("0.785").compareTo(rates.getRates().get("GBP")));
+        assertThrows(RuntimeException.class, invalid::fetch);
+    }
+
+    private static ByteArrayResource resource(String json) {
+        return new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,141 @@
+package com.carrental.service;
+
+import com.carrental.config.PrimaryReads;
+import com.carrental.dto.FleetFacets;
+import com.carrental.dto.FleetFilter;
+import com.carrental.event.CarChangedEvent;
+import com.carrental.event.CarStatusChangedEvent;
+import com.carrental.model.Car;
+import com.carrental.model.CarStatus;
+import com.carrental.repository.CarRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FleetSnapshotTest {
+
+    @Mock
+    private CarRepository carRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private FleetSnapshot fleetSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        fleetSnapshot = new FleetSnapshot(new PrimaryReads(transactionManager));
+        ReflectionTestUtils.setField(fleetSnapshot, "carRepository", carRepository);
+        when(carRepository.findAll()).thenReturn(List.of(
+                car(1L, "Toyota", "Camry", 2023, "Hybrid", "Automatic", 5, "45.00", CarStatus.AVAILABLE),
+                car(2L, "Toyota", "Corolla", 2021, "Gasoline", "Manual", 5, "35.00", CarStatus.RENTED),
+                car(3L, "Honda", "Civic", 2022, "Gasoline", "Automatic", 5, "40.00", CarStatus.AVAILABLE),
+                car(4L, "Ford", "Transit", 2020, "Diesel", "Manual", 9, "80.00", CarStatus.MAINTENANCE)));
+        fleetSnapshot.rebuild();
+    }
+
+    @Test
+    void query_WithCombinedCriteria_ShouldReturnMatchesAndFacetsExcludingOwnFilter() {
+        // Given
+        FleetFilter filter = new FleetFilter();
+        filter.setMakes(List.of("toyota"));
+        filter.setStatuses(List.of(CarStatus.AVAILABLE));
+        filter.setMaxRate(new BigDecimal("50"));
+
+        // When
+        FleetFacets result = fleetSnapshot.query(filter);
+
+        // Then
+        assertEquals(4, result.getFleetSize());
+        assertEquals(List.of(1L), result.getCarIds());
+        // Make facet ignores the make filter: available cars under 50 per make
+        assertEquals(Map.of("Toyota", 1, "Honda", 1), result.getFacets().get("make"));
+        // Status facet ignores the status filter: Toyotas under 50 per status
+        assertEquals(Map.of("AVAILABLE", 1, "RENTED", 1), result.getFacets().get("status"));
+        assertEquals(Map.of("Hybrid", 1), result.getFacets().get("fuelType"));
+    }
+
+    @Test
+    void query_WithRangeFilters_ShouldApplyYearSeatsAndRate() {
+        // Given
+        FleetFilter filter = new FleetFilter();
+        filter.setMinYear(2021);
+        filter.setMinSeats(5);
+        filter.setMaxSeats(5);
+        filter.setMinRate(new BigDecimal("35.01"));
+
+        // When
+        FleetFacets result = fleetSnapshot.query(filter);
+
+        // Then
+        assertEquals(List.of(1L, 3L), result.getCarIds());
+        assertEquals(Map.of("5", 2), result.getFacets().get("seatingCapacity"));
+        assertEquals(Map.of("2022", 1, "2023", 1), result.getFacets().get("year"));
+    }
+
+    @Test
+    void carEvents_ShouldUpdateSnapshotIncrementally() {
+        // Given
+        when(carRepository.findById(5L)).thenReturn(Optional.of(
+                car(5L, "Tesla", "Model 3", 2024, "Electric", "Automatic", 5, "90.00", CarStatus.AVAILABLE)));
+
+        // When
+        fleetSnapshot.onCarChanged(new CarChangedEvent(5L, false));
+        fleetSnapshot.onCarChanged(new CarChangedEvent(1L, true));
+        fleetSnapshot.onCarStatusChanged(new CarStatusChangedEvent(3L, CarStatus.AVAILABLE, CarStatus.RENTED));
+
+        // Then
+        FleetFilter available = new FleetFilter();
+        available.setStatuses(List.of(CarStatus.AVAILABLE));
+        FleetFacets result = fleetSnapshot.query(available);
+        assertEquals(4, result.getFleetSize());
+        assertEquals(List.of(5L), result.getCarIds());
+        assertEquals(Map.of("Electric", 1), result.getFacets().get("fuelType"));
+        assertEquals(Map.of("AVAILABLE", 1, "RENTED", 2, "MAINTENANCE", 1), result.getFacets().get("status"));
+    }
+
+    @Test
+    void query_WithFarApartSeatsAndYears_ShouldCountOnlyValuesPresent() {
+        // Given
+        when(carRepository.findById(5L)).thenReturn(Optional.of(
+                car(5L, "Custom", "Limo", 1, "Gasoline", "Manual", Integer.MAX_VALUE, "500.00", CarStatus.AVAILABLE)));
+        when(carRepository.findById(6L)).thenReturn(Optional.of(
+                car(6L, "Custom", "Prototype", 99999, "Electric", "Automatic", 2, "900.00", CarStatus.AVAILABLE)));
+        fleetSnapshot.onCarChanged(new CarChangedEvent(5L, false));
+        fleetSnapshot.onCarChanged(new CarChangedEvent(6L, false));
+
+        // When
+        FleetFilter filter = new FleetFilter();
+        filter.setMakes(List.of("custom"));
+        FleetFacets result = fleetSnapshot.query(filter);
+
+        // Then
+        assertEquals(List.of(5L, 6L), result.getCarIds());
+        assertEquals(Map.of("2", 1, String.valueOf(Integer.MAX_VALUE), 1), result.getFacets().get("seatingCapacity"));
+        assertEquals(Map.of("1", 1, "99999", 1), result.getFacets().get("year"));
+    }
+
+    private static Car car(Long id, String make, String model, int year, String fuel, String transmission,
+                           int seats, String rate, CarStatus status) {
+        Car car = new Car(make, model, year, "PLATE" + id, new BigDecimal(rate));
+        car.setId(id);
+        car.setFuelType(fuel);
+        car.setTransmissionType(transmission);
+        car.setSeatingCapacity(seats);
+        car.setStatus(status);
+        return car;
+    }
+}
@@ -0,0 +1,105 @@
+package com.carrental.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(new SimpleMeterRegistry(), 60, 2);
+    }
+
+    @Test
+    void claim_AfterCompletion_ShouldReturnStoredResponse() throws Exception {
+        // Given
+        IdempotencyStore.Claim owner = store.claim("/rentals:k1", "abc");
+        store.complete(owner.getEntry(), response(201, "{\"id\":1}"));
+
+        // When
+        IdempotencyStore.Claim retry = store.claim("/rentals:k1", "abc");
+
+        // Then
+        assertEquals(IdempotencyStore.ClaimResult.OWNER, owner.getResult());
+        assertEquals(IdempotencyStore.ClaimResult.EXISTING, retry.getResult());
+        IdempotencyStore.StoredResponse replayed = store.await(retry.getEntry(), 100);
+        assertEquals(201, replayed.getStatus());
+        assertEquals("{\"id\":1}", new String(replayed.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void claim_WithDifferentFingerprint_ShouldReportMismatch() {
+        // Given
+        store.claim("/rentals:k1", "abc");
+
+        // When
+        IdempotencyStore.Claim claim = store.claim("/rentals:k1", "def");
+
+        // Then
+        assertEquals(IdempotencyStore.ClaimResult.MISMATCH, claim.getResult());
+    }
+
+    @Test
+    void await_WhileInFlight_ShouldBlockUntilOwnerCompletes() throws Exception {
+        // Given
+        IdempotencyStore.Claim owner = store.claim("/rentals:k1", "abc");
+        IdempotencyStore.Claim duplicate = store.claim("/rentals:k1", "abc");
+        CompletableFuture<IdempotencyStore.StoredResponse> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return store.await(duplicate.getEntry(), 5000);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        // When
+        assertFalse(waiter.isDone());
+        store.complete(owner.getEntry(), response(201, "{}"));
+
+        // Then
+        assertEquals(201, waiter.get(5, TimeUnit.SECONDS).getStatus());
+        assertThrows(TimeoutException.class, () -> store.await(store.claim("/rentals:k2", "x").getEntry(), 10));
+    }
+
+    @Test
+    void abandon_ShouldReleaseKeyForNextRequest() throws Exception {
+        // Given
+        IdempotencyStore.Claim owner = store.claim("/rentals:k1", "abc");
+        IdempotencyStore.Claim duplicate = store.claim("/rentals:k1", "abc");
+
+        // When
+        store.abandon("/rentals:k1", owner.getEntry());
+
+        // Then
+        assertNull(store.await(duplicate.getEntry(), 100));
+        assertEquals(IdempotencyStore.ClaimResult.OWNER, store.claim("/rentals:k1", "abc").getResult());
+    }
+
+    @Test
+    void claim_WhenFull_ShouldEvictOldestCompletedEntry() {
+        // Given
+        store.complete(store.claim("/rentals:k1", "a").getEntry(), response(201, "{}"));
+        store.claim("/rentals:k2", "b");
+
+        // When
+        store.claim("/rentals:k3", "c");
+
+        // Then
+        assertEquals(2, store.size());
+        assertEquals(IdempotencyStore.ClaimResult.OWNER, store.claim("/rentals:k1", "a").getResult());
+    }
+
+    private static IdempotencyStore.StoredResponse response(int status, String body) {
+        return new IdempotencyStore.StoredResponse(status, "application/json", null, body.getBytes(StandardCharsets.UTF_8));
+    }
+}
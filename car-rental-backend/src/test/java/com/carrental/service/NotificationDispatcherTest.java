@@ -0,0 +1,213 @@
+package com.carrental.service;
+
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.model.NotificationType;
+import com.carrental.model.OutboxMessage;
+import com.carrental.model.OutboxStatus;
+import com.carrental.model.Rental;
+import com.carrental.model.RentalStatus;
+import com.carrental.notification.LoggingNotificationSender;
+import com.carrental.notification.Notification;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class NotificationDispatcherTest {
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private LoggingNotificationSender notificationSender;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Car car;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        notificationSender.clear();
+        car = carRepository.save(new Car("Toyota", "Camry", 2023, "NOTIFY1", new BigDecimal("45.00")));
+        customer = customerRepository.save(new Customer("John", "Doe", "john.notify@email.com", "555-0101", "DLNOTIFY1"));
+    }
+
+    @Test
+    void createRental_ShouldWriteOutboxRowsAndDispatchOnlyDueOnes() {
+        // Given
+        Rental rental = rentalService.createRental(newRental(LocalDate.now(), LocalDate.now().plusDays(5)));
+
+        // When
+        int dispatched = notificationDispatcher.dispatch();
+
+        // Then
+        assertEquals(1, dispatched);
+        Map<NotificationType, OutboxMessage> outbox = outboxByType(rental.getId());
+        assertEquals(OutboxStatus.SENT, outbox.get(NotificationType.RENTAL_CONFIRMATION).getStatus());
+        assertEquals(OutboxStatus.PENDING, outbox.get(NotificationType.RETURN_REMINDER).getStatus());
+
+        List<Notification> delivered = notificationSender.getDelivered();
+        assertEquals(1, delivered.size());
+        assertEquals("john.notify@email.com", delivered.get(0).getEmail());
+        assertTrue(delivered.get(0).getPayload().contains("NOTIFY1"));
+    }
+
+    @Test
+    void completeRental_ShouldCancelReminderAndSendReturnConfirmation() {
+        // Given
+        Rental rental = rentalService.createRental(newRental(LocalDate.now(), LocalDate.now().plusDays(5)));
+        notificationDispatcher.dispatch();
+
+        // When
+        rentalService.completeRental(rental.getId(), LocalDate.now());
+        int dispatched = notificationDispatcher.dispatch();
+
+        // Then
+        assertEquals(1, dispatched);
+        Map<NotificationType, OutboxMessage> outbox = outboxByType(rental.getId());
+        assertEquals(OutboxStatus.CANCELLED, outbox.get(NotificationType.RETURN_REMINDER).getStatus());
+        assertEquals(OutboxStatus.SENT, outbox.get(NotificationType.RETURN_CONFIRMATION).getStatus());
+    }
+
+    @Test
+    void cancelOrDeleteRental_ShouldCancelReminder() {
+        // Given
+        Rental cancelled = rentalService.createRental(newRental(LocalDate.now(), LocalDate.now().plusDays(5)));
+        Rental otherCar = newRental(LocalDate.now(), LocalDate.now().plusDays(3));
+        otherCar.setCar(carRepository.save(new Car("Honda", "Civic", 2022, "NOTIFY2", new BigDecimal("40.00"))));
+        Rental deleted = rentalService.createRental(otherCar);
+
+        // When
+        Rental details = newRental(cancelled.getStartDate(), cancelled.getEndDate());
+        details.setStatus(RentalStatus.CANCELLED);
+        rentalService.updateRental(cancelled.getId(), details);
+        rentalService.deleteRental(deleted.getId());
+
+        // Then
+        assertEquals(OutboxStatus.CANCELLED, outboxByType(cancelled.getId()).get(NotificationType.RETURN_REMINDER).getStatus());
+        assertEquals(OutboxStatus.CANCELLED, outboxByType(deleted.getId()).get(NotificationType.RETURN_REMINDER).getStatus());
+    }
+
+    @Test
+    void updateRental_NewEndDate_ShouldMoveReminderAndRefreshItsPayload() {
+        // Given
+        Rental rental = rentalService.createRental(newRental(LocalDate.now(), LocalDate.now().plusDays(5)));
+        LocalDate extendedEnd = LocalDate.now().plusDays(12);
+
+        // When
+        rentalService.updateRental(rental.getId(), newRental(rental.getStartDate(), extendedEnd));
+
+        // Then
+        OutboxMessage reminder = outboxByType(rental.getId()).get(NotificationType.RETURN_REMINDER);
+        assertEquals(OutboxStatus.PENDING, reminder.getStatus());
+        assertEquals(extendedEnd.minusDays(1).atTime(9, 0), reminder.getNextAttemptAt());
+        assertTrue(reminder.getPayload().contains(extendedEnd.toString()));
+    }
+
+    @Test
+    void deleteCustomer_ShouldCancelRemindersForTheirRentals() {
+        // Given
+        Rental rental = rentalService.createRental(newRental(LocalDate.now(), LocalDate.now().plusDays(5)));
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        customerService.deleteCustomer(customer.getId());
+
+        // Then
+        assertEquals(OutboxStatus.CANCELLED, outboxByType(rental.getId()).get(NotificationType.RETURN_REMINDER).getStatus());
+    }
+
+    @Test
+    void dispatch_CustomerNoLongerExists_ShouldCancelInsteadOfSending() {
+        // Given
+        OutboxMessage orphan = outboxMessageRepository.save(new OutboxMessage(NotificationType.RETURN_REMINDER,
+                -1L, -1L, "{}", LocalDateTime.now().minusMinutes(1)));
+
+        // When
+        notificationDispatcher.dispatch();
+
+        // Then
+        assertTrue(notificationSender.getDelivered().isEmpty());
+        entityManager.clear();
+        assertEquals(OutboxStatus.CANCELLED, outboxMessageRepository.findById(orphan.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void dispatch_FailedDelivery_ShouldNotRevertCancellationMadeMeanwhile() {
+        // Given: the sender rejects the batch, and the message is cancelled while it is out at the gateway
+        Rental rental = rentalService.createRental(newRental(LocalDate.now(), LocalDate.now().plusDays(5)));
+        NotificationDispatcher dispatcher = new NotificationDispatcher(outboxMessageRepository, customerRepository,
+                batch -> {
+                    outboxMessageRepository.updatePendingStatus(rental.getId(), NotificationType.RENTAL_CONFIRMATION,
+                            OutboxStatus.CANCELLED);
+                    return Set.of();
+                }, transactionManager, new SimpleMeterRegistry(), 100, 5, 60, 30);
+
+        // When
+        dispatcher.dispatch();
+
+        // Then
+        assertEquals(OutboxStatus.CANCELLED, outboxByType(rental.getId()).get(NotificationType.RENTAL_CONFIRMATION).getStatus());
+    }
+
+    private Rental newRental(LocalDate startDate, LocalDate endDate) {
+        Rental rental = new Rental();
+        rental.setCustomer(customer);
+        rental.setCar(car);
+        rental.setStartDate(startDate);
+        rental.setEndDate(endDate);
+        return rental;
+    }
+
+    private Map<NotificationType, OutboxMessage> outboxByType(Long rentalId) {
+        // Bulk updates bypass the persistence context, so read fresh rows
+        entityManager.flush();
+        entityManager.clear();
+        return outboxMessageRepository.findByRentalId(rentalId).stream()
+                .collect(Collectors.toMap(OutboxMessage::getType, Function.identity()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.carrental.service;
+
+import com.carrental.config.PrimaryReads;
+import com.carrental.event.RentalEvent;
+import com.carrental.event.RentalEventType;
+import com.carrental.model.RentalStatus;
+import com.carrental.repository.ArchivedRentalRepository;
+import com.carrental.repository.RentalRepository;
+import com.carrental.repository.RentalSpan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyIndexTest {
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OccupancyIndex occupancyIndex;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        occupancyIndex = new OccupancyIndex(new PrimaryReads(transactionManager));
+        ReflectionTestUtils.setField(occupancyIndex, "rentalRepository", rentalRepository);
+        ReflectionTestUtils.setField(occupancyIndex, "archivedRentalRepository", archivedRentalRepository);
+        ReflectionTestUtils.setField(occupancyIndex, "pastDays", 100);
+        ReflectionTestUtils.setField(occupancyIndex, "futureDays", 100);
+    }
+
+    @Test
+    void rebuild_ShouldMarkLiveAndArchivedRentals() {
+        // Given
+        when(rentalRepository.findOccupancySpans(any(), any())).thenReturn(List.of(
+                span(1L, today.plusDays(1), today.plusDays(3), null, RentalStatus.ACTIVE)));
+        when(archivedRentalRepository.findOccupancySpans(any(), any())).thenReturn(List.of(
+                span(1L, today.minusDays(60), today.minusDays(50), today.minusDays(55), RentalStatus.COMPLETED)));
+
+        // When
+        occupancyIndex.rebuild();
+
+        // Then
+        assertEquals(3, occupancyIndex.occupiedDays(1L, today, today.plusDays(10)));
+        assertEquals(6, occupancyIndex.occupiedDays(1L, today.minusDays(70), today.minusDays(40)));
+        assertTrue(occupancyIndex.isOccupied(1L, today.plusDays(2)));
+        assertFalse(occupancyIndex.isOccupied(1L, today));
+        assertEquals(0, occupancyIndex.occupiedDays(2L, today.minusDays(100), today.plusDays(100)));
+    }
+
+    @Test
+    void rebuild_ActiveRentalPastEndDate_ShouldStayOccupiedThroughToday() {
+        // Given
+        when(rentalRepository.findOccupancySpans(any(), any())).thenReturn(List.of(
+                span(1L, today.minusDays(5), today.minusDays(3), null, RentalStatus.ACTIVE)));
+
+        // When
+        occupancyIndex.rebuild();
+
+        // Then
+        assertEquals(6, occupancyIndex.occupiedDays(1L, today.minusDays(10), today.plusDays(10)));
+    }
+
+    @Test
+    void onRentalEvent_ShouldRecomputeOnlyThatCar() {
+        // Given
+        occupancyIndex.rebuild();
+        when(rentalRepository.findOccupancySpansByCarId(1L)).thenReturn(List.of(
+                span(1L, today, today.plusDays(4), null, RentalStatus.ACTIVE)));
+
+        // When
+        occupancyIndex.onRentalEvent(new RentalEvent(RentalEventType.RENTAL_CREATED, 10L, 1L, 5L,
+                null, "ACTIVE", LocalDateTime.now()));
+
+        // Then
+        assertEquals(5, occupancyIndex.occupiedDays(1L, today.minusDays(1), today.plusDays(30)));
+    }
+
+    @Test
+    void countBits_ShouldHandleRangesAcrossWordBoundaries() {
+        // Given
+        long[] words = new long[4];
+
+        // When
+        OccupancyIndex.setBits(words, 60, 130);
+
+        // Then
+        assertEquals(71, OccupancyIndex.countBits(words, 0, 255));
+        assertEquals(4, OccupancyIndex.countBits(words, 0, 63));
+        assertEquals(64, OccupancyIndex.countBits(words, 64, 127));
+        assertEquals(3, OccupancyIndex.countBits(words, 128, 255));
+        assertEquals(1, OccupancyIndex.countBits(words, 130, 130));
+        assertEquals(0, OccupancyIndex.countBits(words, 131, 1000));
+    }
+
+    private static RentalSpan span(Long carId, LocalDate start, LocalDate end, LocalDate returned, RentalStatus status) {
+        return new RentalSpan() {
+            public Long getCarId() { return carId; }
+            public LocalDate getStartDate() { return start; }
+            public LocalDate getEndDate() { return end; }
+            public LocalDate getActualReturnDate() { return returned; }
+            public RentalStatus getStatus() { return status; }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package com.carrental.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("rate-limit.listing.capacity", "3")
+                .withProperty("rate-limit.listing.refill-per-second", "1");
+        rateLimiter = new RateLimiter(environment, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowBurstUpToCapacityThenRefuse() {
+        // Given
+        long now = 0;
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(EndpointGroup.LISTING, "10.0.0.1", now));
+        }
+        long waitNanos = rateLimiter.tryAcquire(EndpointGroup.LISTING, "10.0.0.1", now);
+
+        // Then
+        assertEquals(SECOND, waitNanos);
+        assertEquals(0, rateLimiter.tryAcquire(EndpointGroup.LISTING, "10.0.0.2", now));
+        assertEquals(0, rateLimiter.tryAcquire(EndpointGroup.BOOKING, "10.0.0.1", now));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillAtConfiguredRate() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(EndpointGroup.LISTING, "10.0.0.1", 0);
+        }
+
+        // When & Then
+        assertEquals(0, rateLimiter.tryAcquire(EndpointGroup.LISTING, "10.0.0.1", SECOND));
+        assertTrue(rateLimiter.tryAcquire(EndpointGroup.LISTING, "10.0.0.1", SECOND) > 0);
+        assertEquals(0, rateLimiter.tryAcquire(EndpointGroup.LISTING, "10.0.0.1", 10 * SECOND));
+    }
+
+    @Test
+    void constructor_NonPositiveRefillRate_ShouldBeRejected() {
+        for (String rate : new String[] {"0", "-1", "1e-12"}) {
+            MockEnvironment environment = new MockEnvironment().withProperty("rate-limit.reports.refill-per-second", rate);
+            assertThrows(IllegalArgumentException.class, () -> new RateLimiter(environment, new SimpleMeterRegistry()));
+        }
+    }
+
+    @Test
+    void classify_ShouldSeparateBookingFromHeavyReads() {
+        assertEquals(EndpointGroup.BOOKING, EndpointGroup.classify("POST", "/rentals"));
+        assertEquals(EndpointGroup.LISTING, EndpointGroup.classify("GET", "/rentals"));
+        assertEquals(EndpointGroup.LISTING, EndpointGroup.classify("GET", "/rentals/status/ACTIVE"));
+        assertEquals(EndpointGroup.SEARCH, EndpointGroup.classify("GET", "/cars/search"));
+        assertEquals(EndpointGroup.REPORTS, EndpointGroup.classify("GET", "/reports/utilization"));
+        assertEquals(EndpointGroup.REPORTS, EndpointGroup.classify("POST", "/reports/jobs"));
+        assertEquals(EndpointGroup.DEFAULT, EndpointGroup.classify("GET", "/reports/jobs/abc"));
+        assertEquals(EndpointGroup.DEFAULT, EndpointGroup.classify("GET", "/rentals/42"));
+    }
+}
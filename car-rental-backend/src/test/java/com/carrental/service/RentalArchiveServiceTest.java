@@ -0,0 +1,127 @@
+package com.carrental.service;
+
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import com.carrental.model.RentalStatus;
+import com.carrental.repository.ArchivedRentalRepository;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.RentalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"rental-archive.retention-days=30", "rental-archive.batch-size=2"})
+@Transactional
+class RentalArchiveServiceTest {
+
+    @Autowired
+    private RentalArchiveService rentalArchiveService;
+
+    @Autowired
+    private RentalService rentalService;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Car car;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        car = carRepository.save(new Car("Toyota", "Camry", 2023, "ARCH123", new BigDecimal("45.00")));
+        customer = customerRepository.save(new Customer("John", "Doe", "john.archive@email.com", "555-0101", "DLARCH1"));
+    }
+
+    @Test
+    void archiveClosedRentals_ShouldMoveOldClosedRentalsInBatches() {
+        // Given
+        Rental oldCompleted1 = rental(RentalStatus.COMPLETED, 200);
+        Rental oldCompleted2 = rental(RentalStatus.COMPLETED, 120);
+        Rental oldCancelled = rental(RentalStatus.CANCELLED, 60);
+        Rental recentCompleted = rental(RentalStatus.COMPLETED, 5);
+        Rental active = rental(RentalStatus.ACTIVE, 200);
+
+        // When
+        int archived = rentalArchiveService.archiveClosedRentals();
+
+        // Then
+        assertEquals(3, archived);
+        assertTrue(archivedRentalRepository.existsById(oldCompleted1.getId()));
+        assertTrue(archivedRentalRepository.existsById(oldCompleted2.getId()));
+        assertTrue(archivedRentalRepository.existsById(oldCancelled.getId()));
+        assertEquals(2, rentalRepository.count());
+        assertTrue(rentalRepository.existsById(recentCompleted.getId()));
+        assertTrue(rentalRepository.existsById(active.getId()));
+    }
+
+    @Test
+    void getRentalsByCustomer_ShouldIncludeArchivedRentals() {
+        // Given
+        Rental archivedRental = rental(RentalStatus.COMPLETED, 100);
+        Rental liveRental = rental(RentalStatus.ACTIVE, 0);
+        rentalArchiveService.archiveClosedRentals();
+
+        // When
+        List<Rental> history = rentalService.getRentalsByCustomer(customer.getId());
+
+        // Then
+        assertEquals(2, history.size());
+        assertEquals(archivedRental.getId(), history.get(0).getId());
+        assertEquals(RentalStatus.COMPLETED, history.get(0).getStatus());
+        assertEquals(car.getId(), history.get(0).getCar().getId());
+        assertEquals(liveRental.getId(), history.get(1).getId());
+    }
+
+    @Test
+    void deleteCar_ReferencedOnlyByArchivedRentals_ShouldBeRefused() {
+        // Given
+        rental(RentalStatus.COMPLETED, 100);
+        rentalArchiveService.archiveClosedRentals();
+        assertEquals(0, rentalRepository.count());
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> {
+            carRepository.deleteById(car.getId());
+            carRepository.flush();
+        });
+    }
+
+    private Rental rental(RentalStatus status, int closedDaysAgo) {
+        LocalDate start = LocalDate.now().minusDays(closedDaysAgo + 3L);
+        Rental rental = new Rental(customer, car, start, start.plusDays(3), new BigDecimal("180.00"));
+        rental.setStatus(status);
+        rental = rentalRepository.saveAndFlush(rental);
+        jdbcTemplate.update("UPDATE rentals SET updated_at = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(closedDaysAgo), rental.getId());
+        return rental;
+    }
+}
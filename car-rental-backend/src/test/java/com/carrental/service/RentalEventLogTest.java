@@ -0,0 +1,110 @@
+package com.carrental.service;
+
+import com.carrental.event.RentalEvent;
+import com.carrental.event.RentalEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RentalEventLogTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:rental_event_log;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE rental_events (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "event_type VARCHAR(40) NOT NULL, rental_id BIGINT, car_id BIGINT, customer_id BIGINT, " +
+                "previous_status VARCHAR(30), new_status VARCHAR(30), occurred_at TIMESTAMP(6) NOT NULL)");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE rental_events");
+    }
+
+    @Test
+    void stop_ShouldFlushEveryQueuedEvent() {
+        // Given
+        RentalEventLog eventLog = new RentalEventLog(jdbcTemplate, meterRegistry, 10000, 50, 60000, 5, 3);
+        eventLog.start();
+
+        // When
+        for (long i = 1; i <= 1234; i++) {
+            assertTrue(eventLog.publish(event(i)));
+        }
+        eventLog.stop();
+
+        // Then
+        assertEquals(1234, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rental_events", Integer.class));
+        assertEquals(0, eventLog.getQueueDepth());
+        assertEquals(1234.0, meterRegistry.counter("rental.events.written").count());
+    }
+
+    @Test
+    void publish_WhenQueueIsFull_ShouldDropAndCountEvent() {
+        // Given: writer never started, so nothing drains the queue
+        RentalEventLog eventLog = new RentalEventLog(jdbcTemplate, meterRegistry, 3, 50, 60000, 0, 3);
+
+        // When
+        for (long i = 1; i <= 5; i++) {
+            eventLog.publish(event(i));
+        }
+
+        // Then
+        assertEquals(3, eventLog.getQueueDepth());
+        assertEquals(2.0, meterRegistry.counter("rental.events.dropped").count());
+        eventLog.flushAll();
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rental_events", Integer.class));
+    }
+
+    @Test
+    void writer_WhenBatchKeepsFailing_ShouldDeadLetterBadEventAndKeepWriting() throws Exception {
+        // Given: one event the table rejects
+        jdbcTemplate.execute("ALTER TABLE rental_events ADD CONSTRAINT no_13 CHECK (rental_id <> 13)");
+        RentalEventLog eventLog = new RentalEventLog(jdbcTemplate, meterRegistry, 10000, 50, 10, 5, 2);
+        eventLog.start();
+
+        try {
+            // When
+            for (long i = 1; i <= 20; i++) {
+                eventLog.publish(event(i));
+            }
+            awaitRows(19);
+            eventLog.publish(event(21));
+            awaitRows(20);
+
+            // Then
+            assertEquals(20, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rental_events", Integer.class));
+            assertEquals(1.0, meterRegistry.counter("rental.events.dead.lettered").count());
+            assertEquals(0, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM rental_events WHERE rental_id = 13", Integer.class));
+        } finally {
+            eventLog.stop();
+        }
+    }
+
+    private void awaitRows(int rows) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rental_events", Integer.class) < rows) {
+            assertTrue(System.currentTimeMillis() < deadline, "Writer did not reach " + rows + " rows");
+            Thread.sleep(10);
+        }
+    }
+
+    private static RentalEvent event(long rentalId) {
+        return new RentalEvent(RentalEventType.RENTAL_CREATED, rentalId, 1L, 1L, null, "ACTIVE", LocalDateTime.now());
+    }
+}
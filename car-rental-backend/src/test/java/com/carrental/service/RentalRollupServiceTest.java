@@ -0,0 +1,204 @@
+package com.carrental.service;
+
+import com.carrental.dto.RevenueReport;
+import com.carrental.event.RentalEvent;
+import com.carrental.event.RentalEventType;
+import com.carrental.model.Car;
+import com.carrental.model.Customer;
+import com.carrental.model.Rental;
+import com.carrental.model.RentalStatus;
+import com.carrental.repository.ArchivedRentalRepository;
+import com.carrental.repository.CarRepository;
+import com.carrental.repository.CustomerRepository;
+import com.carrental.repository.RentalRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "rental-rollup.overlap-seconds=0")
+@RecordApplicationEvents
+@Transactional
+class RentalRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private RentalRollupService rentalRollupService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Autowired
+    private CarRepository carRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private ArchivedRentalRepository archivedRentalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Car camry;
+    private Car civic;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        camry = carRepository.save(new Car("Toyota", "Camry", 2023, "ROLL1", new BigDecimal("45.00")));
+        civic = carRepository.save(new Car("Honda", "Civic", 2022, "ROLL2", new BigDecimal("40.00")));
+        customer = customerRepository.save(new Customer("John", "Doe", "john.rollup@email.com", "555-0101", "DLROLL1"));
+    }
+
+    @Test
+    void refresh_FirstRun_ShouldBuildRowsPerDayAndCar() {
+        // Given
+        rental(camry, DAY, RentalStatus.COMPLETED, "100.00");
+        rental(camry, DAY, RentalStatus.CANCELLED, "50.00");
+        rental(civic, DAY.plusDays(1), RentalStatus.ACTIVE, "80.00");
+
+        // When
+        rentalRollupService.refresh();
+
+        // Then
+        List<RentalRollupService.RollupRow> rows = rentalRollupService.findDaily(DAY, DAY.plusDays(1), "make");
+        assertEquals(2, rows.size());
+        assertRow(rows.get(0), DAY, "Toyota", 1, 1, "100.00");
+        assertRow(rows.get(1), DAY.plusDays(1), "Honda", 1, 0, "80.00");
+        assertNotNull(rentalRollupService.getWatermark());
+    }
+
+    @Test
+    void refresh_ShouldOnlyRecomputeCarsChangedSinceWatermark() {
+        // Given
+        Rental moved = rental(camry, DAY, RentalStatus.COMPLETED, "100.00");
+        rental(civic, DAY, RentalStatus.COMPLETED, "80.00");
+        rentalRollupService.refresh();
+        LocalDateTime watermark = rentalRollupService.getWatermark();
+
+        // When
+        jdbcTemplate.update("UPDATE rentals SET start_date = ?, end_date = ?, updated_at = ? WHERE id = ?",
+                DAY.plusDays(5), DAY.plusDays(6), watermark.plusSeconds(1), moved.getId());
+        int recomputed = rentalRollupService.refresh();
+
+        // Then
+        assertEquals(1, recomputed);
+        assertEquals(watermark.plusSeconds(1), rentalRollupService.getWatermark());
+        List<RentalRollupService.RollupRow> rows = rentalRollupService.findDaily(DAY, DAY.plusDays(5), "car");
+        assertEquals(2, rows.size());
+        assertRow(rows.get(0), DAY, String.valueOf(civic.getId()), 1, 0, "80.00");
+        assertRow(rows.get(1), DAY.plusDays(5), String.valueOf(camry.getId()), 1, 0, "100.00");
+        assertEquals(0, rentalRollupService.refresh());
+    }
+
+    @Test
+    void refresh_ShouldKeepArchivedRentalsAndDropDeletedOnes() {
+        // Given
+        Rental archived = rental(camry, DAY, RentalStatus.COMPLETED, "100.00");
+        Rental deleted = rental(civic, DAY, RentalStatus.COMPLETED, "80.00");
+        rentalRollupService.refresh();
+
+        // When
+        archivedRentalRepository.copyFromRentals(List.of(archived.getId()), LocalDateTime.now());
+        rentalRepository.deleteAllByIdInBatch(List.of(archived.getId(), deleted.getId()));
+        rentalRollupService.onRentalEvent(new RentalEvent(RentalEventType.RENTAL_DELETED, deleted.getId(),
+                civic.getId(), customer.getId(), "COMPLETED", "COMPLETED", LocalDateTime.now()));
+        rentalRollupService.refresh();
+
+        // Then
+        List<RentalRollupService.RollupRow> rows = rentalRollupService.findDaily(DAY, DAY, "make");
+        assertEquals(1, rows.size());
+        assertRow(rows.get(0), DAY, "Toyota", 1, 0, "100.00");
+    }
+
+    @Test
+    void refresh_ShouldDropRentalsDeletedWithTheirCustomer() {
+        // Given
+        rental(camry, DAY, RentalStatus.COMPLETED, "100.00");
+        Rental archived = rental(civic, DAY, RentalStatus.COMPLETED, "80.00");
+        archivedRentalRepository.copyFromRentals(List.of(archived.getId()), LocalDateTime.now());
+        rentalRepository.deleteAllByIdInBatch(List.of(archived.getId()));
+        entityManager.clear();
+        rentalRollupService.refresh();
+        assertEquals(2, rentalRollupService.findDaily(DAY, DAY, "car").size());
+
+        // When: the test transaction never commits, so the recorded events are handed over directly
+        customerService.deleteCustomer(customer.getId());
+        entityManager.flush();
+        applicationEvents.stream(RentalEvent.class).forEach(rentalRollupService::onRentalEvent);
+        rentalRollupService.refresh();
+
+        // Then
+        assertEquals(2, applicationEvents.stream(RentalEvent.class)
+                .filter(event -> event.getType() == RentalEventType.RENTAL_DELETED).count());
+        assertTrue(rentalRollupService.findDaily(DAY, DAY, "car").isEmpty());
+    }
+
+    @Test
+    void getRevenue_ByMonth_ShouldSumDaysOfEachMonth() {
+        // Given
+        rental(camry, DAY, RentalStatus.COMPLETED, "100.00");
+        rental(civic, DAY.plusDays(10), RentalStatus.COMPLETED, "80.00");
+        rental(civic, DAY.plusMonths(1), RentalStatus.CANCELLED, "40.00");
+        rentalRollupService.refresh();
+
+        // When
+        RevenueReport report = reportService.getRevenue(DAY, DAY.plusMonths(2), "fleet", "month");
+
+        // Then
+        assertEquals(2, report.getBuckets().size());
+        assertEquals(DAY, report.getBuckets().get(0).getPeriod());
+        assertEquals(2, report.getBuckets().get(0).getBookings());
+        assertEquals(0, new BigDecimal("180.00").compareTo(report.getBuckets().get(0).getRevenue()));
+        assertEquals(1, report.getBuckets().get(1).getCancellations());
+        assertEquals(2, report.getTotals().getBookings());
+        assertEquals(1, report.getTotals().getCancellations());
+    }
+
+    private Rental rental(Car car, LocalDate start, RentalStatus status, String totalCost) {
+        Rental rental = new Rental(customer, car, start, start.plusDays(1), new BigDecimal(totalCost));
+        rental.setStatus(status);
+        rental = rentalRepository.save(rental);
+        entityManager.flush();
+        return rental;
+    }
+
+    private static void assertRow(RentalRollupService.RollupRow row, LocalDate date, String key,
+                                  long bookings, long cancellations, String revenue) {
+        assertEquals(date, row.getDate());
+        assertEquals(key, row.getKey());
+        assertEquals(bookings, row.getBookings());
+        assertEquals(cancellations, row.getCancellations());
+        assertEquals(0, new BigDecimal(revenue).compareTo(row.getRevenue()));
+    }
+}
@@ -0,0 +1,150 @@
+package com.carrental.service;
+
+import com.carrental.dto.CustomerValueReport;
+import com.carrental.dto.ReportJob;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    @Mock
+    private ReportService reportService;
+
+    private ReportJobService reportJobService;
+
+    private final CustomerValueReport report = new CustomerValueReport(1, new BigDecimal("90.00"), List.of());
+
+    @BeforeEach
+    void setUp() {
+        reportJobService = new ReportJobService(new SimpleMeterRegistry(), 1, 1, 3600, 3600, 10);
+        ReflectionTestUtils.setField(reportJobService, "reportService", reportService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reportJobService.stop();
+    }
+
+    @Test
+    void submit_ShouldRunOnceAndServeRepeatsFromTheStore() throws Exception {
+        // Given
+        when(reportService.getCustomerLifetimeValue(100)).thenReturn(report);
+
+        // When
+        ReportJob first = reportJobService.submit("customer-value", Map.of()).orElseThrow();
+        ReportJob finished = awaitCompletion(first.getId());
+        ReportJob repeat = reportJobService.submit("customer-value", Map.of("limit", "100")).orElseThrow();
+
+        // Then
+        assertEquals(ReportJob.Status.SUCCEEDED, finished.getStatus());
+        assertSame(report, finished.getResult());
+        assertFalse(finished.isCached());
+        assertNotEquals(first.getId(), repeat.getId());
+        assertEquals(first.getResultKey(), repeat.getResultKey());
+        assertEquals(ReportJob.Status.SUCCEEDED, repeat.getStatus());
+        assertTrue(repeat.isCached());
+        assertSame(report, repeat.getResult());
+        verify(reportService, times(1)).getCustomerLifetimeValue(100);
+    }
+
+    @Test
+    void submit_WhileIdenticalJobRuns_ShouldReturnThatJob() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(reportService.getCustomerLifetimeValue(5)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return report;
+        });
+        ReportJob running = reportJobService.submit("customer-value", Map.of("limit", "5")).orElseThrow();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        ReportJob duplicate = reportJobService.submit("customer-value", Map.of("limit", "5")).orElseThrow();
+        ReportJob queued = reportJobService.submit("customer-value", Map.of("limit", "6")).orElseThrow();
+        Optional<ReportJob> rejected = reportJobService.submit("customer-value", Map.of("limit", "7"));
+        release.countDown();
+
+        // Then
+        assertEquals(running.getId(), duplicate.getId());
+        assertEquals(ReportJob.Status.QUEUED, queued.getStatus());
+        assertTrue(rejected.isEmpty());
+    }
+
+    @Test
+    void submit_FailingReport_ShouldRecordErrorAndNotStoreIt() throws Exception {
+        // Given
+        when(reportService.getCustomerLifetimeValue(100))
+                .thenThrow(new RuntimeException("database unavailable"))
+                .thenReturn(report);
+
+        // When
+        ReportJob failed = awaitCompletion(reportJobService.submit("customer-value", Map.of()).orElseThrow().getId());
+        ReportJob retried = awaitCompletion(reportJobService.submit("customer-value", Map.of()).orElseThrow().getId());
+
+        // Then
+        assertEquals(ReportJob.Status.FAILED, failed.getStatus());
+        assertEquals("database unavailable", failed.getError());
+        assertEquals(ReportJob.Status.SUCCEEDED, retried.getStatus());
+        assertFalse(retried.isCached());
+    }
+
+    @Test
+    void resultKey_ShouldResolveDefaultsBeforeHashing() {
+        // Given
+        LocalDate today = LocalDate.now();
+        Map<String, String> explicit = Map.of("from", today.minusDays(29).toString(), "to", today.toString(),
+                "groupBy", "fleet", "interval", "day");
+
+        // When
+        String defaulted = ReportJobService.resultKey("revenue", ReportJobService.resolve("revenue", Map.of()));
+        String spelledOut = ReportJobService.resultKey("revenue", ReportJobService.resolve("revenue", explicit));
+        String otherType = ReportJobService.resultKey("utilization",
+                ReportJobService.resolve("utilization", Map.of("groupBy", "make")));
+
+        // Then
+        assertEquals(defaulted, spelledOut);
+        assertNotEquals(defaulted, otherType);
+    }
+
+    @Test
+    void submit_InvalidRequest_ShouldThrow() {
+        assertThrows(RuntimeException.class, () -> reportJobService.submit("unknown", Map.of()));
+        assertThrows(RuntimeException.class, () -> reportJobService.submit("revenue", Map.of("groupBy", "model")));
+        assertThrows(RuntimeException.class, () -> reportJobService.submit("revenue", Map.of("currency", "EUR")));
+        assertThrows(RuntimeException.class, () -> reportJobService.submit("utilization",
+                Map.of("from", "2024-02-01", "to", "2024-01-01")));
+        verifyNoInteractions(reportService);
+    }
+
+    private ReportJob awaitCompletion(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            ReportJob job = reportJobService.getJob(id).orElseThrow();
+            if (job.getStatus() == ReportJob.Status.SUCCEEDED || job.getStatus() == ReportJob.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Report job " + id + " did not finish");
+    }
+}
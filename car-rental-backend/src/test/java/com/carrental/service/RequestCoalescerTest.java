@@ -0,0 +1,140 @@
+package com.carrental.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionExecution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RequestCoalescerTest {
+
+    private PlatformTransactionManager transactionManager;
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        coalescer = new RequestCoalescer(transactionManager, new SimpleMeterRegistry());
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_ConcurrentCallsWithSameKey_ShouldShareOneExecution() throws Exception {
+        // Given
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> coalescer.execute(List.of("cars:available"), () -> {
+                executions.incrementAndGet();
+                await(release);
+                return "result";
+            })));
+        }
+        waitUntil(() -> executions.get() == 1);
+        Thread.sleep(50);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("result", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, coalescer.inFlightCount());
+        // Only the caller running the query opened a transaction; the others waited without a connection
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void execute_ArgumentsThatWouldJoinToTheSameString_ShouldNotShareAnExecution() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = executor.submit(() -> coalescer.execute(List.of("cars:make-model", "a:b", "c"), () -> {
+            await(release);
+            return "a:b / c";
+        }));
+        waitUntil(() -> coalescer.inFlightCount() == 1);
+
+        // When
+        String second = coalescer.execute(List.of("cars:make-model", "a", "b:c"), () -> "a / b:c");
+        release.countDown();
+
+        // Then
+        assertEquals("a / b:c", second);
+        assertEquals("a:b / c", first.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_WhenLoaderFails_ShouldPropagateToCallersAndNotCacheFailure() {
+        // Given
+        RuntimeException failure = new RuntimeException("database down");
+
+        // When & Then
+        assertSame(failure, assertThrows(RuntimeException.class,
+                () -> coalescer.execute(List.of("rentals:overdue"), () -> { throw failure; })));
+        assertEquals("ok", coalescer.execute(List.of("rentals:overdue"), () -> "ok"));
+    }
+
+    @Test
+    void afterCommit_OfWriteTransaction_ShouldStopNewCallersJoiningRunningFlight() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> first = executor.submit(() -> coalescer.execute(List.of("cars:available"), () -> {
+            await(release);
+            return "before write";
+        }));
+        waitUntil(() -> coalescer.inFlightCount() == 1);
+        TransactionExecution write = mock(TransactionExecution.class);
+        when(write.isReadOnly()).thenReturn(false);
+
+        // When
+        coalescer.afterCommit(write, null);
+        String second = coalescer.execute(List.of("cars:available"), () -> "after write");
+        release.countDown();
+
+        // Then
+        assertEquals("after write", second);
+        assertEquals("before write", first.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
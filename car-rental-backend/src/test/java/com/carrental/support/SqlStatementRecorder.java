@@ -0,0 +1,37 @@
+package com.carrental.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Registered for the test profile through hibernate.session_factory.statement_inspector;
+// records every SQL statement Hibernate prepares on the current thread.
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> statements() {
+        return new ArrayList<>(STATEMENTS.get());
+    }
+
+    public static long count() {
+        return STATEMENTS.get().size();
+    }
+
+    public static long selectCount() {
+        return STATEMENTS.get().stream().filter(sql -> sql.trim().toLowerCase().startsWith("select")).count();
+    }
+}